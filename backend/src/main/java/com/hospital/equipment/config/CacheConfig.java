@@ -0,0 +1,58 @@
+package com.hospital.equipment.config;
+
+import java.util.List;
+import java.util.OptionalLong;
+
+import javax.cache.Caching;
+
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.hibernate.cache.spi.RegionFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.cache.transaction.TransactionAwareCacheManagerProxy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import com.hospital.equipment.entity.Category;
+import com.hospital.equipment.entity.Equipment;
+
+@Configuration
+@EnableCaching
+public class CacheConfig {
+    
+    public static final String EQUIPMENT_CACHE = "equipment";
+    public static final String CATEGORY_CACHE = "categories";
+    
+    @Bean
+    public CacheManager cacheManager(@Value("${catalog.cache.spec}") String cacheSpec) {
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager(EQUIPMENT_CACHE, CATEGORY_CACHE);
+        cacheManager.setCacheSpecification(cacheSpec);
+        // Evictions wait for the writing transaction to commit, so a concurrent read cannot re-cache old rows
+        return new TransactionAwareCacheManagerProxy(cacheManager);
+    }
+    
+    // Regions of the Hibernate second-level cache, held in Caffeine through its JCache provider.
+    // Hibernate closes the JCache manager when the session factory shuts down.
+    @Bean
+    public HibernatePropertiesCustomizer secondLevelCache(
+            @Value("${catalog.entity-cache.maximum-size:10000}") long maximumSize) {
+        javax.cache.CacheManager cacheManager =
+                Caching.getCachingProvider(CaffeineCachingProvider.class.getName()).getCacheManager();
+        for (String region : List.of(Category.class.getName(), Equipment.class.getName(),
+                RegionFactory.DEFAULT_QUERY_RESULTS_REGION_UNQUALIFIED_NAME)) {
+            CaffeineConfiguration<Object, Object> configuration = new CaffeineConfiguration<>();
+            configuration.setMaximumSize(OptionalLong.of(maximumSize));
+            cacheManager.createCache(region, configuration);
+        }
+        // Unbounded on purpose: Hibernate takes a table without a timestamp as unchanged, so an evicted
+        // entry would let stale query results through. It holds one entry per table.
+        cacheManager.createCache(RegionFactory.DEFAULT_UPDATE_TIMESTAMPS_REGION_UNQUALIFIED_NAME,
+                new CaffeineConfiguration<>());
+        return properties -> properties.put(ConfigSettings.CACHE_MANAGER, cacheManager);
+    }
+}
\ No newline at end of file
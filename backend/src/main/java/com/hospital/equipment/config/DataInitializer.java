@@ -31,6 +31,11 @@ public class DataInitializer implements CommandLineRunner {
     
     @Override
     public void run(String... args) throws Exception {
+        // A file-backed database keeps the sample data from the first run
+        if (categoryRepository.count() > 0) {
+            return;
+        }
+        
         // Create categories
         Category mobilityCategory = new Category("Mobility Equipment", "Equipment to assist with patient mobility");
         Category monitoringCategory = new Category("Monitoring Equipment", "Equipment for patient monitoring and diagnostics");
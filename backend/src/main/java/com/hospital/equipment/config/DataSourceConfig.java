@@ -0,0 +1,73 @@
+package com.hospital.equipment.config;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.autoconfigure.transaction.TransactionManagerCustomizers;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.context.annotation.Profile;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+// Read/write split for the `replica` profile: a second H2 database kept in step with the primary by
+// LocalReplicator stands in for a read replica, and read-only service transactions are served from it.
+@Configuration
+@Profile("replica")
+public class DataSourceConfig {
+    
+    @Bean
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName("primary");
+        return dataSource;
+    }
+    
+    @Bean
+    public HikariDataSource replicaDataSource(DataSourceProperties properties,
+                                              @Value("${datasource.replica.url}") String url) {
+        HikariDataSource dataSource = DataSourceBuilder.create().type(HikariDataSource.class)
+                .driverClassName(properties.determineDriverClassName())
+                .url(url)
+                .username(properties.determineUsername())
+                .password(properties.determinePassword())
+                .build();
+        dataSource.setPoolName("replica");
+        return dataSource;
+    }
+    
+    @Bean
+    public ReplicationLog replicationLog() {
+        return new ReplicationLog();
+    }
+    
+    @Bean
+    public LocalReplicator localReplicator(ReplicationLog replicationLog, HikariDataSource primaryDataSource,
+                                           HikariDataSource replicaDataSource,
+                                           @Value("${datasource.replica.lag-ms:0}") long lagMillis) {
+        return new LocalReplicator(replicationLog, primaryDataSource, replicaDataSource, lagMillis);
+    }
+    
+    // The data source everything else uses, Flyway and JPA included
+    @Bean
+    @Primary
+    public ReplicaRoutingDataSource dataSource(ReplicationLog replicationLog, HikariDataSource primaryDataSource,
+                                               HikariDataSource replicaDataSource, LocalReplicator localReplicator) {
+        ReplicaRoutingDataSource routing = new ReplicaRoutingDataSource(
+                replicationLog.capture(primaryDataSource), replicaDataSource, localReplicator);
+        replicationLog.setCommitListener(routing::recordWrite);
+        return routing;
+    }
+    
+    @Bean
+    public RoutingTransactionManager transactionManager(ReplicaRoutingDataSource dataSource,
+                                                        ObjectProvider<TransactionManagerCustomizers> customizers) {
+        RoutingTransactionManager transactionManager = new RoutingTransactionManager(dataSource);
+        customizers.ifAvailable(transactionCustomizers -> transactionCustomizers.customize(transactionManager));
+        return transactionManager;
+    }
+}
\ No newline at end of file
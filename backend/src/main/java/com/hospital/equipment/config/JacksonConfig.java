@@ -0,0 +1,18 @@
+package com.hospital.equipment.config;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.fasterxml.jackson.databind.Module;
+import com.fasterxml.jackson.datatype.hibernate6.Hibernate6Module;
+
+@Configuration
+public class JacksonConfig {
+    
+    // Lazy collections that were never loaded are written as null instead of being fetched during
+    // serialization. Cached catalog entities are detached, so fetching would fail outright.
+    @Bean
+    public Module hibernateModule() {
+        return new Hibernate6Module();
+    }
+}
\ No newline at end of file
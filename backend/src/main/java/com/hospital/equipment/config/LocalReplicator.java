@@ -0,0 +1,139 @@
+package com.hospital.equipment.config;
+
+import java.lang.reflect.InvocationTargetException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.sql.DataSource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+
+import jakarta.annotation.PreDestroy;
+
+// Keeps the replica database in step with the primary. It starts from a SCRIPT dump of the primary
+// and then replays the replication log one transaction at a time, each no earlier than `lagMillis`
+// after it committed, which stands in for the delay of real replication. If a replay fails the
+// replica is rebuilt from a fresh dump; until it is current again, reads fall back to the primary.
+public class LocalReplicator {
+    
+    private static final Logger logger = LoggerFactory.getLogger(LocalReplicator.class);
+    
+    private static final long RETRY_MILLIS = 1000;
+    
+    private final ReplicationLog log;
+    private final DataSource primary;
+    private final DataSource replica;
+    private final long lagMillis;
+    
+    // Log position the replica has applied; -1 while it is being built
+    private volatile long appliedPosition = -1;
+    private volatile Thread worker;
+    
+    public LocalReplicator(ReplicationLog log, DataSource primary, DataSource replica, long lagMillis) {
+        this.log = log;
+        this.primary = primary;
+        this.replica = replica;
+        this.lagMillis = lagMillis;
+    }
+    
+    public long appliedPosition() {
+        return appliedPosition;
+    }
+    
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        worker = new Thread(this::run, "replicator");
+        worker.setDaemon(true);
+        worker.start();
+    }
+    
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        Thread thread = worker;
+        if (thread != null) {
+            thread.interrupt();
+            thread.join();
+        }
+    }
+    
+    private void run() {
+        while (!Thread.currentThread().isInterrupted()) {
+            appliedPosition = -1;
+            try (Connection connection = replica.getConnection()) {
+                connection.setAutoCommit(false);
+                appliedPosition = rebuild(connection);
+                while (true) {
+                    ReplicationLog.Transaction transaction = log.take();
+                    long wait = transaction.committedAtMillis() + lagMillis - System.currentTimeMillis();
+                    if (wait > 0) {
+                        Thread.sleep(wait);
+                    }
+                    apply(connection, transaction);
+                    appliedPosition = transaction.position();
+                }
+            } catch (InterruptedException e) {
+                return;
+            } catch (SQLException e) {
+                logger.warn("Replica out of step with the primary, rebuilding it", e);
+            }
+            try {
+                Thread.sleep(RETRY_MILLIS);
+            } catch (InterruptedException e) {
+                return;
+            }
+        }
+    }
+    
+    private long rebuild(Connection connection) throws SQLException {
+        List<String> script = new ArrayList<>();
+        long position = log.snapshot(() -> {
+            try (Connection source = primary.getConnection();
+                 Statement statement = source.createStatement();
+                 ResultSet rows = statement.executeQuery("SCRIPT")) {
+                while (rows.next()) {
+                    script.add(rows.getString(1));
+                }
+            }
+        });
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("DROP ALL OBJECTS");
+            for (String sql : script) {
+                statement.execute(sql);
+            }
+        }
+        connection.commit();
+        return position;
+    }
+    
+    private void apply(Connection connection, ReplicationLog.Transaction transaction) throws SQLException {
+        try {
+            for (ReplicationLog.Write write : transaction.writes()) {
+                try (PreparedStatement statement = connection.prepareStatement(write.sql())) {
+                    for (ReplicationLog.Parameter parameter : write.parameters()) {
+                        parameter.setter().invoke(statement, parameter.args());
+                    }
+                    long rowCount = statement.executeLargeUpdate();
+                    if (write.rowCount() >= 0 && rowCount != write.rowCount()) {
+                        throw new SQLException("Replayed write changed " + rowCount + " rows instead of "
+                                + write.rowCount() + ": " + write.sql());
+                    }
+                }
+            }
+            connection.commit();
+        } catch (IllegalAccessException | InvocationTargetException e) {
+            connection.rollback();
+            throw new SQLException("Could not bind a replayed parameter", e);
+        } catch (SQLException e) {
+            connection.rollback();
+            throw e;
+        }
+    }
+}
\ No newline at end of file
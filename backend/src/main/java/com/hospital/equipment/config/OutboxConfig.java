@@ -0,0 +1,34 @@
+package com.hospital.equipment.config;
+
+import java.nio.file.Path;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.hospital.equipment.service.FileRentalEventSink;
+import com.hospital.equipment.service.InMemoryRentalEventSink;
+
+// The sinks RentalEventDispatcher delivers rental events to; every RentalEventSink bean is one.
+// Both built-in sinks are off unless configured.
+@Configuration
+public class OutboxConfig {
+    
+    @Bean
+    @ConditionalOnProperty("rental.outbox.file.path")
+    public FileRentalEventSink fileRentalEventSink(@Value("${rental.outbox.file.name:file}") String name,
+                                                   @Value("${rental.outbox.file.path}") String path,
+                                                   ObjectMapper objectMapper) {
+        return new FileRentalEventSink(name, Path.of(path), objectMapper.writer().without(SerializationFeature.INDENT_OUTPUT));
+    }
+    
+    @Bean
+    @ConditionalOnProperty(name = "rental.outbox.memory.enabled", havingValue = "true")
+    public InMemoryRentalEventSink inMemoryRentalEventSink(
+            @Value("${rental.outbox.memory.capacity:10000}") int capacity) {
+        return new InMemoryRentalEventSink(capacity);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,86 @@
+package com.hospital.equipment.config;
+
+import java.util.ArrayDeque;
+import java.util.Map;
+
+import javax.sql.DataSource;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import jakarta.servlet.http.HttpServletResponse;
+
+// Sends connections to the primary or the replica, whichever RoutingTransactionManager picked for the
+// transaction being started on this thread. Outside transactions everything goes to the primary.
+//
+// Reads must see the caller's own writes, so the log position of each commit is remembered for the
+// thread that made it and for its HTTP session. The replica only serves a read once it has applied
+// both; until then the read falls back to the primary.
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+    
+    public enum Target {
+        PRIMARY, REPLICA
+    }
+    
+    private static final String SESSION_POSITION = ReplicaRoutingDataSource.class.getName() + ".position";
+    
+    private final LocalReplicator replicator;
+    
+    private final ThreadLocal<ArrayDeque<Target>> transactions = ThreadLocal.withInitial(ArrayDeque::new);
+    // Never cleared: a position the replica has passed no longer holds reads back
+    private final ThreadLocal<Long> lastWrite = ThreadLocal.withInitial(() -> -1L);
+    
+    public ReplicaRoutingDataSource(DataSource primary, DataSource replica, LocalReplicator replicator) {
+        this.replicator = replicator;
+        setTargetDataSources(Map.of(Target.PRIMARY, primary, Target.REPLICA, replica));
+        setDefaultTargetDataSource(primary);
+    }
+    
+    @Override
+    protected Object determineCurrentLookupKey() {
+        Target target = transactions.get().peek();
+        return target == null ? Target.PRIMARY : target;
+    }
+    
+    // Whether a read starting now may use the replica
+    public boolean replicaIsCurrent() {
+        long required = lastWrite.get();
+        if (RequestContextHolder.getRequestAttributes() != null) {
+            Object position = RequestContextHolder.getRequestAttributes()
+                    .getAttribute(SESSION_POSITION, RequestAttributes.SCOPE_SESSION);
+            if (position != null) {
+                required = Math.max(required, (Long) position);
+            }
+        }
+        return replicator.appliedPosition() >= Math.max(required, 0);
+    }
+    
+    public void recordWrite(long position) {
+        lastWrite.set(Math.max(lastWrite.get(), position));
+        if (RequestContextHolder.getRequestAttributes() instanceof ServletRequestAttributes request) {
+            HttpServletResponse response = request.getResponse();
+            // A session can no longer be started once the response is on its way
+            if (request.getRequest().getSession(false) == null && response != null && response.isCommitted()) {
+                return;
+            }
+            Object previous = request.getAttribute(SESSION_POSITION, RequestAttributes.SCOPE_SESSION);
+            if (previous == null || (Long) previous < position) {
+                request.setAttribute(SESSION_POSITION, position, RequestAttributes.SCOPE_SESSION);
+            }
+        }
+    }
+    
+    void beginTransaction(Target target) {
+        transactions.get().push(target);
+    }
+    
+    void endTransaction() {
+        transactions.get().pop();
+    }
+    
+    Target currentTransaction() {
+        return transactions.get().peek();
+    }
+}
\ No newline at end of file
@@ -0,0 +1,286 @@
+package com.hospital.equipment.config;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Savepoint;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.LongConsumer;
+import java.util.regex.Pattern;
+
+import javax.sql.DataSource;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+// Statement-level change log of the primary database, which the local replica replays. Connections
+// handed out by capture() remember every INSERT, UPDATE, DELETE and MERGE they run together with its
+// parameters, and append them to the log as one transaction when they commit; rolled-back work is
+// dropped. Every committed transaction gets the next log position.
+public class ReplicationLog {
+    
+    private static final Pattern WRITE = Pattern.compile("^\\s*(insert|update|delete|merge)\\b",
+            Pattern.CASE_INSENSITIVE);
+    
+    // One parameter setter call, replayed as-is on the replica's statement
+    public record Parameter(Method setter, Object[] args) {
+    }
+    
+    // rowCount is what the statement changed on the primary, or -1 where the driver did not say
+    public record Write(String sql, List<Parameter> parameters, long rowCount) {
+    }
+    
+    public record Transaction(long position, long committedAtMillis, List<Write> writes) {
+    }
+    
+    @FunctionalInterface
+    public interface Dump {
+        void run() throws SQLException;
+    }
+    
+    private final ArrayDeque<Transaction> pending = new ArrayDeque<>();
+    private long position;
+    private LongConsumer commitListener = committed -> {
+    };
+    
+    // Called with the log position of every transaction that commits through a captured connection
+    public void setCommitListener(LongConsumer commitListener) {
+        this.commitListener = commitListener;
+    }
+    
+    public DataSource capture(DataSource primary) {
+        return new DelegatingDataSource(primary) {
+            
+            @Override
+            public Connection getConnection() throws SQLException {
+                return capturing(super.getConnection());
+            }
+            
+            @Override
+            public Connection getConnection(String username, String password) throws SQLException {
+                return capturing(super.getConnection(username, password));
+            }
+        };
+    }
+    
+    public synchronized long position() {
+        return position;
+    }
+    
+    // Runs the dump with commits held back, so it shows the database exactly as of the returned
+    // position. Everything logged up to then is part of the dump and is dropped.
+    public synchronized long snapshot(Dump dump) throws SQLException {
+        dump.run();
+        pending.clear();
+        return position;
+    }
+    
+    // Oldest transaction not yet taken, waiting for one to commit if there is none
+    public synchronized Transaction take() throws InterruptedException {
+        while (pending.isEmpty()) {
+            wait();
+        }
+        return pending.poll();
+    }
+    
+    private synchronized long append(List<Write> writes) {
+        pending.add(new Transaction(++position, System.currentTimeMillis(), writes));
+        notifyAll();
+        return position;
+    }
+    
+    private Connection capturing(Connection target) {
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                new Class<?>[] { Connection.class }, new CapturingConnection(target));
+    }
+    
+    private static Object call(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+    
+    private final class CapturingConnection implements InvocationHandler {
+        
+        private final Connection target;
+        private final List<Write> uncommitted = new ArrayList<>();
+        private final Map<Savepoint, Integer> savepoints = new IdentityHashMap<>();
+        
+        CapturingConnection(Connection target) {
+            this.target = target;
+        }
+        
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "prepareStatement": {
+                    // Hibernate sends every write as a prepared statement
+                    PreparedStatement statement = (PreparedStatement) call(target, method, args);
+                    String sql = (String) args[0];
+                    if (!WRITE.matcher(sql).find()) {
+                        return statement;
+                    }
+                    return Proxy.newProxyInstance(PreparedStatement.class.getClassLoader(),
+                            new Class<?>[] { PreparedStatement.class }, new CapturingStatement(this, statement, sql));
+                }
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "commit":
+                    commit();
+                    return null;
+                case "rollback":
+                    if (args == null) {
+                        uncommitted.clear();
+                        savepoints.clear();
+                    } else {
+                        Integer mark = savepoints.get((Savepoint) args[0]);
+                        if (mark != null && mark < uncommitted.size()) {
+                            uncommitted.subList(mark, uncommitted.size()).clear();
+                        }
+                    }
+                    return call(target, method, args);
+                case "setSavepoint": {
+                    Savepoint savepoint = (Savepoint) call(target, method, args);
+                    savepoints.put(savepoint, uncommitted.size());
+                    return savepoint;
+                }
+                case "setAutoCommit":
+                    // Switching auto-commit on commits the open transaction
+                    if ((Boolean) args[0] && !uncommitted.isEmpty()) {
+                        commit();
+                    }
+                    return call(target, method, args);
+                case "close":
+                    // An unfinished transaction is rolled back when the connection goes back to the pool
+                    uncommitted.clear();
+                    savepoints.clear();
+                    return call(target, method, args);
+                default:
+                    return call(target, method, args);
+            }
+        }
+        
+        void commit() throws SQLException {
+            if (uncommitted.isEmpty()) {
+                target.commit();
+                return;
+            }
+            long committed;
+            // The commit and its log entry happen together, so a snapshot never falls between them
+            synchronized (ReplicationLog.this) {
+                target.commit();
+                committed = append(List.copyOf(uncommitted));
+            }
+            uncommitted.clear();
+            savepoints.clear();
+            commitListener.accept(committed);
+        }
+    }
+    
+    private static final class CapturingStatement implements InvocationHandler {
+        
+        private final CapturingConnection connection;
+        private final PreparedStatement target;
+        private final String sql;
+        private final Map<Integer, Parameter> parameters = new TreeMap<>();
+        private final List<List<Parameter>> batch = new ArrayList<>();
+        
+        CapturingStatement(CapturingConnection connection, PreparedStatement target, String sql) {
+            this.connection = connection;
+            this.target = target;
+            this.sql = sql;
+        }
+        
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            // The setters PreparedStatement declares itself all bind a parameter by index
+            if (method.getDeclaringClass() == PreparedStatement.class && method.getName().startsWith("set")) {
+                parameters.put((Integer) args[0], new Parameter(method, args));
+                return call(target, method, args);
+            }
+            switch (method.getName()) {
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "clearParameters":
+                    parameters.clear();
+                    return call(target, method, args);
+                case "addBatch":
+                    if (args == null) {
+                        batch.add(List.copyOf(parameters.values()));
+                    }
+                    return call(target, method, args);
+                case "clearBatch":
+                    batch.clear();
+                    return call(target, method, args);
+                case "executeBatch":
+                case "executeLargeBatch": {
+                    List<List<Parameter>> rows = List.copyOf(batch);
+                    batch.clear();
+                    return execute(method, args, rows);
+                }
+                case "execute":
+                case "executeUpdate":
+                case "executeLargeUpdate":
+                    if (args != null) {
+                        return call(target, method, args);
+                    }
+                    return execute(method, args, List.of(List.copyOf(parameters.values())));
+                default:
+                    return call(target, method, args);
+            }
+        }
+        
+        private Object execute(Method method, Object[] args, List<List<Parameter>> rows) throws Throwable {
+            Connection physical = connection.target;
+            if (!physical.getAutoCommit()) {
+                Object result = call(target, method, args);
+                record(result, rows);
+                return result;
+            }
+            // An auto-committed write runs as a transaction of its own, so it reaches the log with its commit
+            physical.setAutoCommit(false);
+            try {
+                Object result = call(target, method, args);
+                record(result, rows);
+                connection.commit();
+                return result;
+            } catch (Throwable e) {
+                connection.uncommitted.clear();
+                physical.rollback();
+                throw e;
+            } finally {
+                physical.setAutoCommit(true);
+            }
+        }
+        
+        private void record(Object result, List<List<Parameter>> rows) throws SQLException {
+            for (int i = 0; i < rows.size(); i++) {
+                long rowCount;
+                if (result instanceof int[] counts) {
+                    rowCount = counts[i];
+                } else if (result instanceof long[] counts) {
+                    rowCount = counts[i];
+                } else if (result instanceof Number count) {
+                    rowCount = count.longValue();
+                } else {
+                    rowCount = target.getUpdateCount();
+                }
+                connection.uncommitted.add(new Write(sql, rows.get(i), Math.max(rowCount, -1)));
+            }
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,61 @@
+package com.hospital.equipment.config;
+
+import org.hibernate.CacheMode;
+import org.hibernate.Session;
+import org.springframework.data.jpa.repository.support.SimpleJpaRepository;
+import org.springframework.orm.jpa.EntityManagerFactoryUtils;
+import org.springframework.orm.jpa.JpaTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+
+// Picks the database for each new transaction: read-only service transactions go to the replica when
+// it is current for the caller, everything else to the primary. Spring Data wraps repository calls
+// in read-only transactions of its own; those stay on the primary, because callers such as the
+// booking endpoint go on to change the entities they loaded.
+public class RoutingTransactionManager extends JpaTransactionManager {
+    
+    private final ReplicaRoutingDataSource routing;
+    
+    public RoutingTransactionManager(ReplicaRoutingDataSource routing) {
+        this.routing = routing;
+    }
+    
+    @Override
+    protected void doBegin(Object transaction, TransactionDefinition definition) {
+        boolean replica = definition.isReadOnly() && !isRepositoryTransaction(definition)
+                && routing.replicaIsCurrent();
+        routing.beginTransaction(replica ? ReplicaRoutingDataSource.Target.REPLICA
+                                         : ReplicaRoutingDataSource.Target.PRIMARY);
+        try {
+            super.doBegin(transaction, definition);
+        } catch (RuntimeException e) {
+            routing.endTransaction();
+            throw e;
+        }
+        if (replica) {
+            // Rows from a lagging replica must not land in the second-level and query caches, which
+            // readers of the primary share
+            session().setCacheMode(CacheMode.GET);
+        }
+    }
+    
+    @Override
+    protected void doCleanupAfterCompletion(Object transaction) {
+        try {
+            if (routing.currentTransaction() == ReplicaRoutingDataSource.Target.REPLICA) {
+                session().setCacheMode(CacheMode.NORMAL);
+            }
+        } finally {
+            routing.endTransaction();
+        }
+        super.doCleanupAfterCompletion(transaction);
+    }
+    
+    private Session session() {
+        return EntityManagerFactoryUtils.getTransactionalEntityManager(obtainEntityManagerFactory())
+                .unwrap(Session.class);
+    }
+    
+    private static boolean isRepositoryTransaction(TransactionDefinition definition) {
+        return definition.getName() != null && definition.getName().startsWith(SimpleJpaRepository.class.getName());
+    }
+}
\ No newline at end of file
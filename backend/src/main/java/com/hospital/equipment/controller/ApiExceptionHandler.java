@@ -0,0 +1,16 @@
+package com.hospital.equipment.controller;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+
+// Invalid request values that are only detected below the controller (bad sort field, page size
+// or cursor on the list endpoints) come back as 400 rather than 500
+@RestControllerAdvice
+public class ApiExceptionHandler {
+    
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<String> handleIllegalArgument(IllegalArgumentException e) {
+        return ResponseEntity.badRequest().body(e.getMessage());
+    }
+}
\ No newline at end of file
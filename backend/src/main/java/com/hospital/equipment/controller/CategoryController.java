@@ -1,8 +1,7 @@
 package com.hospital.equipment.controller;
 
-import java.util.List;
-
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.CrossOrigin;
@@ -14,8 +13,12 @@ import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 
+import com.hospital.equipment.dto.CategoryView;
+import com.hospital.equipment.dto.PageQuery;
 import com.hospital.equipment.entity.Category;
+import com.hospital.equipment.service.CatalogVersion;
 import com.hospital.equipment.service.CategoryService;
 
 import jakarta.validation.Valid;
@@ -26,21 +29,31 @@ import jakarta.validation.Valid;
 public class CategoryController {
     
     private final CategoryService categoryService;
+    private final CatalogVersion catalogVersion;
     
     @Autowired
-    public CategoryController(CategoryService categoryService) {
+    public CategoryController(CategoryService categoryService, CatalogVersion catalogVersion) {
         this.categoryService = categoryService;
+        this.catalogVersion = catalogVersion;
     }
     
     @GetMapping
-    public ResponseEntity<List<Category>> getAllCategories() {
-        List<Category> categories = categoryService.getAllCategories();
-        return ResponseEntity.ok(categories);
+    public ResponseEntity<?> getAllCategories(WebRequest request, PageQuery page) {
+        String etag = catalogVersion.getETag();
+        if (request.checkNotModified(etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).build();
+        }
+        if (page.isUnpaged()) {
+            return ResponseEntity.ok().eTag(etag).cacheControl(CacheControl.noCache())
+                    .body(categoryService.getAllCategoryViews());
+        }
+        return ResponseEntity.ok().eTag(etag).cacheControl(CacheControl.noCache())
+                .body(categoryService.getCategoryPage(page));
     }
     
     @GetMapping("/{id}")
-    public ResponseEntity<Category> getCategoryById(@PathVariable Long id) {
-        return categoryService.getCategoryById(id)
+    public ResponseEntity<CategoryView> getCategoryById(@PathVariable Long id) {
+        return categoryService.getCategoryView(id)
                 .map(category -> ResponseEntity.ok(category))
                 .orElse(ResponseEntity.notFound().build());
     }
@@ -1,9 +1,12 @@
 package com.hospital.equipment.controller;
 
-import java.util.List;
+import java.io.IOException;
+import java.io.InputStream;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.CrossOrigin;
 import org.springframework.web.bind.annotation.DeleteMapping;
@@ -12,12 +15,18 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import com.hospital.equipment.dto.CustomerView;
+import com.hospital.equipment.dto.ImportResult;
+import com.hospital.equipment.dto.PageQuery;
 import com.hospital.equipment.entity.Customer;
+import com.hospital.equipment.service.BulkImporter;
 import com.hospital.equipment.service.CustomerService;
+import com.hospital.equipment.service.FileFormat;
 
 import jakarta.validation.Valid;
 
@@ -27,21 +36,25 @@ import jakarta.validation.Valid;
 public class CustomerController {
     
     private final CustomerService customerService;
+    private final BulkImporter bulkImporter;
     
     @Autowired
-    public CustomerController(CustomerService customerService) {
+    public CustomerController(CustomerService customerService, BulkImporter bulkImporter) {
         this.customerService = customerService;
+        this.bulkImporter = bulkImporter;
     }
     
     @GetMapping
-    public ResponseEntity<List<Customer>> getAllCustomers() {
-        List<Customer> customers = customerService.getAllCustomers();
-        return ResponseEntity.ok(customers);
+    public ResponseEntity<?> getAllCustomers(PageQuery page) {
+        if (page.isUnpaged()) {
+            return ResponseEntity.ok(customerService.getCustomerViews(null));
+        }
+        return ResponseEntity.ok(customerService.getCustomerPage(null, page));
     }
     
     @GetMapping("/{id}")
-    public ResponseEntity<Customer> getCustomerById(@PathVariable Long id) {
-        return customerService.getCustomerById(id)
+    public ResponseEntity<CustomerView> getCustomerById(@PathVariable Long id) {
+        return customerService.getCustomerView(id)
                 .map(customer -> ResponseEntity.ok(customer))
                 .orElse(ResponseEntity.notFound().build());
     }
@@ -54,16 +67,18 @@ public class CustomerController {
     }
     
     @GetMapping("/email/{email}")
-    public ResponseEntity<Customer> getCustomerByEmail(@PathVariable String email) {
-        return customerService.getCustomerByEmail(email)
+    public ResponseEntity<CustomerView> getCustomerByEmail(@PathVariable String email) {
+        return customerService.getCustomerViewByEmail(email)
                 .map(customer -> ResponseEntity.ok(customer))
                 .orElse(ResponseEntity.notFound().build());
     }
     
     @GetMapping("/search")
-    public ResponseEntity<List<Customer>> searchCustomers(@RequestParam String name) {
-        List<Customer> customers = customerService.searchCustomersByName(name);
-        return ResponseEntity.ok(customers);
+    public ResponseEntity<?> searchCustomers(@RequestParam String name, PageQuery page) {
+        if (page.isUnpaged()) {
+            return ResponseEntity.ok(customerService.searchCustomers(name));
+        }
+        return ResponseEntity.ok(customerService.searchCustomerPage(name, page));
     }
     
     @PostMapping
@@ -76,6 +91,13 @@ public class CustomerController {
         }
     }
     
+    // Rows whose email is already on file come back as errors alongside any that fail validation
+    @PostMapping(value = "/import", consumes = {"application/x-ndjson", "text/csv"})
+    public ResponseEntity<ImportResult> importCustomers(
+            @RequestHeader(HttpHeaders.CONTENT_TYPE) MediaType contentType, InputStream body) throws IOException {
+        return ResponseEntity.ok(bulkImporter.importCustomers(FileFormat.of(contentType), body));
+    }
+    
     @PutMapping("/{id}")
     public ResponseEntity<Customer> updateCustomer(@PathVariable Long id, 
                                                  @Valid @RequestBody Customer customerDetails) {
@@ -1,9 +1,13 @@
 package com.hospital.equipment.controller;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.math.BigDecimal;
-import java.util.List;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
@@ -14,13 +18,24 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.multipart.MultipartFile;
 
+import com.hospital.equipment.dto.EquipmentQuery;
+import com.hospital.equipment.dto.EquipmentQueryResult;
+import com.hospital.equipment.dto.EquipmentView;
+import com.hospital.equipment.dto.ImportResult;
+import com.hospital.equipment.dto.PageQuery;
 import com.hospital.equipment.entity.Equipment;
+import com.hospital.equipment.repository.EquipmentSpecifications;
+import com.hospital.equipment.service.BulkImporter;
+import com.hospital.equipment.service.CatalogVersion;
 import com.hospital.equipment.service.EquipmentService;
+import com.hospital.equipment.service.FileFormat;
 
 import jakarta.validation.Valid;
 
@@ -30,68 +45,111 @@ import jakarta.validation.Valid;
 public class EquipmentController {
     
     private final EquipmentService equipmentService;
+    private final CatalogVersion catalogVersion;
+    private final BulkImporter bulkImporter;
     
     @Autowired
-    public EquipmentController(EquipmentService equipmentService) {
+    public EquipmentController(EquipmentService equipmentService, CatalogVersion catalogVersion,
+                               BulkImporter bulkImporter) {
         this.equipmentService = equipmentService;
+        this.catalogVersion = catalogVersion;
+        this.bulkImporter = bulkImporter;
     }
     
     @GetMapping
-    public ResponseEntity<List<Equipment>> getAllEquipment() {
-        List<Equipment> equipment = equipmentService.getAllEquipment();
-        return ResponseEntity.ok(equipment);
+    public ResponseEntity<?> getAllEquipment(WebRequest request, PageQuery page) {
+        // Read the tag before the data so a concurrent write can only make the tag older, never newer
+        String etag = catalogVersion.getETag();
+        if (request.checkNotModified(etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).build();
+        }
+        if (page.isUnpaged()) {
+            return ResponseEntity.ok().eTag(etag).cacheControl(CacheControl.noCache())
+                    .body(equipmentService.getAllEquipmentViews());
+        }
+        return ResponseEntity.ok().eTag(etag).cacheControl(CacheControl.noCache())
+                .body(equipmentService.getEquipmentPage(null, page));
     }
     
     @GetMapping("/available")
-    public ResponseEntity<List<Equipment>> getAvailableEquipment() {
-        List<Equipment> equipment = equipmentService.getAvailableEquipment();
-        return ResponseEntity.ok(equipment);
+    public ResponseEntity<?> getAvailableEquipment(WebRequest request, PageQuery page) {
+        String etag = catalogVersion.getETag();
+        if (request.checkNotModified(etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).build();
+        }
+        if (page.isUnpaged()) {
+            return ResponseEntity.ok().eTag(etag).cacheControl(CacheControl.noCache())
+                    .body(equipmentService.getAvailableEquipmentViews());
+        }
+        return ResponseEntity.ok().eTag(etag).cacheControl(CacheControl.noCache())
+                .body(equipmentService.getEquipmentPage(EquipmentSpecifications.available(), page));
+    }
+    
+    @GetMapping("/query")
+    public ResponseEntity<EquipmentQueryResult> queryEquipment(EquipmentQuery query, PageQuery page) {
+        return ResponseEntity.ok(equipmentService.queryEquipment(query, page));
     }
     
     @GetMapping("/{id}")
-    public ResponseEntity<Equipment> getEquipmentById(@PathVariable Long id) {
-        return equipmentService.getEquipmentById(id)
+    public ResponseEntity<EquipmentView> getEquipmentById(@PathVariable Long id) {
+        return equipmentService.getEquipmentView(id)
                 .map(equipment -> ResponseEntity.ok(equipment))
                 .orElse(ResponseEntity.notFound().build());
     }
     
     @GetMapping("/{id}/with-category")
-    public ResponseEntity<Equipment> getEquipmentWithCategory(@PathVariable Long id) {
-        return equipmentService.getEquipmentByIdWithCategory(id)
+    public ResponseEntity<EquipmentView> getEquipmentWithCategory(@PathVariable Long id) {
+        // The view always carries its category, so this is the same read as GET /{id}
+        return equipmentService.getEquipmentView(id)
                 .map(equipment -> ResponseEntity.ok(equipment))
                 .orElse(ResponseEntity.notFound().build());
     }
     
     @GetMapping("/category/{categoryId}")
-    public ResponseEntity<List<Equipment>> getEquipmentByCategory(@PathVariable Long categoryId) {
-        List<Equipment> equipment = equipmentService.getEquipmentByCategory(categoryId);
-        return ResponseEntity.ok(equipment);
+    public ResponseEntity<?> getEquipmentByCategory(@PathVariable Long categoryId, PageQuery page) {
+        if (page.isUnpaged()) {
+            return ResponseEntity.ok(equipmentService.getEquipmentViews(EquipmentSpecifications.inCategory(categoryId)));
+        }
+        return ResponseEntity.ok(equipmentService.getEquipmentPage(EquipmentSpecifications.inCategory(categoryId), page));
     }
     
     @GetMapping("/category/{categoryId}/available")
-    public ResponseEntity<List<Equipment>> getAvailableEquipmentByCategory(@PathVariable Long categoryId) {
-        List<Equipment> equipment = equipmentService.getAvailableEquipmentByCategory(categoryId);
-        return ResponseEntity.ok(equipment);
+    public ResponseEntity<?> getAvailableEquipmentByCategory(@PathVariable Long categoryId, PageQuery page) {
+        Specification<Equipment> availableInCategory =
+                EquipmentSpecifications.inCategory(categoryId).and(EquipmentSpecifications.available());
+        if (page.isUnpaged()) {
+            return ResponseEntity.ok(equipmentService.getEquipmentViews(availableInCategory));
+        }
+        return ResponseEntity.ok(equipmentService.getEquipmentPage(availableInCategory, page));
     }
     
     @GetMapping("/search")
-    public ResponseEntity<List<Equipment>> searchEquipment(@RequestParam String keyword) {
-        List<Equipment> equipment = equipmentService.searchEquipment(keyword);
-        return ResponseEntity.ok(equipment);
+    public ResponseEntity<?> searchEquipment(@RequestParam String keyword, PageQuery page) {
+        if (page.isUnpaged()) {
+            return ResponseEntity.ok(equipmentService.searchEquipment(keyword));
+        }
+        return ResponseEntity.ok(equipmentService.searchEquipmentPage(keyword, page));
     }
     
     @GetMapping("/price-range")
-    public ResponseEntity<List<Equipment>> getEquipmentByPriceRange(
+    public ResponseEntity<?> getEquipmentByPriceRange(
             @RequestParam BigDecimal minPrice,
-            @RequestParam BigDecimal maxPrice) {
-        List<Equipment> equipment = equipmentService.getEquipmentByPriceRange(minPrice, maxPrice);
-        return ResponseEntity.ok(equipment);
+            @RequestParam BigDecimal maxPrice,
+            PageQuery page) {
+        if (page.isUnpaged()) {
+            return ResponseEntity.ok(equipmentService.getEquipmentViews(
+                    EquipmentSpecifications.priceBetween(minPrice, maxPrice)));
+        }
+        return ResponseEntity.ok(equipmentService.getEquipmentPage(
+                EquipmentSpecifications.priceBetween(minPrice, maxPrice), page));
     }
     
     @GetMapping("/status/{status}")
-    public ResponseEntity<List<Equipment>> getEquipmentByStatus(@PathVariable Equipment.EquipmentStatus status) {
-        List<Equipment> equipment = equipmentService.getEquipmentByStatus(status);
-        return ResponseEntity.ok(equipment);
+    public ResponseEntity<?> getEquipmentByStatus(@PathVariable Equipment.EquipmentStatus status, PageQuery page) {
+        if (page.isUnpaged()) {
+            return ResponseEntity.ok(equipmentService.getEquipmentViews(EquipmentSpecifications.hasStatus(status)));
+        }
+        return ResponseEntity.ok(equipmentService.getEquipmentPage(EquipmentSpecifications.hasStatus(status), page));
     }
     
     @PostMapping
@@ -103,6 +161,13 @@ public class EquipmentController {
             return ResponseEntity.badRequest().build();
         }
     }
+    
+    // The body is read as it arrives; rejected rows are listed in the result, not failed as a whole
+    @PostMapping(value = "/import", consumes = {"application/x-ndjson", "text/csv"})
+    public ResponseEntity<ImportResult> importEquipment(
+            @RequestHeader(HttpHeaders.CONTENT_TYPE) MediaType contentType, InputStream body) throws IOException {
+        return ResponseEntity.ok(bulkImporter.importEquipment(FileFormat.of(contentType), body));
+    }
 
     // Image upload endpoint (simple file system storage)
     @PostMapping(value = "/{id}/image", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
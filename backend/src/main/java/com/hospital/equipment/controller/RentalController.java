@@ -2,10 +2,13 @@ package com.hospital.equipment.controller;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.UUID;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.CrossOrigin;
@@ -19,13 +22,33 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
-import com.hospital.equipment.entity.Customer;
-import com.hospital.equipment.entity.Equipment;
+import com.hospital.equipment.dto.ArchiveResult;
+import com.hospital.equipment.dto.AvailabilityCalendar;
+import com.hospital.equipment.dto.AvailabilityQuery;
+import com.hospital.equipment.dto.AvailabilityResult;
+import com.hospital.equipment.dto.AvailabilityWindow;
+import com.hospital.equipment.dto.BulkRentalResult;
+import com.hospital.equipment.dto.EquipmentWindow;
+import com.hospital.equipment.dto.LedgerSnapshotResult;
+import com.hospital.equipment.dto.OutboxSinkStatus;
+import com.hospital.equipment.dto.PageQuery;
+import com.hospital.equipment.dto.RentalView;
+import com.hospital.equipment.dto.ReservationHold;
 import com.hospital.equipment.entity.Rental;
+import com.hospital.equipment.entity.RentalEvent;
 import com.hospital.equipment.repository.CustomerRepository;
 import com.hospital.equipment.repository.EquipmentRepository;
+import com.hospital.equipment.repository.RentalSpecifications;
+import com.hospital.equipment.service.FileFormat;
+import com.hospital.equipment.service.RentalArchiver;
+import com.hospital.equipment.service.RentalBookingService;
+import com.hospital.equipment.service.RentalEventDispatcher;
+import com.hospital.equipment.service.RentalExporter;
+import com.hospital.equipment.service.RentalLedger;
 import com.hospital.equipment.service.RentalService;
+import com.hospital.equipment.service.ReservationHoldService;
 
 import jakarta.validation.Valid;
 
@@ -35,64 +58,140 @@ import jakarta.validation.Valid;
 public class RentalController {
     
     private final RentalService rentalService;
+    private final RentalBookingService rentalBookingService;
+    private final ReservationHoldService reservationHoldService;
     private final CustomerRepository customerRepository;
     private final EquipmentRepository equipmentRepository;
+    private final RentalExporter rentalExporter;
+    private final RentalLedger rentalLedger;
+    private final RentalArchiver rentalArchiver;
+    private final RentalEventDispatcher rentalEventDispatcher;
     
     @Autowired
-    public RentalController(RentalService rentalService, CustomerRepository customerRepository, EquipmentRepository equipmentRepository) {
+    public RentalController(RentalService rentalService, RentalBookingService rentalBookingService,
+                            ReservationHoldService reservationHoldService,
+                            CustomerRepository customerRepository, EquipmentRepository equipmentRepository,
+                            RentalExporter rentalExporter, RentalLedger rentalLedger,
+                            RentalArchiver rentalArchiver, RentalEventDispatcher rentalEventDispatcher) {
         this.rentalService = rentalService;
+        this.rentalBookingService = rentalBookingService;
+        this.reservationHoldService = reservationHoldService;
         this.customerRepository = customerRepository;
         this.equipmentRepository = equipmentRepository;
+        this.rentalExporter = rentalExporter;
+        this.rentalLedger = rentalLedger;
+        this.rentalArchiver = rentalArchiver;
+        this.rentalEventDispatcher = rentalEventDispatcher;
     }
     
     @GetMapping
-    public ResponseEntity<List<Rental>> getAllRentals() {
-        List<Rental> rentals = rentalService.getAllRentals();
-        return ResponseEntity.ok(rentals);
+    public ResponseEntity<?> getAllRentals(PageQuery page) {
+        if (page.isUnpaged()) {
+            return ResponseEntity.ok(rentalService.getRentalViews(null));
+        }
+        return ResponseEntity.ok(rentalService.getRentalPage(null, page));
+    }
+    
+    // Streams rows as they are read; bad parameters are rejected before anything is written
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportRentals(
+            @RequestParam(defaultValue = "ndjson") String format,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) Rental.RentalStatus status) {
+        FileFormat exportFormat = FileFormat.parse(format);
+        if (from != null && to != null && to.isBefore(from)) {
+            throw new IllegalArgumentException("to must be on or after from");
+        }
+        StreamingResponseBody body = out -> rentalExporter.export(exportFormat, from, to, status, out);
+        return ResponseEntity.ok()
+                .contentType(exportFormat.getMediaType())
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=\"rentals." + exportFormat.getExtension() + "\"")
+                .body(body);
     }
     
     @GetMapping("/{id}")
-    public ResponseEntity<Rental> getRentalById(@PathVariable Long id) {
-        return rentalService.getRentalById(id)
+    public ResponseEntity<RentalView> getRentalById(@PathVariable Long id) {
+        return rentalService.getRentalView(id)
                 .map(rental -> ResponseEntity.ok(rental))
                 .orElse(ResponseEntity.notFound().build());
     }
     
     @GetMapping("/{id}/details")
-    public ResponseEntity<Rental> getRentalWithDetails(@PathVariable Long id) {
-        Rental rental = rentalService.getRentalByIdWithDetails(id);
-        return rental != null ? ResponseEntity.ok(rental) : ResponseEntity.notFound().build();
+    public ResponseEntity<RentalView> getRentalWithDetails(@PathVariable Long id) {
+        // The view already includes the customer and equipment summaries
+        return rentalService.getRentalView(id)
+                .map(rental -> ResponseEntity.ok(rental))
+                .orElse(ResponseEntity.notFound().build());
+    }
+    
+    // Every recorded change to the rental, oldest first; still available after it is deleted
+    @GetMapping("/{id}/history")
+    public ResponseEntity<List<RentalEvent>> getRentalHistory(@PathVariable Long id) {
+        List<RentalEvent> history = rentalLedger.getHistory(id);
+        if (history.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok(history);
+    }
+    
+    @PostMapping("/ledger/snapshot")
+    public ResponseEntity<LedgerSnapshotResult> snapshotLedger() {
+        return ResponseEntity.ok(rentalLedger.takeSnapshot());
+    }
+    
+    // Archives every rental that is due now instead of waiting for the next scheduled run
+    @PostMapping("/archive")
+    public ResponseEntity<ArchiveResult> archiveRentals() {
+        return ResponseEntity.ok(rentalArchiver.archive());
+    }
+    
+    @GetMapping("/outbox")
+    public ResponseEntity<List<OutboxSinkStatus>> getOutboxStatus() {
+        return ResponseEntity.ok(rentalEventDispatcher.getStatus());
     }
     
     @GetMapping("/customer/{customerId}")
-    public ResponseEntity<List<Rental>> getRentalsByCustomer(@PathVariable Long customerId) {
-        List<Rental> rentals = rentalService.getRentalsByCustomer(customerId);
-        return ResponseEntity.ok(rentals);
+    public ResponseEntity<?> getRentalsByCustomer(@PathVariable Long customerId, PageQuery page) {
+        if (page.isUnpaged()) {
+            return ResponseEntity.ok(rentalService.getRentalViews(RentalSpecifications.forCustomer(customerId)));
+        }
+        return ResponseEntity.ok(rentalService.getRentalPage(RentalSpecifications.forCustomer(customerId), page));
     }
     
     @GetMapping("/equipment/{equipmentId}")
-    public ResponseEntity<List<Rental>> getRentalsByEquipment(@PathVariable Long equipmentId) {
-        List<Rental> rentals = rentalService.getRentalsByEquipment(equipmentId);
-        return ResponseEntity.ok(rentals);
+    public ResponseEntity<?> getRentalsByEquipment(@PathVariable Long equipmentId, PageQuery page) {
+        if (page.isUnpaged()) {
+            return ResponseEntity.ok(rentalService.getRentalViews(RentalSpecifications.forEquipment(equipmentId)));
+        }
+        return ResponseEntity.ok(rentalService.getRentalPage(RentalSpecifications.forEquipment(equipmentId), page));
     }
     
     @GetMapping("/status/{status}")
-    public ResponseEntity<List<Rental>> getRentalsByStatus(@PathVariable Rental.RentalStatus status) {
-        List<Rental> rentals = rentalService.getRentalsByStatus(status);
-        return ResponseEntity.ok(rentals);
+    public ResponseEntity<?> getRentalsByStatus(@PathVariable Rental.RentalStatus status, PageQuery page) {
+        if (page.isUnpaged()) {
+            return ResponseEntity.ok(rentalService.getRentalViewsByStatus(status));
+        }
+        return ResponseEntity.ok(rentalService.getRentalPageByStatus(status, page));
     }
     
     @GetMapping("/overdue")
-    public ResponseEntity<List<Rental>> getOverdueRentals() {
-        List<Rental> rentals = rentalService.getOverdueRentals();
-        return ResponseEntity.ok(rentals);
+    public ResponseEntity<?> getOverdueRentals(PageQuery page) {
+        if (page.isUnpaged()) {
+            return ResponseEntity.ok(rentalService.getOverdueRentalViews());
+        }
+        return ResponseEntity.ok(rentalService.getOverdueRentalPage(page));
     }
     
     @GetMapping("/active")
-    public ResponseEntity<List<Rental>> getActiveRentalsOnDate(
-            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date) {
-        List<Rental> rentals = rentalService.getActiveRentalsOnDate(date);
-        return ResponseEntity.ok(rentals);
+    public ResponseEntity<?> getActiveRentalsOnDate(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date,
+            PageQuery page) {
+        if (page.isUnpaged()) {
+            return ResponseEntity.ok(rentalService.getRentalViews(RentalSpecifications.activeOn(date)));
+        }
+        return ResponseEntity.ok(rentalService.getRentalPage(RentalSpecifications.activeOn(date), page));
     }
     
     public static class RentalRequestDto {
@@ -102,30 +201,97 @@ public class RentalController {
         public java.time.LocalDate endDate;
         public Integer quantity;
         public String notes;
+        public UUID holdId;
     }
 
     @PostMapping
     public ResponseEntity<?> createRental(@Valid @RequestBody RentalRequestDto request) {
         System.out.println("DEBUG: Received rental request: customerId=" + request.customerId + ", equipmentId=" + request.equipmentId + ", startDate=" + request.startDate + ", endDate=" + request.endDate + ", quantity=" + request.quantity + ", notes=" + request.notes);
         try {
-            Customer customer = customerRepository.findById(request.customerId)
-                    .orElseThrow(() -> new RuntimeException("Customer not found"));
-            Equipment equipment = equipmentRepository.findById(request.equipmentId)
-                    .orElseThrow(() -> new RuntimeException("Equipment not found"));
+            if (request.customerId == null || request.equipmentId == null) {
+                return ResponseEntity.badRequest().body("customerId and equipmentId are required");
+            }
+            // References only: RentalService loads both once the booking's concurrency control is in
+            // place, so the equipment it updates is not a copy read before a concurrent booking committed
             Rental rental = new Rental();
-            rental.setCustomer(customer);
-            rental.setEquipment(equipment);
+            rental.setCustomer(customerRepository.getReferenceById(request.customerId));
+            rental.setEquipment(equipmentRepository.getReferenceById(request.equipmentId));
             rental.setStartDate(request.startDate);
             rental.setEndDate(request.endDate);
             rental.setQuantity(request.quantity);
             rental.setNotes(request.notes);
-            Rental createdRental = rentalService.createRental(rental);
+            Rental createdRental = rentalBookingService.createRental(rental, request.holdId);
             return ResponseEntity.status(HttpStatus.CREATED).body(createdRental);
         } catch (RuntimeException e) {
             return ResponseEntity.badRequest().body(e.getMessage());
         }
     }
     
+    // Books many rentals in one transaction. By default the batch is all-or-nothing;
+    // with partial=true the valid entries are booked and the rest reported as errors.
+    @PostMapping("/bulk")
+    public ResponseEntity<?> createRentals(@RequestBody List<RentalRequestDto> requests,
+                                           @RequestParam(defaultValue = "false") boolean partial) {
+        List<Rental> rentals = new ArrayList<>(requests.size());
+        for (RentalRequestDto request : requests) {
+            if (request.customerId == null || request.equipmentId == null) {
+                return ResponseEntity.badRequest().body("customerId and equipmentId are required for every rental");
+            }
+            Rental rental = new Rental();
+            rental.setCustomer(customerRepository.getReferenceById(request.customerId));
+            rental.setEquipment(equipmentRepository.getReferenceById(request.equipmentId));
+            rental.setStartDate(request.startDate);
+            rental.setEndDate(request.endDate);
+            rental.setQuantity(request.quantity);
+            rental.setNotes(request.notes);
+            rentals.add(rental);
+        }
+        try {
+            BulkRentalResult result = rentalBookingService.createRentals(rentals, partial);
+            if (result.created().isEmpty() && !result.errors().isEmpty()) {
+                return ResponseEntity.badRequest().body(result);
+            }
+            return ResponseEntity.status(HttpStatus.CREATED).body(result);
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+    
+    public static class HoldRequestDto {
+        public Long equipmentId;
+        public LocalDate startDate;
+        public LocalDate endDate;
+        public Integer quantity;
+        public Integer ttlSeconds;
+    }
+    
+    // Sets quantity aside while the booking form is filled in; pass the returned id as holdId when booking
+    @PostMapping("/holds")
+    public ResponseEntity<?> placeHold(@RequestBody HoldRequestDto request) {
+        try {
+            ReservationHold hold = rentalBookingService.placeHold(request.equipmentId, request.startDate,
+                    request.endDate, request.quantity, request.ttlSeconds);
+            return ResponseEntity.status(HttpStatus.CREATED).body(hold);
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+    
+    @GetMapping("/holds/{holdId}")
+    public ResponseEntity<ReservationHold> getHold(@PathVariable UUID holdId) {
+        return reservationHoldService.getHold(holdId)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+    
+    @DeleteMapping("/holds/{holdId}")
+    public ResponseEntity<Void> releaseHold(@PathVariable UUID holdId) {
+        if (reservationHoldService.release(holdId)) {
+            return ResponseEntity.noContent().build();
+        }
+        return ResponseEntity.notFound().build();
+    }
+    
     @PutMapping("/{id}")
     public ResponseEntity<Rental> updateRental(@PathVariable Long id, 
                                              @Valid @RequestBody Rental rentalDetails) {
@@ -176,6 +342,16 @@ public class RentalController {
         return ResponseEntity.ok(available);
     }
     
+    @PostMapping("/availability/batch")
+    public ResponseEntity<?> checkAvailabilityBatch(@RequestBody List<AvailabilityQuery> queries) {
+        try {
+            List<AvailabilityResult> results = rentalService.checkAvailability(queries);
+            return ResponseEntity.ok(results);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+    
     @GetMapping("/equipment/{equipmentId}/available-quantity")
     public ResponseEntity<Integer> getAvailableQuantityForPeriod(
             @PathVariable Long equipmentId,
@@ -185,6 +361,54 @@ public class RentalController {
         return ResponseEntity.ok(availableQuantity);
     }
     
+    @GetMapping("/equipment/{equipmentId}/calendar")
+    public ResponseEntity<?> getAvailabilityCalendar(
+            @PathVariable Long equipmentId,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        try {
+            AvailabilityCalendar calendar = rentalService.getAvailabilityCalendar(equipmentId, from, to);
+            return ResponseEntity.ok(calendar);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        } catch (RuntimeException e) {
+            return ResponseEntity.notFound().build();
+        }
+    }
+    
+    @GetMapping("/equipment/{equipmentId}/windows")
+    public ResponseEntity<?> findAvailableWindows(
+            @PathVariable Long equipmentId,
+            @RequestParam(defaultValue = "1") int quantity,
+            @RequestParam int durationDays,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate notBefore,
+            @RequestParam(defaultValue = "5") int limit) {
+        try {
+            List<AvailabilityWindow> windows = rentalService.findAvailableWindows(equipmentId, quantity, durationDays,
+                    notBefore != null ? notBefore : LocalDate.now(), limit);
+            return ResponseEntity.ok(windows);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        } catch (RuntimeException e) {
+            return ResponseEntity.notFound().build();
+        }
+    }
+    
+    @GetMapping("/category/{categoryId}/windows")
+    public ResponseEntity<?> findAvailableWindowsInCategory(
+            @PathVariable Long categoryId,
+            @RequestParam(defaultValue = "1") int quantity,
+            @RequestParam int durationDays,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate notBefore) {
+        try {
+            List<EquipmentWindow> windows = rentalService.findAvailableWindowsInCategory(categoryId, quantity,
+                    durationDays, notBefore != null ? notBefore : LocalDate.now());
+            return ResponseEntity.ok(windows);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+    
     @GetMapping("/equipment/{equipmentId}/cost")
     public ResponseEntity<BigDecimal> calculateRentalCost(
             @PathVariable Long equipmentId,
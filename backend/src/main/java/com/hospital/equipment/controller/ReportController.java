@@ -0,0 +1,54 @@
+package com.hospital.equipment.controller;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.hospital.equipment.dto.RollupBucket;
+import com.hospital.equipment.dto.RollupRebuildResult;
+import com.hospital.equipment.entity.DailyRollup;
+import com.hospital.equipment.service.RollupService;
+
+@RestController
+@RequestMapping("/api/reports")
+@CrossOrigin(origins = "http://localhost:3000")
+public class ReportController {
+    
+    private final RollupService rollupService;
+    
+    @Autowired
+    public ReportController(RollupService rollupService) {
+        this.rollupService = rollupService;
+    }
+    
+    @GetMapping("/rollups")
+    public ResponseEntity<?> getRollups(
+            @RequestParam DailyRollup.Scope scope,
+            @RequestParam(required = false) Long id,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(defaultValue = "DAY") RollupService.Granularity granularity) {
+        try {
+            List<RollupBucket> buckets = rollupService.getRollups(scope, id, from, to, granularity);
+            return ResponseEntity.ok(buckets);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        } catch (RuntimeException e) {
+            return ResponseEntity.notFound().build();
+        }
+    }
+    
+    @PostMapping("/rollups/rebuild")
+    public ResponseEntity<RollupRebuildResult> rebuildRollups() {
+        return ResponseEntity.ok(rollupService.rebuild());
+    }
+}
\ No newline at end of file
@@ -0,0 +1,29 @@
+package com.hospital.equipment.controller;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.hospital.equipment.dto.DashboardStats;
+import com.hospital.equipment.service.StatsService;
+
+@RestController
+@RequestMapping("/api/stats")
+@CrossOrigin(origins = "http://localhost:3000")
+public class StatsController {
+    
+    private final StatsService statsService;
+    
+    @Autowired
+    public StatsController(StatsService statsService) {
+        this.statsService = statsService;
+    }
+    
+    @GetMapping
+    public ResponseEntity<DashboardStats> getDashboardStats() {
+        return ResponseEntity.ok(statsService.getDashboardStats());
+    }
+}
\ No newline at end of file
@@ -0,0 +1,5 @@
+package com.hospital.equipment.dto;
+
+// moved counts the rentals moved into rentals_archive, in batches of up to rental.archive.batch-size
+public record ArchiveResult(int moved, int batches, long millis) {
+}
\ No newline at end of file
@@ -0,0 +1,15 @@
+package com.hospital.equipment.dto;
+
+import java.time.LocalDate;
+import java.util.List;
+
+// Free quantity per day, run-length encoded: consecutive days with the same free quantity share one run
+public record AvailabilityCalendar(Long equipmentId,
+                                   LocalDate from,
+                                   LocalDate to,
+                                   int totalQuantity,
+                                   List<Run> runs) {
+    
+    public record Run(LocalDate startDate, LocalDate endDate, int available) {
+    }
+}
\ No newline at end of file
@@ -0,0 +1,9 @@
+package com.hospital.equipment.dto;
+
+import java.time.LocalDate;
+
+public record AvailabilityQuery(Long equipmentId,
+                                LocalDate startDate,
+                                LocalDate endDate,
+                                Integer quantity) {
+}
\ No newline at end of file
@@ -0,0 +1,11 @@
+package com.hospital.equipment.dto;
+
+import java.time.LocalDate;
+
+public record AvailabilityResult(Long equipmentId,
+                                 LocalDate startDate,
+                                 LocalDate endDate,
+                                 Integer quantity,
+                                 boolean available,
+                                 int availableQuantity) {
+}
\ No newline at end of file
@@ -0,0 +1,10 @@
+package com.hospital.equipment.dto;
+
+import java.time.LocalDate;
+
+// A booking that fits a free stretch, placed back to back with the stretch's earlier windows; freeUntil
+// is the last free day of that stretch (null when nothing is booked after it)
+public record AvailabilityWindow(LocalDate startDate,
+                                 LocalDate endDate,
+                                 LocalDate freeUntil) {
+}
\ No newline at end of file
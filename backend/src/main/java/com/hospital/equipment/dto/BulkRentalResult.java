@@ -0,0 +1,12 @@
+package com.hospital.equipment.dto;
+
+import java.util.List;
+
+import com.hospital.equipment.entity.Rental;
+
+// Outcome of a bulk booking; error indexes refer to positions in the submitted list
+public record BulkRentalResult(List<Rental> created, List<Error> errors) {
+    
+    public record Error(int index, String message) {
+    }
+}
\ No newline at end of file
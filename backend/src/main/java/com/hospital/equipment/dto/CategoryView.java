@@ -0,0 +1,4 @@
+package com.hospital.equipment.dto;
+
+public record CategoryView(Long id, String name, String description) {
+}
\ No newline at end of file
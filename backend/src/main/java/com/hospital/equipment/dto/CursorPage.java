@@ -0,0 +1,7 @@
+package com.hospital.equipment.dto;
+
+import java.util.List;
+
+// nextCursor is null on the last page
+public record CursorPage<T>(List<T> items, String nextCursor) {
+}
\ No newline at end of file
@@ -0,0 +1,16 @@
+package com.hospital.equipment.dto;
+
+public record CustomerView(Long id,
+                           String firstName,
+                           String lastName,
+                           String email,
+                           String phone,
+                           String address,
+                           String city,
+                           String state,
+                           String zipCode) {
+    
+    public String getFullName() {
+        return firstName + " " + lastName;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,15 @@
+package com.hospital.equipment.dto;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+
+import com.hospital.equipment.entity.Equipment;
+import com.hospital.equipment.entity.Rental;
+
+// Totals for the admin dashboard. Every status is present, with zero when nothing has it.
+public record DashboardStats(Map<Rental.RentalStatus, Long> rentalsByStatus,
+                             Map<Rental.RentalStatus, BigDecimal> revenueByStatus,
+                             Map<Equipment.EquipmentStatus, Integer> equipmentByStatus,
+                             List<FacetCount> equipmentByCategory) {
+}
\ No newline at end of file
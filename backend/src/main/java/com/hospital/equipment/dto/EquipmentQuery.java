@@ -0,0 +1,27 @@
+package com.hospital.equipment.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+import org.springframework.format.annotation.DateTimeFormat;
+
+import com.hospital.equipment.entity.Equipment;
+
+// Filters for /api/equipment/query; every one is optional and they combine with AND.
+// available=true keeps items in stock today; startDate/endDate keep items with at least
+// quantity (default 1) units free on every day of that period.
+public record EquipmentQuery(List<Long> categoryId,
+                             String keyword,
+                             BigDecimal minPrice,
+                             BigDecimal maxPrice,
+                             Equipment.EquipmentStatus status,
+                             Boolean available,
+                             @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+                             @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+                             Integer quantity) {
+    
+    public boolean hasPeriod() {
+        return startDate != null || endDate != null;
+    }
+}
\ No newline at end of file
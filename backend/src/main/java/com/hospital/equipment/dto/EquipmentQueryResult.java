@@ -0,0 +1,12 @@
+package com.hospital.equipment.dto;
+
+import java.util.List;
+
+// One page of matches plus facet counts. Each facet is counted with every filter applied except
+// its own, so the counts say how many items picking that value instead would give.
+public record EquipmentQueryResult(List<EquipmentView> items,
+                                   String nextCursor,
+                                   int total,
+                                   List<FacetCount> categories,
+                                   List<FacetCount> priceRanges) {
+}
\ No newline at end of file
@@ -0,0 +1,27 @@
+package com.hospital.equipment.dto;
+
+import java.math.BigDecimal;
+
+import com.hospital.equipment.entity.Equipment;
+
+public record EquipmentView(Long id,
+                            String name,
+                            String description,
+                            String model,
+                            String manufacturer,
+                            BigDecimal dailyPrice,
+                            Integer availableQuantity,
+                            Integer totalQuantity,
+                            Equipment.EquipmentStatus status,
+                            String imageUrl,
+                            CategoryView category) {
+    
+    // Flat form used by the query projection; category columns are null when there is no category
+    public EquipmentView(Long id, String name, String description, String model, String manufacturer,
+                         BigDecimal dailyPrice, Integer availableQuantity, Integer totalQuantity,
+                         Equipment.EquipmentStatus status, String imageUrl,
+                         Long categoryId, String categoryName, String categoryDescription) {
+        this(id, name, description, model, manufacturer, dailyPrice, availableQuantity, totalQuantity, status,
+                imageUrl, categoryId == null ? null : new CategoryView(categoryId, categoryName, categoryDescription));
+    }
+}
\ No newline at end of file
@@ -0,0 +1,13 @@
+package com.hospital.equipment.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+// Substitute suggestion: an equipment item of the requested category and its earliest window
+public record EquipmentWindow(Long equipmentId,
+                              String equipmentName,
+                              BigDecimal dailyPrice,
+                              LocalDate startDate,
+                              LocalDate endDate,
+                              LocalDate freeUntil) {
+}
\ No newline at end of file
@@ -0,0 +1,4 @@
+package com.hospital.equipment.dto;
+
+public record FacetCount(String value, String label, int count) {
+}
\ No newline at end of file
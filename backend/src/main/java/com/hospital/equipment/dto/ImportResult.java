@@ -0,0 +1,12 @@
+package com.hospital.equipment.dto;
+
+import java.util.List;
+
+// Outcome of a bulk import. Rows are numbered from 1 in file order, not counting a CSV header;
+// errors lists the first rejected rows and failed counts all of them.
+public record ImportResult(int rows, int imported, int failed, List<Error> errors, long elapsedMillis,
+                           double rowsPerSecond) {
+    
+    public record Error(int row, String message) {
+    }
+}
\ No newline at end of file
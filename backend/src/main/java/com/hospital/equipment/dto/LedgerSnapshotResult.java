@@ -0,0 +1,6 @@
+package com.hospital.equipment.dto;
+
+// taken is false when no events had been added since the previous snapshot
+public record LedgerSnapshotResult(boolean taken, long lastEventId, int rentals, int eventsReplayed, int bytes,
+                                   long millis) {
+}
\ No newline at end of file
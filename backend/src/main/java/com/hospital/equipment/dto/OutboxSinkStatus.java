@@ -0,0 +1,9 @@
+package com.hospital.equipment.dto;
+
+import java.time.LocalDateTime;
+
+// pendingEvents and lagSeconds (age of the oldest undelivered event) are as of the dispatcher's last
+// poll. retryAt is set while the sink is backing off after a failed delivery.
+public record OutboxSinkStatus(String sink, long lastEventId, long pendingEvents, double lagSeconds,
+                               long deliveredEvents, long failures, String lastError, LocalDateTime retryAt) {
+}
\ No newline at end of file
@@ -0,0 +1,10 @@
+package com.hospital.equipment.dto;
+
+// Query parameters shared by the list endpoints. cursor is the nextCursor of the previous page;
+// unpaged=true returns the whole list as a plain array, the way these endpoints used to.
+public record PageQuery(String cursor, Integer size, String sort, String direction, Boolean unpaged) {
+    
+    public boolean isUnpaged() {
+        return Boolean.TRUE.equals(unpaged);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,39 @@
+package com.hospital.equipment.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import com.hospital.equipment.entity.Rental;
+
+public record RentalView(Long id,
+                         LocalDate startDate,
+                         LocalDate endDate,
+                         LocalDate actualReturnDate,
+                         Integer quantity,
+                         BigDecimal dailyRate,
+                         BigDecimal totalAmount,
+                         Rental.RentalStatus status,
+                         LocalDateTime createdAt,
+                         LocalDateTime updatedAt,
+                         String notes,
+                         CustomerSummary customer,
+                         EquipmentSummary equipment) {
+    
+    public record CustomerSummary(Long id, String firstName, String lastName, String email, String phone) {
+    }
+    
+    public record EquipmentSummary(Long id, String name) {
+    }
+    
+    // Flat form used by the query projection
+    public RentalView(Long id, LocalDate startDate, LocalDate endDate, LocalDate actualReturnDate, Integer quantity,
+                      BigDecimal dailyRate, BigDecimal totalAmount, Rental.RentalStatus status,
+                      LocalDateTime createdAt, LocalDateTime updatedAt, String notes,
+                      Long customerId, String customerFirstName, String customerLastName, String customerEmail,
+                      String customerPhone, Long equipmentId, String equipmentName) {
+        this(id, startDate, endDate, actualReturnDate, quantity, dailyRate, totalAmount, status, createdAt, updatedAt,
+                notes, new CustomerSummary(customerId, customerFirstName, customerLastName, customerEmail, customerPhone),
+                new EquipmentSummary(equipmentId, equipmentName));
+    }
+}
\ No newline at end of file
@@ -0,0 +1,14 @@
+package com.hospital.equipment.dto;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.UUID;
+
+// Quantity set aside for a customer who is still filling in the booking form
+public record ReservationHold(UUID id,
+                              Long equipmentId,
+                              LocalDate startDate,
+                              LocalDate endDate,
+                              int quantity,
+                              Instant expiresAt) {
+}
\ No newline at end of file
@@ -0,0 +1,13 @@
+package com.hospital.equipment.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+// Rental activity summed over [start, end]; unitsBooked counts unit-days
+public record RollupBucket(LocalDate start,
+                           LocalDate end,
+                           long unitsBooked,
+                           long unitsReturned,
+                           BigDecimal revenue,
+                           Double utilization) {
+}
\ No newline at end of file
@@ -0,0 +1,4 @@
+package com.hospital.equipment.dto;
+
+public record RollupRebuildResult(int rentals, int rows, long millis) {
+}
\ No newline at end of file
@@ -0,0 +1,40 @@
+package com.hospital.equipment.entity;
+
+import java.time.LocalDateTime;
+import java.util.Set;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.PreRemove;
+import jakarta.persistence.PreUpdate;
+import jakarta.persistence.Table;
+
+// A COMPLETED or CANCELLED rental moved out of the live table by RentalArchiver. Rows only arrive
+// through the archiver's INSERT ... SELECT and are never changed afterwards. Hibernate ignores
+// @Immutable below the root of the RentalRecord hierarchy, so a managed instance refuses any update or
+// delete instead; archived rentals are only read, through RentalRecord projections.
+@Entity
+@Table(name = "rentals_archive")
+public class ArchivedRental extends RentalRecord {
+    
+    // The statuses a rental can be archived in; the table's check constraint allows no others
+    public static final Set<Rental.RentalStatus> STATUSES =
+            Set.of(Rental.RentalStatus.COMPLETED, Rental.RentalStatus.CANCELLED);
+    
+    @Column(name = "archived_at", nullable = false)
+    private LocalDateTime archivedAt;
+    
+    // Constructors
+    public ArchivedRental() {}
+    
+    // Getters
+    public LocalDateTime getArchivedAt() {
+        return archivedAt;
+    }
+    
+    @PreUpdate
+    @PreRemove
+    private void rejectChange() {
+        throw new IllegalStateException("Archived rental " + getId() + " cannot be changed");
+    }
+}
\ No newline at end of file
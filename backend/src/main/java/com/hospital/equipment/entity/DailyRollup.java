@@ -0,0 +1,140 @@
+package com.hospital.equipment.entity;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Objects;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.Id;
+import jakarta.persistence.IdClass;
+import jakarta.persistence.Table;
+
+// One day of rental activity for one piece of equipment, one category or the whole catalog.
+// The natural key doubles as the primary key, so a range of days for one scope is an index range
+// scan, and the assigned ids let Hibernate batch the inserts.
+@Entity
+@Table(name = "daily_rollups")
+@IdClass(DailyRollup.Key.class)
+public class DailyRollup {
+    
+    @Id
+    @Enumerated(EnumType.STRING)
+    @Column(length = 16)
+    private Scope scope;
+    
+    // Equipment or category id; 0 for the TOTAL scope
+    @Id
+    @Column(name = "ref_id")
+    private Long refId;
+    
+    @Id
+    @Column(name = "bucket_date")
+    private LocalDate day;
+    
+    @Column(name = "units_booked", nullable = false)
+    private long unitsBooked;
+    
+    @Column(name = "units_returned", nullable = false)
+    private long unitsReturned;
+    
+    @Column(precision = 14, scale = 2, nullable = false)
+    private BigDecimal revenue = BigDecimal.ZERO;
+    
+    // Enums
+    public enum Scope {
+        EQUIPMENT, CATEGORY, TOTAL
+    }
+    
+    public static class Key implements Serializable {
+        
+        private Scope scope;
+        private Long refId;
+        private LocalDate day;
+        
+        public Key() {}
+        
+        public Key(Scope scope, Long refId, LocalDate day) {
+            this.scope = scope;
+            this.refId = refId;
+            this.day = day;
+        }
+        
+        public Scope getScope() {
+            return scope;
+        }
+        
+        public Long getRefId() {
+            return refId;
+        }
+        
+        public LocalDate getDay() {
+            return day;
+        }
+        
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key other)) {
+                return false;
+            }
+            return scope == other.scope && Objects.equals(refId, other.refId) && Objects.equals(day, other.day);
+        }
+        
+        @Override
+        public int hashCode() {
+            return Objects.hash(scope, refId, day);
+        }
+    }
+    
+    // Constructors
+    public DailyRollup() {}
+    
+    public DailyRollup(Key key) {
+        this.scope = key.getScope();
+        this.refId = key.getRefId();
+        this.day = key.getDay();
+    }
+    
+    // Getters and Setters
+    public Scope getScope() {
+        return scope;
+    }
+    
+    public Long getRefId() {
+        return refId;
+    }
+    
+    public LocalDate getDay() {
+        return day;
+    }
+    
+    public long getUnitsBooked() {
+        return unitsBooked;
+    }
+    
+    public void setUnitsBooked(long unitsBooked) {
+        this.unitsBooked = unitsBooked;
+    }
+    
+    public long getUnitsReturned() {
+        return unitsReturned;
+    }
+    
+    public void setUnitsReturned(long unitsReturned) {
+        this.unitsReturned = unitsReturned;
+    }
+    
+    public BigDecimal getRevenue() {
+        return revenue;
+    }
+    
+    public void setRevenue(BigDecimal revenue) {
+        this.revenue = revenue;
+    }
+}
\ No newline at end of file
@@ -3,9 +3,14 @@ package com.hospital.equipment.entity;
 import java.math.BigDecimal;
 import java.util.List;
 
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+
 import com.fasterxml.jackson.annotation.JsonBackReference;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonManagedReference;
 
+import jakarta.persistence.Cacheable;
 import jakarta.persistence.CascadeType;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
@@ -18,17 +23,22 @@ import jakarta.persistence.Id;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.OneToMany;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
+import jakarta.persistence.Version;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.PositiveOrZero;
 
 @Entity
 @Table(name = "equipment")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 public class Equipment {
     
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "equipment_seq")
+    @SequenceGenerator(name = "equipment_seq", sequenceName = "equipment_seq", allocationSize = 50)
     private Long id;
     
     @NotBlank(message = "Equipment name is required")
@@ -68,6 +78,11 @@ public class Equipment {
     @JsonManagedReference("equipment-rentals")
     private List<Rental> rentals;
     
+    // Bumped on every update; lets optimistic booking mode detect concurrent bookings
+    @Version
+    @JsonIgnore
+    private Long version;
+    
     // Enums
     public enum EquipmentStatus {
         AVAILABLE, RENTED, MAINTENANCE, RETIRED
@@ -184,4 +199,12 @@ public class Equipment {
     public void setRentals(List<Rental> rentals) {
         this.rentals = rentals;
     }
+    
+    public Long getVersion() {
+        return version;
+    }
+    
+    public void setVersion(Long version) {
+        this.version = version;
+    }
 }
\ No newline at end of file
@@ -4,74 +4,14 @@ import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 
-import com.fasterxml.jackson.annotation.JsonBackReference;
-
-import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
-import jakarta.persistence.EnumType;
-import jakarta.persistence.Enumerated;
-import jakarta.persistence.FetchType;
-import jakarta.persistence.GeneratedValue;
-import jakarta.persistence.GenerationType;
-import jakarta.persistence.Id;
-import jakarta.persistence.JoinColumn;
-import jakarta.persistence.ManyToOne;
 import jakarta.persistence.PrePersist;
 import jakarta.persistence.PreUpdate;
 import jakarta.persistence.Table;
-import jakarta.validation.constraints.NotNull;
-import jakarta.validation.constraints.Positive;
 
 @Entity
 @Table(name = "rentals")
-public class Rental {
-    
-    @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
-    private Long id;
-    
-    @ManyToOne(fetch = FetchType.LAZY)
-    @JoinColumn(name = "customer_id", nullable = false)
-    @NotNull(message = "Customer is required")
-    @JsonBackReference("customer-rentals")
-    private Customer customer;
-    
-    @ManyToOne(fetch = FetchType.LAZY)
-    @JoinColumn(name = "equipment_id", nullable = false)
-    @NotNull(message = "Equipment is required")
-    @JsonBackReference("equipment-rentals")
-    private Equipment equipment;
-    
-    @NotNull(message = "Start date is required")
-    private LocalDate startDate;
-    
-    @NotNull(message = "End date is required")
-    private LocalDate endDate;
-    
-    private LocalDate actualReturnDate;
-    
-    @NotNull(message = "Quantity is required")
-    @Positive(message = "Quantity must be positive")
-    private Integer quantity;
-    
-    @NotNull(message = "Daily rate is required")
-    @Column(name = "daily_rate", precision = 10, scale = 2)
-    private BigDecimal dailyRate;
-    
-    @NotNull(message = "Total amount is required")
-    @Column(name = "total_amount", precision = 10, scale = 2)
-    private BigDecimal totalAmount;
-    
-    @Enumerated(EnumType.STRING)
-    private RentalStatus status = RentalStatus.PENDING;
-    
-    @Column(name = "created_at")
-    private LocalDateTime createdAt;
-    
-    @Column(name = "updated_at")
-    private LocalDateTime updatedAt;
-    
-    private String notes;
+public class Rental extends RentalRecord {
     
     // Enums
     public enum RentalStatus {
@@ -81,145 +21,34 @@ public class Rental {
     // Constructors
     public Rental() {}
     
-    public Rental(Customer customer, Equipment equipment, LocalDate startDate, 
+    public Rental(Customer customer, Equipment equipment, LocalDate startDate,
                  LocalDate endDate, Integer quantity, BigDecimal dailyRate) {
-        this.customer = customer;
-        this.equipment = equipment;
-        this.startDate = startDate;
-        this.endDate = endDate;
-        this.quantity = quantity;
-        this.dailyRate = dailyRate;
-        // Calculate total amount manually to avoid overridable method call in constructor
-        if (startDate != null && endDate != null && dailyRate != null && quantity != null) {
-            long daysBetween = endDate.toEpochDay() - startDate.toEpochDay() + 1;
-            this.totalAmount = dailyRate.multiply(BigDecimal.valueOf(daysBetween)).multiply(BigDecimal.valueOf(quantity));
-        } else {
-            this.totalAmount = BigDecimal.ZERO;
-        }
+        super(customer, equipment, startDate, endDate, quantity, dailyRate,
+              totalAmount(startDate, endDate, dailyRate, quantity));
     }
     
     @PrePersist
     protected void onCreate() {
-        createdAt = LocalDateTime.now();
-        updatedAt = LocalDateTime.now();
+        setCreatedAt(LocalDateTime.now());
+        setUpdatedAt(LocalDateTime.now());
     }
     
     @PreUpdate
     protected void onUpdate() {
-        updatedAt = LocalDateTime.now();
+        setUpdatedAt(LocalDateTime.now());
     }
     
     // Business method
     public BigDecimal calculateTotalAmount() {
+        return totalAmount(getStartDate(), getEndDate(), getDailyRate(), getQuantity());
+    }
+    
+    private static BigDecimal totalAmount(LocalDate startDate, LocalDate endDate, BigDecimal dailyRate,
+                                          Integer quantity) {
         if (startDate != null && endDate != null && dailyRate != null && quantity != null) {
             long daysBetween = endDate.toEpochDay() - startDate.toEpochDay() + 1;
             return dailyRate.multiply(BigDecimal.valueOf(daysBetween)).multiply(BigDecimal.valueOf(quantity));
         }
         return BigDecimal.ZERO;
     }
-    
-    // Getters and Setters
-    public Long getId() {
-        return id;
-    }
-    
-    public void setId(Long id) {
-        this.id = id;
-    }
-    
-    public Customer getCustomer() {
-        return customer;
-    }
-    
-    public void setCustomer(Customer customer) {
-        this.customer = customer;
-    }
-    
-    public Equipment getEquipment() {
-        return equipment;
-    }
-    
-    public void setEquipment(Equipment equipment) {
-        this.equipment = equipment;
-    }
-    
-    public LocalDate getStartDate() {
-        return startDate;
-    }
-    
-    public void setStartDate(LocalDate startDate) {
-        this.startDate = startDate;
-    }
-    
-    public LocalDate getEndDate() {
-        return endDate;
-    }
-    
-    public void setEndDate(LocalDate endDate) {
-        this.endDate = endDate;
-    }
-    
-    public LocalDate getActualReturnDate() {
-        return actualReturnDate;
-    }
-    
-    public void setActualReturnDate(LocalDate actualReturnDate) {
-        this.actualReturnDate = actualReturnDate;
-    }
-    
-    public Integer getQuantity() {
-        return quantity;
-    }
-    
-    public void setQuantity(Integer quantity) {
-        this.quantity = quantity;
-    }
-    
-    public BigDecimal getDailyRate() {
-        return dailyRate;
-    }
-    
-    public void setDailyRate(BigDecimal dailyRate) {
-        this.dailyRate = dailyRate;
-    }
-    
-    public BigDecimal getTotalAmount() {
-        return totalAmount;
-    }
-    
-    public void setTotalAmount(BigDecimal totalAmount) {
-        this.totalAmount = totalAmount;
-    }
-    
-    public RentalStatus getStatus() {
-        return status;
-    }
-    
-    public void setStatus(RentalStatus status) {
-        this.status = status;
-    }
-    
-    public LocalDateTime getCreatedAt() {
-        return createdAt;
-    }
-    
-    public void setCreatedAt(LocalDateTime createdAt) {
-        this.createdAt = createdAt;
-    }
-    
-    public LocalDateTime getUpdatedAt() {
-        return updatedAt;
-    }
-    
-    public void setUpdatedAt(LocalDateTime updatedAt) {
-        this.updatedAt = updatedAt;
-    }
-    
-    public String getNotes() {
-        return notes;
-    }
-    
-    public void setNotes(String notes) {
-        this.notes = notes;
-    }
 }
\ No newline at end of file
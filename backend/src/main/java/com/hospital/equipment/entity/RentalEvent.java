@@ -0,0 +1,147 @@
+package com.hospital.equipment.entity;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import org.hibernate.annotations.Immutable;
+
+import com.hospital.equipment.event.RentalSnapshot;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
+
+// One entry of the rental ledger: what happened to a rental and the rental as it stood afterwards.
+// Ids grow with each change to a rental (see RentalLedger), so replaying in id order reproduces the
+// current state.
+@Entity
+@Table(name = "rental_events")
+@Immutable
+public class RentalEvent {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "rental_event_seq")
+    @SequenceGenerator(name = "rental_event_seq", sequenceName = "rental_event_seq", allocationSize = 50)
+    private Long id;
+    
+    @Column(name = "rental_id", nullable = false)
+    private Long rentalId;
+    
+    @Enumerated(EnumType.STRING)
+    @Column(name = "event_type", length = 16, nullable = false)
+    private Type type;
+    
+    @Column(name = "recorded_at", nullable = false)
+    private LocalDateTime recordedAt;
+    
+    // The rental after the change; all null for DELETED
+    @Column(name = "equipment_id")
+    private Long equipmentId;
+    
+    @Column(name = "customer_id")
+    private Long customerId;
+    
+    private LocalDate startDate;
+    
+    private LocalDate endDate;
+    
+    private LocalDate actualReturnDate;
+    
+    private Integer quantity;
+    
+    @Column(name = "daily_rate", precision = 10, scale = 2)
+    private BigDecimal dailyRate;
+    
+    @Column(name = "total_amount", precision = 10, scale = 2)
+    private BigDecimal totalAmount;
+    
+    @Enumerated(EnumType.STRING)
+    private Rental.RentalStatus status;
+    
+    // Enums
+    public enum Type {
+        // State found when the ledger was introduced, for rentals that already existed
+        BASELINE,
+        CREATED, UPDATED, CONFIRMED, ACTIVATED, RETURNED, CANCELLED, OVERDUE, DELETED
+    }
+    
+    // Constructors
+    public RentalEvent() {}
+    
+    public RentalEvent(Type type, Long rentalId, RentalSnapshot state) {
+        this.type = type;
+        this.rentalId = rentalId;
+        this.recordedAt = LocalDateTime.now();
+        if (state != null) {
+            this.equipmentId = state.equipmentId();
+            this.customerId = state.customerId();
+            this.startDate = state.startDate();
+            this.endDate = state.endDate();
+            this.actualReturnDate = state.actualReturnDate();
+            this.quantity = state.quantity();
+            this.dailyRate = state.dailyRate();
+            this.totalAmount = state.totalAmount();
+            this.status = state.status();
+        }
+    }
+    
+    // Getters
+    public Long getId() {
+        return id;
+    }
+    
+    public Long getRentalId() {
+        return rentalId;
+    }
+    
+    public Type getType() {
+        return type;
+    }
+    
+    public LocalDateTime getRecordedAt() {
+        return recordedAt;
+    }
+    
+    public Long getEquipmentId() {
+        return equipmentId;
+    }
+    
+    public Long getCustomerId() {
+        return customerId;
+    }
+    
+    public LocalDate getStartDate() {
+        return startDate;
+    }
+    
+    public LocalDate getEndDate() {
+        return endDate;
+    }
+    
+    public LocalDate getActualReturnDate() {
+        return actualReturnDate;
+    }
+    
+    public Integer getQuantity() {
+        return quantity;
+    }
+    
+    public BigDecimal getDailyRate() {
+        return dailyRate;
+    }
+    
+    public BigDecimal getTotalAmount() {
+        return totalAmount;
+    }
+    
+    public Rental.RentalStatus getStatus() {
+        return status;
+    }
+}
\ No newline at end of file
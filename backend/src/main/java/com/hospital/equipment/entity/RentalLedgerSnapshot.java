@@ -0,0 +1,59 @@
+package com.hospital.equipment.entity;
+
+import java.time.LocalDateTime;
+
+import org.hibernate.annotations.Immutable;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Lob;
+import jakarta.persistence.Table;
+
+// Every rental as of one ledger event, in the binary layout RentalLedger writes
+@Entity
+@Table(name = "rental_snapshots")
+@Immutable
+public class RentalLedgerSnapshot {
+    
+    @Id
+    @Column(name = "last_event_id")
+    private Long lastEventId;
+    
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+    
+    @Column(name = "rental_count", nullable = false)
+    private int rentalCount;
+    
+    @Lob
+    @Column(nullable = false)
+    private byte[] data;
+    
+    // Constructors
+    public RentalLedgerSnapshot() {}
+    
+    public RentalLedgerSnapshot(Long lastEventId, int rentalCount, byte[] data) {
+        this.lastEventId = lastEventId;
+        this.createdAt = LocalDateTime.now();
+        this.rentalCount = rentalCount;
+        this.data = data;
+    }
+    
+    // Getters
+    public Long getLastEventId() {
+        return lastEventId;
+    }
+    
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+    
+    public int getRentalCount() {
+        return rentalCount;
+    }
+    
+    public byte[] getData() {
+        return data;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,45 @@
+package com.hospital.equipment.entity;
+
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+
+// The last rental ledger event one outbox sink has accepted
+@Entity
+@Table(name = "rental_outbox_cursors")
+public class RentalOutboxCursor {
+    
+    @Id
+    @Column(length = 100)
+    private String sink;
+    
+    @Column(name = "last_event_id", nullable = false)
+    private Long lastEventId;
+    
+    @Column(name = "delivered_at")
+    private LocalDateTime deliveredAt;
+    
+    // Constructors
+    public RentalOutboxCursor() {}
+    
+    public RentalOutboxCursor(String sink, Long lastEventId) {
+        this.sink = sink;
+        this.lastEventId = lastEventId;
+    }
+    
+    // Getters
+    public String getSink() {
+        return sink;
+    }
+    
+    public Long getLastEventId() {
+        return lastEventId;
+    }
+    
+    public LocalDateTime getDeliveredAt() {
+        return deliveredAt;
+    }
+}
\ No newline at end of file
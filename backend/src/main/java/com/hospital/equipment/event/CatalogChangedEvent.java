@@ -0,0 +1,20 @@
+package com.hospital.equipment.event;
+
+import java.util.List;
+
+// Published by EquipmentService and CategoryService for every write to the catalog.
+// Exactly one of equipmentIds and categoryId is set; a bulk import reports all its items in one event.
+public record CatalogChangedEvent(List<Long> equipmentIds, Long categoryId) {
+    
+    public static CatalogChangedEvent equipment(Long equipmentId) {
+        return new CatalogChangedEvent(List.of(equipmentId), null);
+    }
+    
+    public static CatalogChangedEvent equipment(List<Long> equipmentIds) {
+        return new CatalogChangedEvent(equipmentIds, null);
+    }
+    
+    public static CatalogChangedEvent category(Long categoryId) {
+        return new CatalogChangedEvent(null, categoryId);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,11 @@
+package com.hospital.equipment.event;
+
+import java.util.List;
+
+// Published by CustomerService when customers are created, updated or deleted
+public record CustomerChangedEvent(List<Long> customerIds) {
+    
+    public CustomerChangedEvent(Long customerId) {
+        this(List.of(customerId));
+    }
+}
\ No newline at end of file
@@ -0,0 +1,7 @@
+package com.hospital.equipment.event;
+
+// Published by RentalLedger once a rental change has committed, with the id of the ledger event that
+// records it. A reader that rebuilt its state from RentalLedger.replay can skip the changes at or
+// below the replay's last event id, which the replay already includes.
+public record RentalChangeRecordedEvent(long eventId, RentalChangedEvent change) {
+}
\ No newline at end of file
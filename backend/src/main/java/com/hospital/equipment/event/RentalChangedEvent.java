@@ -0,0 +1,10 @@
+package com.hospital.equipment.event;
+
+// Published by RentalService for every create, update, status change and delete.
+// before is null for a new rental, after is null for a deleted one.
+public record RentalChangedEvent(RentalSnapshot before, RentalSnapshot after) {
+    
+    public Long rentalId() {
+        return after != null ? after.id() : before.id();
+    }
+}
\ No newline at end of file
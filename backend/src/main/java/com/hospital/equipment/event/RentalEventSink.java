@@ -0,0 +1,17 @@
+package com.hospital.equipment.event;
+
+import java.util.List;
+
+import com.hospital.equipment.entity.RentalEvent;
+
+// A downstream consumer of rental ledger events, fed by RentalEventDispatcher. Batches arrive in ledger
+// order and a batch counts as delivered once deliver returns; if it throws, the same events are offered
+// again later. A batch can also be repeated after a crash, so consumers should skip event ids they have
+// already handled.
+public interface RentalEventSink {
+    
+    // Identifies the sink's delivery position; changing it starts the sink afresh
+    String name();
+    
+    void deliver(List<RentalEvent> events) throws Exception;
+}
\ No newline at end of file
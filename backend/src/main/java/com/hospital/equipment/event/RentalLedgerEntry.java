@@ -0,0 +1,20 @@
+package com.hospital.equipment.event;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+import com.hospital.equipment.entity.Rental;
+import com.hospital.equipment.entity.RentalEvent;
+
+// One ledger event as replay reads it; rental is null once the rental has been deleted
+public record RentalLedgerEntry(Long eventId, Long rentalId, RentalEvent.Type type, RentalSnapshot rental) {
+    
+    // Flat form for JPQL constructor expressions
+    public RentalLedgerEntry(Long eventId, Long rentalId, RentalEvent.Type type, Long equipmentId, Long customerId,
+                             LocalDate startDate, LocalDate endDate, LocalDate actualReturnDate, Integer quantity,
+                             BigDecimal dailyRate, BigDecimal totalAmount, Rental.RentalStatus status) {
+        this(eventId, rentalId, type, type == RentalEvent.Type.DELETED ? null
+                : new RentalSnapshot(rentalId, equipmentId, customerId, startDate, endDate, actualReturnDate,
+                                     quantity, dailyRate, totalAmount, status));
+    }
+}
\ No newline at end of file
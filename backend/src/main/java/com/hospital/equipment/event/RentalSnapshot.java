@@ -0,0 +1,33 @@
+package com.hospital.equipment.event;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+import com.hospital.equipment.entity.Rental;
+
+// Immutable copy of the rental fields listeners need once the transaction has committed
+public record RentalSnapshot(Long id,
+                             Long equipmentId,
+                             Long customerId,
+                             LocalDate startDate,
+                             LocalDate endDate,
+                             LocalDate actualReturnDate,
+                             Integer quantity,
+                             BigDecimal dailyRate,
+                             BigDecimal totalAmount,
+                             Rental.RentalStatus status) {
+    
+    public static RentalSnapshot of(Rental rental) {
+        return new RentalSnapshot(
+                rental.getId(),
+                rental.getEquipment().getId(),
+                rental.getCustomer().getId(),
+                rental.getStartDate(),
+                rental.getEndDate(),
+                rental.getActualReturnDate(),
+                rental.getQuantity(),
+                rental.getDailyRate(),
+                rental.getTotalAmount(),
+                rental.getStatus());
+    }
+}
\ No newline at end of file
@@ -0,0 +1,22 @@
+package com.hospital.equipment.repository;
+
+import java.util.Collection;
+
+import org.springframework.data.jpa.domain.Specification;
+
+import com.hospital.equipment.entity.Customer;
+
+// Filters behind the paged customer listings; each mirrors a query in CustomerRepository
+public final class CustomerSpecifications {
+    
+    private CustomerSpecifications() {
+    }
+    
+    public static Specification<Customer> withId(Long id) {
+        return (root, query, cb) -> cb.equal(root.get("id"), id);
+    }
+    
+    public static Specification<Customer> idIn(Collection<Long> ids) {
+        return (root, query, cb) -> ids.isEmpty() ? cb.disjunction() : root.get("id").in(ids);
+    }
+}
\ No newline at end of file
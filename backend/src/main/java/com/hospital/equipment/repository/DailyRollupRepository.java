@@ -0,0 +1,22 @@
+package com.hospital.equipment.repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import com.hospital.equipment.entity.DailyRollup;
+
+@Repository
+public interface DailyRollupRepository extends JpaRepository<DailyRollup, DailyRollup.Key> {
+    
+    List<DailyRollup> findByScopeAndRefIdAndDayBetweenOrderByDay(DailyRollup.Scope scope, Long refId,
+                                                                 LocalDate from, LocalDate to);
+    
+    @Modifying
+    @Query("DELETE FROM DailyRollup")
+    int deleteAllRollups();
+}
\ No newline at end of file
@@ -1,25 +1,57 @@
 package com.hospital.equipment.repository;
 
 import java.math.BigDecimal;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import com.hospital.equipment.entity.Equipment;
 
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+
 @Repository
 public interface EquipmentRepository extends JpaRepository<Equipment, Long> {
     
+    // Query cache: results are dropped whenever the equipment table is written
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     List<Equipment> findByCategoryId(Long categoryId);
     
     List<Equipment> findByStatus(Equipment.EquipmentStatus status);
     
     List<Equipment> findByAvailableQuantityGreaterThan(Integer quantity);
     
+    // Rows of (status, count)
+    @Query("SELECT e.status, COUNT(e) FROM Equipment e GROUP BY e.status")
+    List<Object[]> countByStatus();
+    
+    // Rows of (category id, count); uncategorized items are left out
+    @Query("SELECT e.category.id, COUNT(e) FROM Equipment e WHERE e.category IS NOT NULL GROUP BY e.category.id")
+    List<Object[]> countByCategory();
+    
+    // Rows of (equipment id, category id or null)
+    @Query("SELECT e.id, c.id FROM Equipment e LEFT JOIN e.category c WHERE e.id IN :ids")
+    List<Object[]> findCategoryIds(@Param("ids") Collection<Long> ids);
+    
+    // Rows of (equipment id, category id or null) for the whole catalog
+    @Query("SELECT e.id, c.id FROM Equipment e LEFT JOIN e.category c")
+    List<Object[]> findAllCategoryIds();
+    
+    @Query("SELECT COALESCE(SUM(e.totalQuantity), 0) FROM Equipment e")
+    long sumTotalQuantity();
+    
+    @Query("SELECT COALESCE(SUM(e.totalQuantity), 0) FROM Equipment e WHERE e.category.id = :categoryId")
+    long sumTotalQuantityByCategory(@Param("categoryId") Long categoryId);
+    
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     @Query("SELECT e FROM Equipment e WHERE e.availableQuantity > 0 AND e.status = 'AVAILABLE'")
     List<Equipment> findAvailableEquipment();
     
@@ -36,6 +68,15 @@ public interface EquipmentRepository extends JpaRepository<Equipment, Long> {
     @Query("SELECT e FROM Equipment e LEFT JOIN FETCH e.category WHERE e.id = :id")
     Optional<Equipment> findByIdWithCategory(Long id);
     
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT e FROM Equipment e WHERE e.id = :id")
+    Optional<Equipment> findByIdForUpdate(@Param("id") Long id);
+    
+    @Lock(LockModeType.OPTIMISTIC_FORCE_INCREMENT)
+    @Query("SELECT e FROM Equipment e WHERE e.id = :id")
+    Optional<Equipment> findByIdForVersionIncrement(@Param("id") Long id);
+    
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     @Query("SELECT e FROM Equipment e WHERE e.category.id = :categoryId AND " +
            "e.availableQuantity > 0 AND e.status = 'AVAILABLE'")
     List<Equipment> findAvailableByCategoryId(@Param("categoryId") Long categoryId);
@@ -0,0 +1,41 @@
+package com.hospital.equipment.repository;
+
+import java.math.BigDecimal;
+import java.util.Collection;
+
+import org.springframework.data.jpa.domain.Specification;
+
+import com.hospital.equipment.entity.Equipment;
+
+// Filters behind the paged equipment listings; each mirrors a query in EquipmentRepository
+public final class EquipmentSpecifications {
+    
+    private EquipmentSpecifications() {
+    }
+    
+    public static Specification<Equipment> withId(Long id) {
+        return (root, query, cb) -> cb.equal(root.get("id"), id);
+    }
+    
+    public static Specification<Equipment> available() {
+        return (root, query, cb) -> cb.and(
+                cb.greaterThan(root.get("availableQuantity"), 0),
+                cb.equal(root.get("status"), Equipment.EquipmentStatus.AVAILABLE));
+    }
+    
+    public static Specification<Equipment> inCategory(Long categoryId) {
+        return (root, query, cb) -> cb.equal(root.get("category").get("id"), categoryId);
+    }
+    
+    public static Specification<Equipment> hasStatus(Equipment.EquipmentStatus status) {
+        return (root, query, cb) -> cb.equal(root.get("status"), status);
+    }
+    
+    public static Specification<Equipment> priceBetween(BigDecimal minPrice, BigDecimal maxPrice) {
+        return (root, query, cb) -> cb.between(root.get("dailyPrice"), minPrice, maxPrice);
+    }
+    
+    public static Specification<Equipment> idIn(Collection<Long> ids) {
+        return (root, query, cb) -> ids.isEmpty() ? cb.disjunction() : root.get("id").in(ids);
+    }
+}
\ No newline at end of file
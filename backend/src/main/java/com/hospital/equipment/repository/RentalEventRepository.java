@@ -0,0 +1,35 @@
+package com.hospital.equipment.repository;
+
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.hospital.equipment.entity.RentalEvent;
+import com.hospital.equipment.event.RentalLedgerEntry;
+
+@Repository
+public interface RentalEventRepository extends JpaRepository<RentalEvent, Long> {
+    
+    // Keyset page of the ledger: the events after afterId up to upToId, oldest first
+    @Query("SELECT new com.hospital.equipment.event.RentalLedgerEntry(e.id, e.rentalId, e.type, e.equipmentId, " +
+           "e.customerId, e.startDate, e.endDate, e.actualReturnDate, e.quantity, e.dailyRate, e.totalAmount, e.status) " +
+           "FROM RentalEvent e WHERE e.id > :afterId AND e.id <= :upToId ORDER BY e.id")
+    List<RentalLedgerEntry> findAfter(@Param("afterId") Long afterId, @Param("upToId") Long upToId, Pageable page);
+    
+    // The same page as whole events, for delivery to the outbox sinks
+    List<RentalEvent> findByIdGreaterThanAndIdLessThanEqualOrderById(Long afterId, Long upToId, Pageable page);
+    
+    Optional<RentalEvent> findFirstByIdGreaterThanOrderById(Long id);
+    
+    @Query("SELECT coalesce(max(e.id), 0) FROM RentalEvent e")
+    long findLatestId();
+    
+    long countByIdGreaterThan(Long id);
+    
+    List<RentalEvent> findByRentalIdOrderById(Long rentalId);
+}
\ No newline at end of file
@@ -0,0 +1,24 @@
+package com.hospital.equipment.repository;
+
+import java.util.Optional;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.hospital.equipment.entity.RentalLedgerSnapshot;
+
+@Repository
+public interface RentalLedgerSnapshotRepository extends JpaRepository<RentalLedgerSnapshot, Long> {
+    
+    Optional<RentalLedgerSnapshot> findFirstByOrderByLastEventIdDesc();
+    
+    @Query("SELECT coalesce(max(s.lastEventId), 0) FROM RentalLedgerSnapshot s")
+    long findLatestEventId();
+    
+    @Modifying
+    @Query("DELETE FROM RentalLedgerSnapshot s WHERE s.lastEventId < :lastEventId")
+    int deleteOlderThan(@Param("lastEventId") Long lastEventId);
+}
\ No newline at end of file
@@ -0,0 +1,21 @@
+package com.hospital.equipment.repository;
+
+import java.time.LocalDateTime;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.hospital.equipment.entity.RentalOutboxCursor;
+
+@Repository
+public interface RentalOutboxCursorRepository extends JpaRepository<RentalOutboxCursor, String> {
+    
+    @Modifying
+    @Query("UPDATE RentalOutboxCursor c SET c.lastEventId = :lastEventId, c.deliveredAt = :deliveredAt " +
+           "WHERE c.sink = :sink")
+    int advance(@Param("sink") String sink, @Param("lastEventId") Long lastEventId,
+                @Param("deliveredAt") LocalDateTime deliveredAt);
+}
\ No newline at end of file
@@ -1,14 +1,22 @@
 package com.hospital.equipment.repository;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import com.hospital.equipment.entity.Rental;
+import com.hospital.equipment.event.RentalSnapshot;
+
+import jakarta.persistence.LockModeType;
 
 @Repository
 public interface RentalRepository extends JpaRepository<Rental, Long> {
@@ -19,6 +27,17 @@ public interface RentalRepository extends JpaRepository<Rental, Long> {
     
     List<Rental> findByStatus(Rental.RentalStatus status);
     
+    List<Rental> findByStatusIn(Collection<Rental.RentalStatus> statuses);
+    
+    // The id range and snapshots span live and archived rentals alike
+    @Query("SELECT MIN(r.id), MAX(r.id) FROM RentalRecord r")
+    List<Object[]> findIdRange();
+    
+    @Query("SELECT new com.hospital.equipment.event.RentalSnapshot(r.id, r.equipment.id, r.customer.id, " +
+           "r.startDate, r.endDate, r.actualReturnDate, r.quantity, r.dailyRate, r.totalAmount, r.status) " +
+           "FROM RentalRecord r WHERE r.id > :afterId AND r.id <= :toId ORDER BY r.id")
+    List<RentalSnapshot> findSnapshotsAfter(@Param("afterId") Long afterId, @Param("toId") Long toId, Pageable page);
+    
     @Query("SELECT r FROM Rental r WHERE r.endDate < :currentDate AND r.status = 'ACTIVE'")
     List<Rental> findOverdueRentals(@Param("currentDate") LocalDate currentDate);
     
@@ -29,16 +48,41 @@ public interface RentalRepository extends JpaRepository<Rental, Long> {
     Rental findByIdWithDetails(Long id);
     
     @Query("SELECT r FROM Rental r WHERE r.equipment.id = :equipmentId AND " +
-           "r.status IN ('PENDING', 'CONFIRMED', 'ACTIVE') AND " +
+           "r.status IN ('PENDING', 'CONFIRMED', 'ACTIVE', 'OVERDUE') AND " +
            "((r.startDate <= :endDate) AND (r.endDate >= :startDate))")
     List<Rental> findConflictingRentals(@Param("equipmentId") Long equipmentId,
                                       @Param("startDate") LocalDate startDate,
                                       @Param("endDate") LocalDate endDate);
     
     @Query("SELECT SUM(r.quantity) FROM Rental r WHERE r.equipment.id = :equipmentId AND " +
-           "r.status IN ('PENDING', 'CONFIRMED', 'ACTIVE') AND " +
+           "r.status IN ('PENDING', 'CONFIRMED', 'ACTIVE', 'OVERDUE') AND " +
            "((r.startDate <= :endDate) AND (r.endDate >= :startDate))")
     Integer getTotalBookedQuantity(@Param("equipmentId") Long equipmentId,
                                  @Param("startDate") LocalDate startDate,
                                  @Param("endDate") LocalDate endDate);
+    
+    @Query("SELECT r FROM Rental r WHERE r.equipment.id IN :equipmentIds AND " +
+           "r.status IN ('PENDING', 'CONFIRMED', 'ACTIVE', 'OVERDUE') AND r.endDate >= :date")
+    List<Rental> findBookedRentalsEndingOnOrAfter(@Param("equipmentIds") Collection<Long> equipmentIds,
+                                                 @Param("date") LocalDate date);
+    
+    // The next closed rentals due for the archive, locked until the batch moving them commits.
+    // No ORDER BY: the rows come straight off idx_rentals_status_end_date, oldest end date first.
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT r.id FROM Rental r WHERE r.status IN :statuses AND r.endDate < :cutoff")
+    List<Long> findArchivableIds(@Param("statuses") Collection<Rental.RentalStatus> statuses,
+                                 @Param("cutoff") LocalDate cutoff, Pageable page);
+    
+    @Modifying
+    @Query(value = "INSERT INTO rentals_archive (id, customer_id, equipment_id, start_date, end_date, " +
+                   "actual_return_date, quantity, daily_rate, total_amount, status, created_at, updated_at, notes, " +
+                   "archived_at) " +
+                   "SELECT id, customer_id, equipment_id, start_date, end_date, actual_return_date, quantity, " +
+                   "daily_rate, total_amount, status, created_at, updated_at, notes, :archivedAt " +
+                   "FROM rentals WHERE id IN :ids", nativeQuery = true)
+    int copyToArchive(@Param("ids") Collection<Long> ids, @Param("archivedAt") LocalDateTime archivedAt);
+    
+    @Modifying
+    @Query("DELETE FROM Rental r WHERE r.id IN :ids")
+    int deleteAllByIdIn(@Param("ids") Collection<Long> ids);
 }
\ No newline at end of file
@@ -0,0 +1,53 @@
+package com.hospital.equipment.repository;
+
+import java.time.LocalDate;
+import java.util.Collection;
+
+import org.springframework.data.jpa.domain.Specification;
+
+import com.hospital.equipment.entity.Rental;
+import com.hospital.equipment.entity.RentalRecord;
+
+// Filters behind the paged rental listings; each mirrors a query in RentalRepository. They are written
+// against RentalRecord, so they apply to live and archived rentals alike.
+public final class RentalSpecifications {
+    
+    private RentalSpecifications() {
+    }
+    
+    public static Specification<RentalRecord> withId(Long id) {
+        return (root, query, cb) -> cb.equal(root.get("id"), id);
+    }
+    
+    public static Specification<RentalRecord> forCustomer(Long customerId) {
+        return (root, query, cb) -> cb.equal(root.get("customer").get("id"), customerId);
+    }
+    
+    public static Specification<RentalRecord> forEquipment(Long equipmentId) {
+        return (root, query, cb) -> cb.equal(root.get("equipment").get("id"), equipmentId);
+    }
+    
+    public static Specification<RentalRecord> hasStatus(Rental.RentalStatus status) {
+        return (root, query, cb) -> cb.equal(root.get("status"), status);
+    }
+    
+    public static Specification<RentalRecord> activeOn(LocalDate date) {
+        return (root, query, cb) -> cb.and(
+                cb.lessThanOrEqualTo(root.get("startDate"), date),
+                cb.greaterThanOrEqualTo(root.get("endDate"), date));
+    }
+    
+    // Rentals whose period has at least one day on or after from
+    public static Specification<RentalRecord> endsOnOrAfter(LocalDate from) {
+        return (root, query, cb) -> cb.greaterThanOrEqualTo(root.get("endDate"), from);
+    }
+    
+    // Rentals whose period has at least one day on or before to
+    public static Specification<RentalRecord> startsOnOrBefore(LocalDate to) {
+        return (root, query, cb) -> cb.lessThanOrEqualTo(root.get("startDate"), to);
+    }
+    
+    public static Specification<RentalRecord> idIn(Collection<Long> ids) {
+        return (root, query, cb) -> ids.isEmpty() ? cb.disjunction() : root.get("id").in(ids);
+    }
+}
\ No newline at end of file
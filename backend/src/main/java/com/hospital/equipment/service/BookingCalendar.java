@@ -0,0 +1,94 @@
+package com.hospital.equipment.service;
+
+import java.time.LocalDate;
+
+// Booked units per day for a single equipment item, kept in a sparse segment tree over epoch days.
+// Both range updates and "peak units booked on any day in [start, end]" queries are O(log days).
+public class BookingCalendar {
+    
+    // 2^17 days from 1970-01-01 covers every date up to the year 2328
+    private static final int DOMAIN_BITS = 17;
+    private static final int LAST_DAY = (1 << DOMAIN_BITS) - 1;
+    
+    private final Node root = new Node();
+    
+    private static final class Node {
+        // Units added to every day under this node, and the peak including that amount
+        int add;
+        int peak;
+        Node left;
+        Node right;
+    }
+    
+    public synchronized void add(LocalDate startDate, LocalDate endDate, int quantity) {
+        int from = toDay(startDate);
+        int to = toDay(endDate);
+        if (from <= to && quantity != 0) {
+            add(root, 0, LAST_DAY, from, to, quantity);
+        }
+    }
+    
+    public void remove(LocalDate startDate, LocalDate endDate, int quantity) {
+        add(startDate, endDate, -quantity);
+    }
+    
+    public synchronized int getPeak(LocalDate startDate, LocalDate endDate) {
+        int from = toDay(startDate);
+        int to = toDay(endDate);
+        if (from > to) {
+            return 0;
+        }
+        return peak(root, 0, LAST_DAY, from, to);
+    }
+    
+    private static void add(Node node, int lo, int hi, int from, int to, int quantity) {
+        if (from <= lo && hi <= to) {
+            node.add += quantity;
+            node.peak += quantity;
+            return;
+        }
+        int mid = (lo + hi) >>> 1;
+        if (from <= mid) {
+            if (node.left == null) {
+                node.left = new Node();
+            }
+            add(node.left, lo, mid, from, to, quantity);
+        }
+        if (to > mid) {
+            if (node.right == null) {
+                node.right = new Node();
+            }
+            add(node.right, mid + 1, hi, from, to, quantity);
+        }
+        node.peak = node.add + Math.max(peakOf(node.left), peakOf(node.right));
+    }
+    
+    private static int peak(Node node, int lo, int hi, int from, int to) {
+        if (node == null) {
+            return 0;
+        }
+        if (from <= lo && hi <= to) {
+            return node.peak;
+        }
+        int mid = (lo + hi) >>> 1;
+        // A subtree can sit below zero relative to this node, when units were removed from part of a
+        // range added higher up, so neither side may be cut off at zero
+        int best = Integer.MIN_VALUE;
+        if (from <= mid) {
+            best = Math.max(best, peak(node.left, lo, mid, from, to));
+        }
+        if (to > mid) {
+            best = Math.max(best, peak(node.right, mid + 1, hi, from, to));
+        }
+        return node.add + best;
+    }
+    
+    private static int peakOf(Node node) {
+        return node == null ? 0 : node.peak;
+    }
+    
+    private static int toDay(LocalDate date) {
+        long day = date.toEpochDay();
+        return (int) Math.max(0, Math.min(LAST_DAY, day));
+    }
+}
\ No newline at end of file
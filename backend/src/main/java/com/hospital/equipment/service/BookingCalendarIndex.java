@@ -0,0 +1,103 @@
+package com.hospital.equipment.service;
+
+import java.time.LocalDate;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.hospital.equipment.dto.ReservationHold;
+import com.hospital.equipment.entity.Rental;
+import com.hospital.equipment.event.RentalChangedEvent;
+import com.hospital.equipment.event.RentalSnapshot;
+
+// In-memory view of which units are booked on which days, so availability checks never hit the database.
+// Rebuilt from the rental ledger at startup and updated after every committed rental change.
+//
+// The rebuild runs once all singletons exist, before the web server and the scheduled jobs start, so
+// no booking can be checked against a half-loaded index; a check that still comes early fails. It
+// holds the index's lock throughout, so a change committed meanwhile is applied on top of the replay
+// once it is done rather than being overwritten by the older state the replay read.
+@Component
+public class BookingCalendarIndex implements SmartInitializingSingleton {
+    
+    public static final Set<Rental.RentalStatus> BOOKED_STATUSES =
+            EnumSet.of(Rental.RentalStatus.PENDING, Rental.RentalStatus.CONFIRMED, Rental.RentalStatus.ACTIVE,
+                       Rental.RentalStatus.OVERDUE);
+    
+    private final RentalLedger rentalLedger;
+    
+    private final Map<Long, BookingCalendar> calendars = new ConcurrentHashMap<>();
+    private final Map<Long, RentalSnapshot> bookingsByRental = new HashMap<>();
+    private final Map<UUID, ReservationHold> holdsById = new HashMap<>();
+    private volatile boolean loaded;
+    
+    @Autowired
+    public BookingCalendarIndex(RentalLedger rentalLedger) {
+        this.rentalLedger = rentalLedger;
+    }
+    
+    @Override
+    public synchronized void afterSingletonsInstantiated() {
+        for (RentalSnapshot rental : rentalLedger.replay(booking -> BOOKED_STATUSES.contains(booking.status()))
+                .rentals().values()) {
+            track(rental);
+        }
+        loaded = true;
+    }
+    
+    @TransactionalEventListener
+    public void onRentalChanged(RentalChangedEvent event) {
+        if (event.after() != null) {
+            track(event.after());
+        } else {
+            untrack(event.before().id());
+        }
+    }
+    
+    public int getPeakBookedQuantity(Long equipmentId, LocalDate startDate, LocalDate endDate) {
+        if (!loaded) {
+            throw new IllegalStateException("Booking calendar is still loading, please retry");
+        }
+        BookingCalendar calendar = calendars.get(equipmentId);
+        return calendar == null ? 0 : calendar.getPeak(startDate, endDate);
+    }
+    
+    public synchronized void track(RentalSnapshot rental) {
+        untrack(rental.id());
+        if (BOOKED_STATUSES.contains(rental.status())) {
+            calendars.computeIfAbsent(rental.equipmentId(), id -> new BookingCalendar())
+                    .add(rental.startDate(), rental.endDate(), rental.quantity());
+            bookingsByRental.put(rental.id(), rental);
+        }
+    }
+    
+    public synchronized void untrack(Long rentalId) {
+        RentalSnapshot previous = bookingsByRental.remove(rentalId);
+        if (previous != null) {
+            calendars.get(previous.equipmentId())
+                    .remove(previous.startDate(), previous.endDate(), previous.quantity());
+        }
+    }
+    
+    public synchronized void trackHold(ReservationHold hold) {
+        calendars.computeIfAbsent(hold.equipmentId(), id -> new BookingCalendar())
+                .add(hold.startDate(), hold.endDate(), hold.quantity());
+        holdsById.put(hold.id(), hold);
+    }
+    
+    public synchronized void releaseHold(UUID holdId) {
+        ReservationHold previous = holdsById.remove(holdId);
+        if (previous != null) {
+            calendars.get(previous.equipmentId())
+                    .remove(previous.startDate(), previous.endDate(), previous.quantity());
+        }
+    }
+}
\ No newline at end of file
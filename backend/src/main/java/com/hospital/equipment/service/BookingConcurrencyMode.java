@@ -0,0 +1,17 @@
+package com.hospital.equipment.service;
+
+// How concurrent bookings of the same equipment are kept from overbooking it
+public enum BookingConcurrencyMode {
+    // No coordination; only safe for a single client
+    NONE,
+    // In-process lock per equipment stripe, held until the booking has committed
+    STRIPED,
+    // @Version check on the equipment row, retried a bounded number of times
+    OPTIMISTIC,
+    // SELECT ... FOR UPDATE on the equipment row for the whole booking transaction
+    PESSIMISTIC;
+    
+    public boolean isDatabaseCoordinated() {
+        return this == OPTIMISTIC || this == PESSIMISTIC;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,73 @@
+package com.hospital.equipment.service;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+// Booked units per day for a set of booking intervals, computed with one sweep over
+// their start/end events instead of a query per day
+public class BookingTimeline {
+    
+    private final TreeMap<LocalDate, Integer> deltas = new TreeMap<>();
+    
+    public record Run(LocalDate startDate, LocalDate endDate, int booked) {
+    }
+    
+    // endDate is null for the final stretch, which runs on past the last booking
+    public record Stretch(LocalDate startDate, LocalDate endDate) {
+    }
+    
+    public void add(LocalDate startDate, LocalDate endDate, int quantity) {
+        deltas.merge(startDate, quantity, Integer::sum);
+        deltas.merge(endDate.plusDays(1), -quantity, Integer::sum);
+    }
+    
+    // Maximal runs of consecutive days in [from, to] with the same booked quantity
+    public List<Run> getRuns(LocalDate from, LocalDate to) {
+        int booked = 0;
+        for (int delta : deltas.headMap(from, true).values()) {
+            booked += delta;
+        }
+        
+        List<Run> runs = new ArrayList<>();
+        LocalDate runStart = from;
+        for (Map.Entry<LocalDate, Integer> event : deltas.subMap(from, false, to, true).entrySet()) {
+            int next = booked + event.getValue();
+            if (next != booked) {
+                runs.add(new Run(runStart, event.getKey().minusDays(1), booked));
+                runStart = event.getKey();
+                booked = next;
+            }
+        }
+        runs.add(new Run(runStart, to, booked));
+        return runs;
+    }
+    
+    // Stretches of consecutive days from 'from' onwards on which at most maxBooked units are booked
+    public List<Stretch> getFreeStretches(LocalDate from, int maxBooked) {
+        List<Stretch> stretches = new ArrayList<>();
+        if (maxBooked < 0) {
+            return stretches;
+        }
+        
+        LocalDate horizon = deltas.isEmpty() || !deltas.lastKey().isAfter(from) ? from : deltas.lastKey();
+        LocalDate start = null;
+        LocalDate end = null;
+        for (Run run : getRuns(from, horizon)) {
+            if (run.booked() <= maxBooked) {
+                if (start == null) {
+                    start = run.startDate();
+                }
+                end = run.endDate();
+            } else if (start != null) {
+                stretches.add(new Stretch(start, end));
+                start = null;
+            }
+        }
+        // Nothing is booked after the horizon, so the last stretch never closes
+        stretches.add(new Stretch(start, null));
+        return stretches;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,403 @@
+package com.hospital.equipment.service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.stereotype.Service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.hospital.equipment.dto.ImportResult;
+import com.hospital.equipment.entity.Category;
+import com.hospital.equipment.entity.Customer;
+import com.hospital.equipment.entity.Equipment;
+
+import jakarta.persistence.EntityManager;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+
+// Loads the equipment and customers of a new site from CSV or NDJSON. The body is parsed one row at
+// a time and each row is checked against the entity's own constraints; valid rows are saved through
+// the services in chunks, one transaction and a run of JDBC batches per chunk, so memory use does
+// not grow with the file.
+@Service
+public class BulkImporter {
+    
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final int MAX_REPORTED_ERRORS = 1000;
+    
+    private final EquipmentService equipmentService;
+    private final CustomerService customerService;
+    private final CategoryService categoryService;
+    private final Validator validator;
+    private final ObjectMapper objectMapper;
+    private final EntityManager entityManager;
+    private final int chunkSize;
+    
+    // Columns of an equipment row; the category is given by name
+    record EquipmentRow(String name, String description, String model, String manufacturer, BigDecimal dailyPrice,
+                        Integer totalQuantity, Integer availableQuantity, Equipment.EquipmentStatus status,
+                        String imageUrl, String category) {
+    }
+    
+    record CustomerRow(String firstName, String lastName, String email, String phone, String address, String city,
+                       String state, String zipCode) {
+    }
+    
+    @FunctionalInterface
+    private interface RowMapper<T> {
+        T map(JsonNode row) throws JsonProcessingException;
+    }
+    
+    @Autowired
+    public BulkImporter(EquipmentService equipmentService, CustomerService customerService,
+                        CategoryService categoryService, Validator validator, ObjectMapper objectMapper,
+                        EntityManager entityManager, @Value("${import.chunk-size:500}") int chunkSize) {
+        this.equipmentService = equipmentService;
+        this.customerService = customerService;
+        this.categoryService = categoryService;
+        this.validator = validator;
+        this.objectMapper = objectMapper;
+        this.entityManager = entityManager;
+        this.chunkSize = Math.max(1, chunkSize);
+    }
+    
+    public ImportResult importEquipment(FileFormat format, InputStream in) throws IOException {
+        // Each category name is looked up once per import, however many rows use it
+        Map<String, Optional<Category>> categories = new HashMap<>();
+        Import<Equipment> run = new Import<>(
+                row -> toEquipment(objectMapper.treeToValue(row, EquipmentRow.class), categories),
+                chunk -> Collections.nCopies(chunk.size(), null),
+                equipmentService::createEquipment, equipmentService::createEquipment,
+                equipment -> {
+                    equipment.setId(null);
+                    equipment.setVersion(null);
+                });
+        return run.read(format, in);
+    }
+    
+    public ImportResult importCustomers(FileFormat format, InputStream in) throws IOException {
+        Import<Customer> run = new Import<>(
+                row -> toCustomer(objectMapper.treeToValue(row, CustomerRow.class)),
+                this::findDuplicateEmails, customerService::createCustomers, customerService::createCustomer,
+                customer -> customer.setId(null));
+        return run.read(format, in);
+    }
+    
+    private Equipment toEquipment(EquipmentRow row, Map<String, Optional<Category>> categories) {
+        Equipment equipment = new Equipment();
+        equipment.setName(row.name());
+        equipment.setDescription(row.description());
+        equipment.setModel(row.model());
+        equipment.setManufacturer(row.manufacturer());
+        equipment.setDailyPrice(row.dailyPrice());
+        if (row.totalQuantity() != null) {
+            equipment.setTotalQuantity(row.totalQuantity());
+        }
+        equipment.setAvailableQuantity(row.availableQuantity() != null ? row.availableQuantity()
+                                                                       : equipment.getTotalQuantity());
+        if (row.status() != null) {
+            equipment.setStatus(row.status());
+        }
+        equipment.setImageUrl(row.imageUrl());
+        if (row.category() != null && !row.category().isBlank()) {
+            String name = row.category().trim();
+            equipment.setCategory(categories.computeIfAbsent(name, categoryService::getCategoryByName)
+                    .orElseThrow(() -> new IllegalArgumentException("Category not found: " + name)));
+        }
+        return equipment;
+    }
+    
+    // Emails already on file or repeated within the chunk. Either would make the database turn down
+    // the whole chunk, and a re-run of the same file would then go through row by row.
+    private List<String> findDuplicateEmails(List<Customer> customers) {
+        List<String> emails = customers.stream()
+                .map(customer -> CustomerSearchIndex.normalizeEmail(customer.getEmail()))
+                .toList();
+        Set<String> taken = new HashSet<>(customerService.findExistingEmails(emails));
+        List<String> conflicts = new ArrayList<>(emails.size());
+        for (String email : emails) {
+            conflicts.add(taken.add(email) ? null : "Customer with email '" + email + "' already exists");
+        }
+        return conflicts;
+    }
+    
+    private static Customer toCustomer(CustomerRow row) {
+        Customer customer = new Customer(row.firstName(), row.lastName(), row.email(), row.phone());
+        customer.setAddress(row.address());
+        customer.setCity(row.city());
+        customer.setState(row.state());
+        customer.setZipCode(row.zipCode());
+        return customer;
+    }
+    
+    // One import: counters, reported errors and the rows waiting for the next chunk
+    private final class Import<T> {
+        
+        private final RowMapper<T> mapper;
+        // Rows to turn down before a chunk is saved: a message per entity, null for those that may go in
+        private final Function<List<T>, List<String>> findConflicts;
+        private final Consumer<List<T>> saveChunk;
+        private final Consumer<T> saveOne;
+        // A rolled-back insert leaves its generated id (and version) behind on the entity
+        private final Consumer<T> resetId;
+        
+        private final List<T> pending = new ArrayList<>();
+        private final List<Integer> pendingRows = new ArrayList<>();
+        private final List<ImportResult.Error> errors = new ArrayList<>();
+        private int rows;
+        private int imported;
+        private int failed;
+        
+        Import(RowMapper<T> mapper, Function<List<T>, List<String>> findConflicts, Consumer<List<T>> saveChunk,
+               Consumer<T> saveOne, Consumer<T> resetId) {
+            this.mapper = mapper;
+            this.findConflicts = findConflicts;
+            this.saveChunk = saveChunk;
+            this.saveOne = saveOne;
+            this.resetId = resetId;
+        }
+        
+        ImportResult read(FileFormat format, InputStream in) throws IOException {
+            long started = System.nanoTime();
+            Reader reader = new InputStreamReader(in, StandardCharsets.UTF_8);
+            if (format == FileFormat.CSV) {
+                readCsv(reader);
+            } else {
+                readNdjson(new BufferedReader(reader, BUFFER_SIZE));
+            }
+            flush();
+            
+            long elapsedMillis = (System.nanoTime() - started) / 1_000_000;
+            double rowsPerSecond = Math.round(rows * 10_000.0 / Math.max(1, elapsedMillis)) / 10.0;
+            // Rows rejected by the database are found after later rows failed validation
+            errors.sort(Comparator.comparingInt(ImportResult.Error::row));
+            return new ImportResult(rows, imported, failed, errors, elapsedMillis, rowsPerSecond);
+        }
+        
+        private void readNdjson(BufferedReader reader) throws IOException {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isBlank()) {
+                    continue;
+                }
+                int row = ++rows;
+                JsonNode node;
+                try {
+                    node = objectMapper.readTree(line);
+                } catch (JsonProcessingException e) {
+                    reject(row, "Malformed JSON: " + e.getOriginalMessage());
+                    continue;
+                }
+                if (!node.isObject()) {
+                    reject(row, "Each line must be a JSON object");
+                    continue;
+                }
+                add(row, node);
+            }
+        }
+        
+        // The header names the fields; an empty cell is a missing value
+        private void readCsv(Reader reader) throws IOException {
+            CsvReader csv = new CsvReader(reader);
+            List<String> header = csv.next();
+            if (header == null) {
+                return;
+            }
+            // Spreadsheet exports often start with a byte order mark
+            header.set(0, header.get(0).replace("\uFEFF", ""));
+            header.replaceAll(String::trim);
+            
+            List<String> fields;
+            while ((fields = csv.next()) != null) {
+                if (fields.size() == 1 && fields.get(0).isEmpty() && !csv.unterminated) {
+                    continue;
+                }
+                int row = ++rows;
+                if (csv.unterminated) {
+                    reject(row, "Unterminated quoted field");
+                    continue;
+                }
+                if (fields.size() != header.size()) {
+                    reject(row, "Expected " + header.size() + " fields, found " + fields.size());
+                    continue;
+                }
+                ObjectNode node = objectMapper.createObjectNode();
+                for (int i = 0; i < fields.size(); i++) {
+                    if (fields.get(i).isEmpty()) {
+                        node.putNull(header.get(i));
+                    } else {
+                        node.put(header.get(i), fields.get(i));
+                    }
+                }
+                add(row, node);
+            }
+        }
+        
+        private void add(int row, JsonNode node) {
+            T entity;
+            try {
+                entity = mapper.map(node);
+            } catch (JsonMappingException e) {
+                // The last path element names the field whose value did not fit
+                String field = e.getPath().isEmpty() ? null : e.getPath().get(e.getPath().size() - 1).getFieldName();
+                reject(row, field != null ? "Invalid value for " + field : e.getOriginalMessage());
+                return;
+            } catch (JsonProcessingException | IllegalArgumentException e) {
+                reject(row, e.getMessage());
+                return;
+            }
+            Set<ConstraintViolation<T>> violations = validator.validate(entity);
+            if (!violations.isEmpty()) {
+                reject(row, violations.stream().map(ConstraintViolation::getMessage).sorted()
+                        .collect(Collectors.joining("; ")));
+                return;
+            }
+            pending.add(entity);
+            pendingRows.add(row);
+            if (pending.size() >= chunkSize) {
+                flush();
+            }
+        }
+        
+        private void flush() {
+            if (pending.isEmpty()) {
+                return;
+            }
+            List<String> conflicts = findConflicts.apply(pending);
+            for (int i = pending.size() - 1; i >= 0; i--) {
+                if (conflicts.get(i) != null) {
+                    reject(pendingRows.get(i), conflicts.get(i));
+                    pending.remove(i);
+                    pendingRows.remove(i);
+                }
+            }
+            if (!pending.isEmpty()) {
+                save(0, pending.size());
+            }
+            pending.clear();
+            pendingRows.clear();
+        }
+        
+        // A chunk the database rejects is split in halves until the bad rows stand alone, so one bad
+        // row costs a few extra transactions instead of one per row in the chunk
+        private void save(int from, int to) {
+            List<T> slice = pending.subList(from, to);
+            try {
+                if (slice.size() == 1) {
+                    saveOne.accept(slice.get(0));
+                } else {
+                    saveChunk.accept(slice);
+                }
+                imported += slice.size();
+            } catch (RuntimeException e) {
+                slice.forEach(resetId);
+                if (slice.size() == 1) {
+                    reject(pendingRows.get(from), NestedExceptionUtils.getMostSpecificCause(e).getMessage());
+                } else {
+                    int middle = (from + to) >>> 1;
+                    save(from, middle);
+                    save(middle, to);
+                }
+            } finally {
+                // The request's persistence context would otherwise hold every entity imported so far
+                entityManager.clear();
+            }
+        }
+        
+        private void reject(int row, String message) {
+            if (failed++ < MAX_REPORTED_ERRORS) {
+                errors.add(new ImportResult.Error(row, message));
+            }
+        }
+    }
+    
+    // RFC 4180 records read straight off the stream; quoted fields may hold commas, quotes and line
+    // breaks, and a CR before the LF is dropped
+    private static final class CsvReader {
+        
+        private final Reader in;
+        private final char[] buffer = new char[BUFFER_SIZE];
+        private int position;
+        private int limit;
+        // Set when the input ended inside a quoted field of the last record returned
+        private boolean unterminated;
+        
+        CsvReader(Reader in) {
+            this.in = in;
+        }
+        
+        List<String> next() throws IOException {
+            int c = read();
+            if (c == -1) {
+                return null;
+            }
+            List<String> fields = new ArrayList<>();
+            StringBuilder field = new StringBuilder();
+            boolean quoted = false;
+            while (true) {
+                if (quoted) {
+                    if (c == -1) {
+                        unterminated = true;
+                        break;
+                    }
+                    if (c == '"') {
+                        c = read();
+                        if (c != '"') {
+                            // Closing quote; whatever follows is read as unquoted
+                            quoted = false;
+                            continue;
+                        }
+                    }
+                    field.append((char) c);
+                } else if (c == ',') {
+                    fields.add(field.toString());
+                    field.setLength(0);
+                } else if (c == '\n' || c == -1) {
+                    break;
+                } else if (c == '"' && field.length() == 0) {
+                    quoted = true;
+                } else if (c != '\r') {
+                    field.append((char) c);
+                }
+                c = read();
+            }
+            fields.add(field.toString());
+            return fields;
+        }
+        
+        private int read() throws IOException {
+            if (position == limit) {
+                limit = Math.max(0, in.read(buffer, 0, buffer.length));
+                position = 0;
+                if (limit == 0) {
+                    return -1;
+                }
+            }
+            return buffer[position++];
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,30 @@
+package com.hospital.equipment.service;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.hospital.equipment.event.CatalogChangedEvent;
+
+// Counter bumped on every catalog write; catalog listings use it as their ETag so unchanged
+// lists can be answered with 304 before any query runs.
+@Component
+public class CatalogVersion {
+    
+    // Keeps tags from an earlier run of the application from matching this one
+    private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+    private final AtomicLong version = new AtomicLong();
+    
+    // AFTER_COMPLETION runs after the cache evictions, which happen on commit; bumping earlier
+    // would let a reader tag the old cached list with the new version
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMPLETION)
+    public void onCatalogChanged(CatalogChangedEvent event) {
+        version.incrementAndGet();
+    }
+    
+    public String getETag() {
+        return "\"" + epoch + "-" + version.get() + "\"";
+    }
+}
\ No newline at end of file
@@ -2,33 +2,67 @@ package com.hospital.equipment.service;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import com.hospital.equipment.config.CacheConfig;
+import com.hospital.equipment.dto.CategoryView;
+import com.hospital.equipment.dto.CursorPage;
+import com.hospital.equipment.dto.PageQuery;
 import com.hospital.equipment.entity.Category;
+import com.hospital.equipment.event.CatalogChangedEvent;
 import com.hospital.equipment.repository.CategoryRepository;
 
 @Service
 @Transactional
 public class CategoryService {
     
+    private static final Set<String> SORTABLE = Set.of("name");
+    
+    static final Projection<Category, CategoryView> VIEW = new Projection<>(Category.class, CategoryView.class,
+            root -> List.of(root.get("id"), root.get("name"), root.get("description")));
+    
     private final CategoryRepository categoryRepository;
+    private final ProjectionQueries projectionQueries;
+    private final ApplicationEventPublisher eventPublisher;
     
     @Autowired
-    public CategoryService(CategoryRepository categoryRepository) {
+    public CategoryService(CategoryRepository categoryRepository, ProjectionQueries projectionQueries,
+                           ApplicationEventPublisher eventPublisher) {
         this.categoryRepository = categoryRepository;
+        this.projectionQueries = projectionQueries;
+        this.eventPublisher = eventPublisher;
     }
     
     public List<Category> getAllCategories() {
         return categoryRepository.findAll();
     }
     
+    @Cacheable(cacheNames = CacheConfig.CATEGORY_CACHE, key = "'all'")
+    public List<CategoryView> getAllCategoryViews() {
+        return projectionQueries.list(VIEW, null);
+    }
+    
+    @Transactional(readOnly = true)
+    public CursorPage<CategoryView> getCategoryPage(PageQuery page) {
+        return projectionQueries.page(VIEW, null, page, SORTABLE);
+    }
+    
     public Optional<Category> getCategoryById(Long id) {
         return categoryRepository.findById(id);
     }
     
+    @Transactional(readOnly = true)
+    public Optional<CategoryView> getCategoryView(Long id) {
+        return projectionQueries.findOne(VIEW, (root, query, cb) -> cb.equal(root.get("id"), id));
+    }
+    
     public Optional<Category> getCategoryByIdWithEquipment(Long id) {
         return categoryRepository.findByIdWithEquipment(id);
     }
@@ -37,13 +71,17 @@ public class CategoryService {
         return categoryRepository.findByName(name);
     }
     
+    @CacheEvict(cacheNames = CacheConfig.CATEGORY_CACHE, allEntries = true)
     public Category createCategory(Category category) {
         if (categoryRepository.existsByName(category.getName())) {
             throw new IllegalArgumentException("Category with name '" + category.getName() + "' already exists");
         }
-        return categoryRepository.save(category);
+        Category savedCategory = categoryRepository.save(category);
+        eventPublisher.publishEvent(CatalogChangedEvent.category(savedCategory.getId()));
+        return savedCategory;
     }
     
+    @CacheEvict(cacheNames = CacheConfig.CATEGORY_CACHE, allEntries = true)
     public Category updateCategory(Long id, Category categoryDetails) {
         Category category = categoryRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Category not found with id: " + id));
@@ -57,9 +95,12 @@ public class CategoryService {
         category.setName(categoryDetails.getName());
         category.setDescription(categoryDetails.getDescription());
         
-        return categoryRepository.save(category);
+        Category savedCategory = categoryRepository.save(category);
+        eventPublisher.publishEvent(CatalogChangedEvent.category(id));
+        return savedCategory;
     }
     
+    @CacheEvict(cacheNames = CacheConfig.CATEGORY_CACHE, allEntries = true)
     public void deleteCategory(Long id) {
         Category category = categoryRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Category not found with id: " + id));
@@ -70,6 +111,7 @@ public class CategoryService {
         }
         
         categoryRepository.delete(category);
+        eventPublisher.publishEvent(CatalogChangedEvent.category(id));
     }
     
     public boolean existsByName(String name) {
@@ -0,0 +1,277 @@
+package com.hospital.equipment.service;
+
+import java.text.Normalizer;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import jakarta.annotation.PreDestroy;
+
+import com.hospital.equipment.dto.CustomerView;
+import com.hospital.equipment.event.CustomerChangedEvent;
+import com.hospital.equipment.repository.CustomerSpecifications;
+
+// Trigram index over customer names and emails for the front-desk search. Names and emails are
+// normalized (lower case, accents stripped) and cut into overlapping three-letter grams, padded at
+// the word start as in pg_trgm. A customer is a hit when it shares enough of the query's grams, so
+// substrings and small misspellings both match; exact substrings rank above fuzzy hits.
+//
+// Built before the web server starts and guarded the same way as EquipmentSearchIndex.
+@Component
+public class CustomerSearchIndex implements SmartInitializingSingleton {
+    
+    // Share of the query's trigrams a customer must have to count as a fuzzy match
+    private static final double MIN_COVERAGE = 0.4;
+    
+    private final ProjectionQueries projectionQueries;
+    private final TransactionTemplate transactionTemplate;
+    private final ExecutorService refresher = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "customer-index-refresh");
+        thread.setDaemon(true);
+        return thread;
+    });
+    
+    // Customers live in dense slots so postings and per-query counters are plain int arrays
+    private final Map<String, Postings> postings = new HashMap<>();
+    private final Map<Long, Integer> slotsById = new HashMap<>();
+    private final Map<String, Long> idsByEmail = new HashMap<>();
+    private final ArrayDeque<Integer> freeSlots = new ArrayDeque<>();
+    private Entry[] entries = new Entry[64];
+    private int[] counts = new int[64];
+    private int slotCount;
+    private volatile boolean loaded;
+    
+    private record Entry(Long id, String name, String email, String[] trigrams) {
+    }
+    
+    private static final class Postings {
+        
+        private int[] slots = new int[4];
+        private int size;
+        
+        void add(int slot) {
+            if (size == slots.length) {
+                slots = Arrays.copyOf(slots, size * 2);
+            }
+            slots[size++] = slot;
+        }
+        
+        // Order within a posting list does not matter, so the last slot fills the gap
+        void remove(int slot) {
+            for (int i = 0; i < size; i++) {
+                if (slots[i] == slot) {
+                    slots[i] = slots[--size];
+                    return;
+                }
+            }
+        }
+    }
+    
+    @Autowired
+    public CustomerSearchIndex(ProjectionQueries projectionQueries, PlatformTransactionManager transactionManager) {
+        this.projectionQueries = projectionQueries;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+    }
+    
+    @Override
+    public synchronized void afterSingletonsInstantiated() {
+        transactionTemplate.executeWithoutResult(status -> load(projectionQueries.list(CustomerService.VIEW, null)));
+    }
+    
+    synchronized void load(List<CustomerView> customers) {
+        customers.forEach(this::index);
+        loaded = true;
+    }
+    
+    // Runs after commit; re-reads on the refresh thread for the same reason as EquipmentSearchIndex.
+    // Duplicate emails are checked against the table, so they do not depend on the index being current.
+    @TransactionalEventListener
+    public void onCustomerChanged(CustomerChangedEvent event) {
+        refresher.execute(() -> transactionTemplate.executeWithoutResult(status -> refresh(event)));
+    }
+    
+    @PreDestroy
+    public void stop() {
+        refresher.shutdownNow();
+    }
+    
+    private void refresh(CustomerChangedEvent event) {
+        // Ids the re-read no longer finds were deleted
+        Set<Long> missing = new HashSet<>(event.customerIds());
+        for (CustomerView customer
+                : projectionQueries.list(CustomerService.VIEW, CustomerSpecifications.idIn(event.customerIds()))) {
+            index(customer);
+            missing.remove(customer.id());
+        }
+        missing.forEach(this::remove);
+    }
+    
+    public synchronized Optional<Long> findIdByEmail(String email) {
+        checkLoaded();
+        return Optional.ofNullable(idsByEmail.get(normalizeEmail(email)));
+    }
+    
+    // Ids of the best `limit` matches, most relevant first
+    public synchronized List<Long> search(String query, int limit) {
+        checkLoaded();
+        String normalized = normalize(query);
+        Set<String> queryTrigrams = new LinkedHashSet<>();
+        for (String word : normalized.split(" ")) {
+            if (!word.isEmpty()) {
+                addTrigrams(queryTrigrams, "  " + word);
+            }
+        }
+        if (queryTrigrams.isEmpty() || limit < 1) {
+            return List.of();
+        }
+        
+        int[] touched = new int[16];
+        int touchedCount = 0;
+        for (String trigram : queryTrigrams) {
+            Postings list = postings.get(trigram);
+            if (list == null) {
+                continue;
+            }
+            for (int i = 0; i < list.size; i++) {
+                int slot = list.slots[i];
+                if (counts[slot]++ == 0) {
+                    if (touchedCount == touched.length) {
+                        touched = Arrays.copyOf(touched, touchedCount * 2);
+                    }
+                    touched[touchedCount++] = slot;
+                }
+            }
+        }
+        
+        // Min-heap of the best `limit` hits; ties go to the lower id so results are stable
+        PriorityQueue<Hit> best = new PriorityQueue<>();
+        int queryCount = queryTrigrams.size();
+        int minShared = (int) Math.ceil(MIN_COVERAGE * queryCount);
+        // A substring match has every interior gram of the query; only the word-start ones can be missing
+        int wordStarts = 2 * normalized.split(" +").length;
+        for (int i = 0; i < touchedCount; i++) {
+            int slot = touched[i];
+            int shared = counts[slot];
+            counts[slot] = 0;
+            Entry customer = entries[slot];
+            boolean substring = shared + wordStarts >= queryCount
+                    && (customer.name().contains(normalized) || customer.email().contains(normalized));
+            if (!substring && shared < minShared) {
+                continue;
+            }
+            // Among equally good matches, the customer with fewer grams is the closer one
+            double score = (substring ? 2 : 0) + (double) shared / queryCount
+                    + (double) shared / (queryCount + customer.trigrams().length);
+            Hit hit = new Hit(customer.id(), score);
+            if (best.size() < limit) {
+                best.add(hit);
+            } else if (best.peek().compareTo(hit) < 0) {
+                best.poll();
+                best.add(hit);
+            }
+        }
+        List<Long> ids = new ArrayList<>(best.size());
+        while (!best.isEmpty()) {
+            ids.add(best.poll().id());
+        }
+        Collections.reverse(ids);
+        return ids;
+    }
+    
+    private record Hit(Long id, double score) implements Comparable<Hit> {
+        
+        @Override
+        public int compareTo(Hit other) {
+            return score == other.score ? Long.compare(other.id, id) : Double.compare(score, other.score);
+        }
+    }
+    
+    private void checkLoaded() {
+        if (!loaded) {
+            throw new IllegalStateException("Customer search is still loading, please retry");
+        }
+    }
+    
+    public synchronized void index(CustomerView customer) {
+        remove(customer.id());
+        String name = normalize(customer.firstName() + " " + customer.lastName());
+        String email = normalizeEmail(customer.email());
+        Set<String> trigrams = new HashSet<>();
+        for (String word : name.split(" ")) {
+            if (!word.isEmpty()) {
+                addTrigrams(trigrams, "  " + word + " ");
+            }
+        }
+        addTrigrams(trigrams, "  " + email + " ");
+        
+        int slot = freeSlots.isEmpty() ? slotCount++ : freeSlots.pop();
+        if (slot == entries.length) {
+            entries = Arrays.copyOf(entries, slot * 2);
+            counts = Arrays.copyOf(counts, slot * 2);
+        }
+        for (String trigram : trigrams) {
+            postings.computeIfAbsent(trigram, key -> new Postings()).add(slot);
+        }
+        entries[slot] = new Entry(customer.id(), name, email, trigrams.toArray(new String[0]));
+        slotsById.put(customer.id(), slot);
+        idsByEmail.put(email, customer.id());
+    }
+    
+    public synchronized void remove(Long customerId) {
+        Integer slot = slotsById.remove(customerId);
+        if (slot == null) {
+            return;
+        }
+        Entry customer = entries[slot];
+        for (String trigram : customer.trigrams()) {
+            Postings list = postings.get(trigram);
+            list.remove(slot);
+            if (list.size == 0) {
+                postings.remove(trigram);
+            }
+        }
+        idsByEmail.remove(customer.email(), customerId);
+        entries[slot] = null;
+        freeSlots.push(slot);
+    }
+    
+    private static void addTrigrams(Set<String> trigrams, String padded) {
+        for (int i = 0; i + 3 <= padded.length(); i++) {
+            trigrams.add(padded.substring(i, i + 3));
+        }
+    }
+    
+    public static String normalizeEmail(String email) {
+        return email == null ? "" : email.trim().toLowerCase(Locale.ROOT);
+    }
+    
+    // Lower case without accents, with runs of anything but letters, digits and email punctuation
+    // collapsed to a single space
+    static String normalize(String text) {
+        if (text == null) {
+            return "";
+        }
+        String stripped = Normalizer.normalize(text, Normalizer.Form.NFD).replaceAll("\\p{M}", "");
+        return stripped.toLowerCase(Locale.ROOT).replaceAll("[^\\p{L}\\p{N}@.+_-]+", " ").trim();
+    }
+}
\ No newline at end of file
@@ -1,56 +1,133 @@
 package com.hospital.equipment.service;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import com.hospital.equipment.dto.CursorPage;
+import com.hospital.equipment.dto.CustomerView;
+import com.hospital.equipment.dto.PageQuery;
 import com.hospital.equipment.entity.Customer;
+import com.hospital.equipment.event.CustomerChangedEvent;
 import com.hospital.equipment.repository.CustomerRepository;
+import com.hospital.equipment.repository.CustomerSpecifications;
 
 @Service
 @Transactional
 public class CustomerService {
     
+    private static final Set<String> SORTABLE = Set.of("lastName", "email");
+    
+    static final Projection<Customer, CustomerView> VIEW = new Projection<>(Customer.class, CustomerView.class,
+            root -> List.of(root.get("id"), root.get("firstName"), root.get("lastName"), root.get("email"),
+                    root.get("phone"), root.get("address"), root.get("city"), root.get("state"),
+                    root.get("zipCode")));
+    
     private final CustomerRepository customerRepository;
+    private final ProjectionQueries projectionQueries;
+    private final CustomerSearchIndex searchIndex;
+    private final ApplicationEventPublisher eventPublisher;
     
     @Autowired
-    public CustomerService(CustomerRepository customerRepository) {
+    public CustomerService(CustomerRepository customerRepository, ProjectionQueries projectionQueries,
+                           CustomerSearchIndex searchIndex, ApplicationEventPublisher eventPublisher) {
         this.customerRepository = customerRepository;
+        this.projectionQueries = projectionQueries;
+        this.searchIndex = searchIndex;
+        this.eventPublisher = eventPublisher;
     }
     
     public List<Customer> getAllCustomers() {
         return customerRepository.findAll();
     }
     
+    @Transactional(readOnly = true)
+    public List<CustomerView> getCustomerViews(Specification<Customer> filter) {
+        return projectionQueries.list(VIEW, filter);
+    }
+    
+    @Transactional(readOnly = true)
+    public CursorPage<CustomerView> getCustomerPage(Specification<Customer> filter, PageQuery page) {
+        return projectionQueries.page(VIEW, filter, page, SORTABLE);
+    }
+    
+    @Transactional(readOnly = true)
+    public Optional<CustomerView> getCustomerView(Long id) {
+        return projectionQueries.findOne(VIEW, CustomerSpecifications.withId(id));
+    }
+    
+    @Transactional(readOnly = true)
+    public Optional<CustomerView> getCustomerViewByEmail(String email) {
+        return searchIndex.findIdByEmail(email).flatMap(this::getCustomerView);
+    }
+    
     public Optional<Customer> getCustomerById(Long id) {
         return customerRepository.findById(id);
     }
     
+    public List<Customer> getCustomersByIds(Collection<Long> ids) {
+        return customerRepository.findAllById(ids);
+    }
+    
     public Optional<Customer> getCustomerByIdWithRentals(Long id) {
         return customerRepository.findByIdWithRentals(id);
     }
     
     public Optional<Customer> getCustomerByEmail(String email) {
-        return customerRepository.findByEmail(email);
+        return customerRepository.findByEmail(CustomerSearchIndex.normalizeEmail(email));
     }
     
-    public List<Customer> searchCustomersByName(String name) {
-        return customerRepository.searchByName(name);
+    // Substring and fuzzy matches on name or email, best first; only the view lookup touches the database
+    @Transactional(readOnly = true)
+    public List<CustomerView> searchCustomers(String query) {
+        return projectionQueries.listRanked(VIEW, searchIndex.search(query, Integer.MAX_VALUE));
+    }
+    
+    @Transactional(readOnly = true)
+    public CursorPage<CustomerView> searchCustomerPage(String query, PageQuery page) {
+        if (page.sort() == null) {
+            return projectionQueries.pageRanked(VIEW, limit -> searchIndex.search(query, limit), page);
+        }
+        // An explicit sort pages through all the hits in that order instead
+        return projectionQueries.page(VIEW, CustomerSpecifications.idIn(searchIndex.search(query, Integer.MAX_VALUE)), page,
+                SORTABLE);
     }
     
     public Customer createCustomer(Customer customer) {
+        // Emails are stored normalized so lookups and the uniqueness check ignore case
+        customer.setEmail(CustomerSearchIndex.normalizeEmail(customer.getEmail()));
         if (customerRepository.existsByEmail(customer.getEmail())) {
             throw new IllegalArgumentException("Customer with email '" + customer.getEmail() + "' already exists");
         }
-        return customerRepository.save(customer);
+        Customer savedCustomer = customerRepository.save(customer);
+        eventPublisher.publishEvent(new CustomerChangedEvent(savedCustomer.getId()));
+        return savedCustomer;
+    }
+    
+    // Bulk counterpart for imports: one existence query and batched inserts for the lot. A clash
+    // inside the list itself is left to the unique constraint on email.
+    public List<Customer> createCustomers(List<Customer> customers) {
+        customers.forEach(customer -> customer.setEmail(CustomerSearchIndex.normalizeEmail(customer.getEmail())));
+        List<String> existing = customerRepository.findExistingEmails(customers.stream().map(Customer::getEmail).toList());
+        if (!existing.isEmpty()) {
+            throw new IllegalArgumentException("Customer with email '" + existing.get(0) + "' already exists");
+        }
+        List<Customer> savedCustomers = customerRepository.saveAll(customers);
+        eventPublisher.publishEvent(new CustomerChangedEvent(savedCustomers.stream().map(Customer::getId).toList()));
+        return savedCustomers;
     }
     
     public Customer updateCustomer(Long id, Customer customerDetails) {
         Customer customer = customerRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Customer not found with id: " + id));
+        customerDetails.setEmail(CustomerSearchIndex.normalizeEmail(customerDetails.getEmail()));
         
         // Check if email is being changed and if it already exists
         if (!customer.getEmail().equals(customerDetails.getEmail()) && 
@@ -67,7 +144,9 @@ public class CustomerService {
         customer.setState(customerDetails.getState());
         customer.setZipCode(customerDetails.getZipCode());
         
-        return customerRepository.save(customer);
+        Customer savedCustomer = customerRepository.save(customer);
+        eventPublisher.publishEvent(new CustomerChangedEvent(id));
+        return savedCustomer;
     }
     
     public void deleteCustomer(Long id) {
@@ -83,9 +162,15 @@ public class CustomerService {
         }
         
         customerRepository.delete(customer);
+        eventPublisher.publishEvent(new CustomerChangedEvent(id));
+    }
+    
+    // Which of the given (normalized) emails are already on file, in one query
+    public List<String> findExistingEmails(Collection<String> emails) {
+        return customerRepository.findExistingEmails(emails);
     }
     
     public boolean existsByEmail(String email) {
-        return customerRepository.existsByEmail(email);
+        return customerRepository.existsByEmail(CustomerSearchIndex.normalizeEmail(email));
     }
 }
\ No newline at end of file
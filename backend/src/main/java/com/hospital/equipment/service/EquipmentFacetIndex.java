@@ -0,0 +1,354 @@
+package com.hospital.equipment.service;
+
+import java.math.BigDecimal;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import jakarta.annotation.PreDestroy;
+
+import com.hospital.equipment.dto.EquipmentQuery;
+import com.hospital.equipment.dto.EquipmentView;
+import com.hospital.equipment.dto.FacetCount;
+import com.hospital.equipment.entity.Equipment;
+import com.hospital.equipment.event.CatalogChangedEvent;
+import com.hospital.equipment.repository.EquipmentRepository;
+import com.hospital.equipment.repository.EquipmentSpecifications;
+
+// Bitmaps over the equipment catalog for /api/equipment/query. Every item has a dense slot, and
+// there is one bitmap per category, status and price range plus one for "in stock now", so a
+// combination of filters is an AND of bitmaps and a facet count is the cardinality of one more.
+// Only the keyword (from EquipmentSearchIndex) and the booking period (from the booking
+// calendars) are evaluated per item, and only for items the bitmaps left in.
+//
+// Built before the web server starts and guarded the same way as EquipmentSearchIndex.
+@Component
+public class EquipmentFacetIndex implements SmartInitializingSingleton {
+    
+    // Lower bounds of the price ranges; each range runs up to the next bound, exclusive
+    private static final BigDecimal[] PRICE_BOUNDS = {
+            BigDecimal.ZERO, BigDecimal.valueOf(10), BigDecimal.valueOf(25), BigDecimal.valueOf(50),
+            BigDecimal.valueOf(100)};
+    
+    private final ProjectionQueries projectionQueries;
+    private final BookingCalendarIndex bookingCalendarIndex;
+    private final EquipmentRepository equipmentRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ExecutorService refresher = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "facet-index-refresh");
+        thread.setDaemon(true);
+        return thread;
+    });
+    
+    private final Map<Long, Integer> slotsById = new HashMap<>();
+    private final ArrayDeque<Integer> freeSlots = new ArrayDeque<>();
+    private Item[] items = new Item[64];
+    private int slotCount;
+    
+    private final BitSet live = new BitSet();
+    private final BitSet inStock = new BitSet();
+    private final Map<Long, BitSet> byCategory = new HashMap<>();
+    private final Map<Long, String> categoryNames = new HashMap<>();
+    private final Map<Equipment.EquipmentStatus, BitSet> byStatus = new EnumMap<>(Equipment.EquipmentStatus.class);
+    private final BitSet[] byPriceRange = new BitSet[PRICE_BOUNDS.length];
+    private volatile boolean loaded;
+    
+    private record Item(Long id, Long categoryId, Equipment.EquipmentStatus status, BigDecimal dailyPrice,
+                        int totalQuantity, int priceRange) {
+    }
+    
+    // Matching ids in id order, with the facet counts for the same filters
+    public record Match(List<Long> ids, List<FacetCount> categories, List<FacetCount> priceRanges) {
+    }
+    
+    @Autowired
+    public EquipmentFacetIndex(ProjectionQueries projectionQueries, BookingCalendarIndex bookingCalendarIndex,
+                               EquipmentRepository equipmentRepository,
+                               PlatformTransactionManager transactionManager) {
+        this.projectionQueries = projectionQueries;
+        this.bookingCalendarIndex = bookingCalendarIndex;
+        this.equipmentRepository = equipmentRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        for (Equipment.EquipmentStatus status : Equipment.EquipmentStatus.values()) {
+            byStatus.put(status, new BitSet());
+        }
+        for (int i = 0; i < byPriceRange.length; i++) {
+            byPriceRange[i] = new BitSet();
+        }
+    }
+    
+    @Override
+    public synchronized void afterSingletonsInstantiated() {
+        transactionTemplate.executeWithoutResult(status -> load(projectionQueries.list(EquipmentService.VIEW, null)));
+    }
+    
+    synchronized void load(List<EquipmentView> catalog) {
+        catalog.forEach(this::index);
+        loaded = true;
+    }
+    
+    // Runs after commit; re-reads on the refresh thread for the same reason as EquipmentSearchIndex
+    @TransactionalEventListener
+    public void onCatalogChanged(CatalogChangedEvent event) {
+        refresher.execute(() -> transactionTemplate.executeWithoutResult(status -> refresh(event)));
+    }
+    
+    @PreDestroy
+    public void stop() {
+        refresher.shutdownNow();
+    }
+    
+    private void refresh(CatalogChangedEvent event) {
+        if (event.equipmentIds() != null) {
+            // Ids the re-read no longer finds were deleted
+            Set<Long> missing = new HashSet<>(event.equipmentIds());
+            for (EquipmentView equipment
+                    : projectionQueries.list(EquipmentService.VIEW, EquipmentSpecifications.idIn(event.equipmentIds()))) {
+                index(equipment);
+                missing.remove(equipment.id());
+            }
+            missing.forEach(this::remove);
+        } else {
+            // Only the category name can have changed; items keep their slots
+            projectionQueries.list(EquipmentService.VIEW, EquipmentSpecifications.inCategory(event.categoryId()))
+                    .forEach(this::index);
+        }
+    }
+    
+    // Compares the bitmaps with a GROUP BY over the table and rebuilds them when the counts differ.
+    // A write committing during the check can cause a needless rebuild, never a wrong one: the rebuild
+    // runs on the refresh thread, after the refreshes already queued and before those of later commits,
+    // so it never overwrites a refresh with rows read before it.
+    public void verify() {
+        Map<Equipment.EquipmentStatus, Integer> statusCounts = new EnumMap<>(Equipment.EquipmentStatus.class);
+        for (Equipment.EquipmentStatus status : Equipment.EquipmentStatus.values()) {
+            statusCounts.put(status, 0);
+        }
+        for (Object[] row : equipmentRepository.countByStatus()) {
+            statusCounts.put((Equipment.EquipmentStatus) row[0], ((Long) row[1]).intValue());
+        }
+        Map<Long, Integer> categoryCounts = new HashMap<>();
+        for (Object[] row : equipmentRepository.countByCategory()) {
+            categoryCounts.put((Long) row[0], ((Long) row[1]).intValue());
+        }
+        boolean matches;
+        synchronized (this) {
+            Map<Long, Integer> indexedCategories = new HashMap<>();
+            byCategory.forEach((categoryId, slots) -> indexedCategories.put(categoryId, slots.cardinality()));
+            matches = statusCounts.equals(countByStatus()) && categoryCounts.equals(indexedCategories);
+        }
+        if (!matches) {
+            refresher.execute(() -> transactionTemplate.executeWithoutResult(status -> rebuild()));
+        }
+    }
+    
+    private void rebuild() {
+        List<EquipmentView> all = projectionQueries.list(EquipmentService.VIEW, null);
+        synchronized (this) {
+            slotsById.clear();
+            freeSlots.clear();
+            Arrays.fill(items, null);
+            slotCount = 0;
+            live.clear();
+            inStock.clear();
+            byCategory.clear();
+            categoryNames.clear();
+            byStatus.values().forEach(BitSet::clear);
+            for (BitSet slots : byPriceRange) {
+                slots.clear();
+            }
+            all.forEach(this::index);
+        }
+    }
+    
+    public synchronized Map<Equipment.EquipmentStatus, Integer> countByStatus() {
+        checkLoaded();
+        Map<Equipment.EquipmentStatus, Integer> counts = new EnumMap<>(Equipment.EquipmentStatus.class);
+        byStatus.forEach((status, slots) -> counts.put(status, slots.cardinality()));
+        return counts;
+    }
+    
+    // Items per category, sorted by category name
+    public synchronized List<FacetCount> countByCategory() {
+        checkLoaded();
+        return categoryFacets(live);
+    }
+    
+    // keywordHits is null when there is no keyword filter
+    public synchronized Match query(EquipmentQuery query, Collection<Long> keywordHits) {
+        checkLoaded();
+        BitSet base = (BitSet) live.clone();
+        if (keywordHits != null) {
+            BitSet hits = new BitSet();
+            for (Long id : keywordHits) {
+                Integer slot = slotsById.get(id);
+                if (slot != null) {
+                    hits.set(slot);
+                }
+            }
+            base.and(hits);
+        }
+        if (query.status() != null) {
+            base.and(byStatus.get(query.status()));
+        }
+        if (Boolean.TRUE.equals(query.available())) {
+            base.and(inStock);
+        }
+        if (query.hasPeriod()) {
+            // Bookable for the period means AVAILABLE status and enough units free on its busiest day
+            base.and(byStatus.get(Equipment.EquipmentStatus.AVAILABLE));
+            int quantity = query.quantity() == null ? 1 : query.quantity();
+            for (int slot = base.nextSetBit(0); slot >= 0; slot = base.nextSetBit(slot + 1)) {
+                Item item = items[slot];
+                int booked = bookingCalendarIndex.getPeakBookedQuantity(item.id(), query.startDate(), query.endDate());
+                if (item.totalQuantity() - booked < quantity) {
+                    base.clear(slot);
+                }
+            }
+        }
+        
+        BitSet inCategories = null;
+        if (query.categoryId() != null && !query.categoryId().isEmpty()) {
+            inCategories = new BitSet();
+            for (Long categoryId : query.categoryId()) {
+                BitSet category = byCategory.get(categoryId);
+                if (category != null) {
+                    inCategories.or(category);
+                }
+            }
+        }
+        BitSet inPriceRange = null;
+        if (query.minPrice() != null || query.maxPrice() != null) {
+            inPriceRange = new BitSet();
+            for (int slot = base.nextSetBit(0); slot >= 0; slot = base.nextSetBit(slot + 1)) {
+                BigDecimal price = items[slot].dailyPrice();
+                if ((query.minPrice() == null || price.compareTo(query.minPrice()) >= 0)
+                        && (query.maxPrice() == null || price.compareTo(query.maxPrice()) <= 0)) {
+                    inPriceRange.set(slot);
+                }
+            }
+        }
+        
+        // Each facet leaves out its own filter
+        BitSet forCategoryFacet = and(base, inPriceRange);
+        BitSet forPriceFacet = and(base, inCategories);
+        BitSet matches = and(forCategoryFacet, inCategories);
+        
+        List<FacetCount> priceRanges = new ArrayList<>(PRICE_BOUNDS.length);
+        for (int i = 0; i < PRICE_BOUNDS.length; i++) {
+            String label = i + 1 < PRICE_BOUNDS.length
+                    ? PRICE_BOUNDS[i].toPlainString() + "-" + PRICE_BOUNDS[i + 1].toPlainString()
+                    : PRICE_BOUNDS[i].toPlainString() + "+";
+            priceRanges.add(new FacetCount(label, label, and(forPriceFacet, byPriceRange[i]).cardinality()));
+        }
+        
+        List<Long> ids = new ArrayList<>(matches.cardinality());
+        for (int slot = matches.nextSetBit(0); slot >= 0; slot = matches.nextSetBit(slot + 1)) {
+            ids.add(items[slot].id());
+        }
+        ids.sort(null);
+        return new Match(ids, categoryFacets(forCategoryFacet), priceRanges);
+    }
+    
+    // Sorted by name; items without a category are not a facet value
+    private List<FacetCount> categoryFacets(BitSet within) {
+        Map<String, FacetCount> categories = new TreeMap<>();
+        for (Map.Entry<Long, BitSet> category : byCategory.entrySet()) {
+            int count = and(within, category.getValue()).cardinality();
+            String name = categoryNames.get(category.getKey());
+            categories.put(name + "\u0000" + category.getKey(),
+                    new FacetCount(String.valueOf(category.getKey()), name, count));
+        }
+        return new ArrayList<>(categories.values());
+    }
+    
+    private void checkLoaded() {
+        if (!loaded) {
+            throw new IllegalStateException("Equipment catalog is still loading, please retry");
+        }
+    }
+    
+    public synchronized void index(EquipmentView equipment) {
+        remove(equipment.id());
+        int slot = freeSlots.isEmpty() ? slotCount++ : freeSlots.pop();
+        if (slot == items.length) {
+            items = Arrays.copyOf(items, slot * 2);
+        }
+        Long categoryId = equipment.category() == null ? null : equipment.category().id();
+        BigDecimal price = equipment.dailyPrice() == null ? BigDecimal.ZERO : equipment.dailyPrice();
+        int priceRange = 0;
+        while (priceRange + 1 < PRICE_BOUNDS.length && price.compareTo(PRICE_BOUNDS[priceRange + 1]) >= 0) {
+            priceRange++;
+        }
+        Item item = new Item(equipment.id(), categoryId, equipment.status(), price,
+                equipment.totalQuantity() == null ? 0 : equipment.totalQuantity(), priceRange);
+        
+        items[slot] = item;
+        slotsById.put(item.id(), slot);
+        live.set(slot);
+        if (item.status() == Equipment.EquipmentStatus.AVAILABLE
+                && equipment.availableQuantity() != null && equipment.availableQuantity() > 0) {
+            inStock.set(slot);
+        }
+        if (categoryId != null) {
+            byCategory.computeIfAbsent(categoryId, key -> new BitSet()).set(slot);
+            categoryNames.put(categoryId, equipment.category().name());
+        }
+        if (item.status() != null) {
+            byStatus.get(item.status()).set(slot);
+        }
+        byPriceRange[priceRange].set(slot);
+    }
+    
+    public synchronized void remove(Long equipmentId) {
+        Integer slot = slotsById.remove(equipmentId);
+        if (slot == null) {
+            return;
+        }
+        Item item = items[slot];
+        live.clear(slot);
+        inStock.clear(slot);
+        if (item.categoryId() != null) {
+            BitSet category = byCategory.get(item.categoryId());
+            category.clear(slot);
+            if (category.isEmpty()) {
+                byCategory.remove(item.categoryId());
+                categoryNames.remove(item.categoryId());
+            }
+        }
+        if (item.status() != null) {
+            byStatus.get(item.status()).clear(slot);
+        }
+        byPriceRange[item.priceRange()].clear(slot);
+        items[slot] = null;
+        freeSlots.push(slot);
+    }
+    
+    private static BitSet and(BitSet a, BitSet b) {
+        if (b == null) {
+            return a;
+        }
+        BitSet result = (BitSet) a.clone();
+        result.and(b);
+        return result;
+    }
+}
\ No newline at end of file
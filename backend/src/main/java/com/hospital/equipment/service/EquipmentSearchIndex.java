@@ -0,0 +1,220 @@
+package com.hospital.equipment.service;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import jakarta.annotation.PreDestroy;
+
+import com.hospital.equipment.dto.EquipmentView;
+import com.hospital.equipment.event.CatalogChangedEvent;
+import com.hospital.equipment.repository.EquipmentSpecifications;
+
+// Inverted index over the equipment catalog behind /api/equipment/search. Each term maps to its
+// postings (equipment id -> field-weighted term frequency). Query terms match indexed terms by
+// prefix so a half-typed word already finds something, every query term has to match, and hits
+// are ranked by tf-idf with a length norm.
+//
+// The index is built once all singletons exist, before the web server starts, so no search answers
+// from a half-built index; one that still comes early fails. The build holds the index's lock, so a
+// refresh committed meanwhile is applied on top of it.
+@Component
+public class EquipmentSearchIndex implements SmartInitializingSingleton {
+    
+    private static final float NAME_WEIGHT = 3f;
+    private static final float MODEL_WEIGHT = 2f;
+    private static final float MANUFACTURER_WEIGHT = 2f;
+    private static final float CATEGORY_WEIGHT = 1.5f;
+    private static final float DESCRIPTION_WEIGHT = 1f;
+    
+    // A term that only shares a prefix with the query counts for less than the whole word
+    private static final float PREFIX_FACTOR = 0.5f;
+    
+    private final ProjectionQueries projectionQueries;
+    private final TransactionTemplate transactionTemplate;
+    private final ExecutorService refresher = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "search-index-refresh");
+        thread.setDaemon(true);
+        return thread;
+    });
+    
+    private final TreeMap<String, Map<Long, Float>> postings = new TreeMap<>();
+    private final Map<Long, Map<String, Float>> documents = new HashMap<>();
+    private final Map<Long, Float> norms = new HashMap<>();
+    private volatile boolean loaded;
+    
+    @Autowired
+    public EquipmentSearchIndex(ProjectionQueries projectionQueries, PlatformTransactionManager transactionManager) {
+        this.projectionQueries = projectionQueries;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+    }
+    
+    @Override
+    public synchronized void afterSingletonsInstantiated() {
+        transactionTemplate.executeWithoutResult(status -> load(projectionQueries.list(EquipmentService.VIEW, null)));
+    }
+    
+    synchronized void load(List<EquipmentView> catalog) {
+        catalog.forEach(this::index);
+        loaded = true;
+    }
+    
+    // Runs after commit. The re-read happens on the refresh thread: on the committing thread it would
+    // need a second pooled connection while the request still holds its first, and enough concurrent
+    // bookings waiting for that exhaust the pool.
+    @TransactionalEventListener
+    public void onCatalogChanged(CatalogChangedEvent event) {
+        refresher.execute(() -> transactionTemplate.executeWithoutResult(status -> refresh(event)));
+    }
+    
+    @PreDestroy
+    public void stop() {
+        refresher.shutdownNow();
+    }
+    
+    private void refresh(CatalogChangedEvent event) {
+        if (event.equipmentIds() != null) {
+            // Ids the re-read no longer finds were deleted
+            Set<Long> missing = new HashSet<>(event.equipmentIds());
+            for (EquipmentView equipment
+                    : projectionQueries.list(EquipmentService.VIEW, EquipmentSpecifications.idIn(event.equipmentIds()))) {
+                index(equipment);
+                missing.remove(equipment.id());
+            }
+            missing.forEach(this::remove);
+        } else {
+            // Category names are indexed with each item
+            projectionQueries.list(EquipmentService.VIEW, EquipmentSpecifications.inCategory(event.categoryId()))
+                    .forEach(this::index);
+        }
+    }
+    
+    // Ids of the best matches, most relevant first
+    public synchronized List<Long> search(String query, int limit) {
+        checkLoaded();
+        Set<String> terms = new LinkedHashSet<>(tokenize(query));
+        if (terms.isEmpty() || limit < 1) {
+            return List.of();
+        }
+        
+        Map<Long, Float> scores = null;
+        for (String term : terms) {
+            Map<Long, Float> termScores = new HashMap<>();
+            for (Map.Entry<String, Map<Long, Float>> entry
+                    : postings.subMap(term, true, term + Character.MAX_VALUE, true).entrySet()) {
+                float idf = (float) Math.log(1 + (double) documents.size() / entry.getValue().size());
+                float factor = entry.getKey().length() == term.length() ? 1f : PREFIX_FACTOR;
+                // Several indexed words can share the prefix; the best one speaks for the document
+                entry.getValue().forEach((id, tf) -> termScores.merge(id, tf * idf * factor, Math::max));
+            }
+            if (scores == null) {
+                scores = termScores;
+            } else {
+                scores.keySet().retainAll(termScores.keySet());
+                scores.replaceAll((id, score) -> score + termScores.get(id));
+            }
+            if (scores.isEmpty()) {
+                return List.of();
+            }
+        }
+        
+        // Min-heap of the best `limit` hits; ties go to the lower id so results are stable
+        PriorityQueue<Map.Entry<Long, Float>> best = new PriorityQueue<>(
+                (a, b) -> a.getValue().equals(b.getValue()) ? Long.compare(b.getKey(), a.getKey())
+                                                            : Float.compare(a.getValue(), b.getValue()));
+        for (Map.Entry<Long, Float> hit : scores.entrySet()) {
+            hit.setValue(hit.getValue() * norms.get(hit.getKey()));
+            best.add(hit);
+            if (best.size() > limit) {
+                best.poll();
+            }
+        }
+        List<Long> ids = new ArrayList<>(best.size());
+        while (!best.isEmpty()) {
+            ids.add(best.poll().getKey());
+        }
+        Collections.reverse(ids);
+        return ids;
+    }
+    
+    public synchronized void index(EquipmentView equipment) {
+        remove(equipment.id());
+        Map<String, Float> terms = new HashMap<>();
+        addField(terms, equipment.name(), NAME_WEIGHT);
+        addField(terms, equipment.model(), MODEL_WEIGHT);
+        addField(terms, equipment.manufacturer(), MANUFACTURER_WEIGHT);
+        addField(terms, equipment.description(), DESCRIPTION_WEIGHT);
+        if (equipment.category() != null) {
+            addField(terms, equipment.category().name(), CATEGORY_WEIGHT);
+        }
+        if (terms.isEmpty()) {
+            return;
+        }
+        
+        float length = 0;
+        for (Map.Entry<String, Float> term : terms.entrySet()) {
+            postings.computeIfAbsent(term.getKey(), key -> new HashMap<>()).put(equipment.id(), term.getValue());
+            length += term.getValue();
+        }
+        documents.put(equipment.id(), terms);
+        norms.put(equipment.id(), (float) (1 / Math.sqrt(length)));
+    }
+    
+    public synchronized void remove(Long equipmentId) {
+        Map<String, Float> terms = documents.remove(equipmentId);
+        if (terms == null) {
+            return;
+        }
+        for (String term : terms.keySet()) {
+            Map<Long, Float> termPostings = postings.get(term);
+            termPostings.remove(equipmentId);
+            if (termPostings.isEmpty()) {
+                postings.remove(term);
+            }
+        }
+        norms.remove(equipmentId);
+    }
+    
+    private void checkLoaded() {
+        if (!loaded) {
+            throw new IllegalStateException("Equipment search is still loading, please retry");
+        }
+    }
+    
+    private static void addField(Map<String, Float> terms, String text, float weight) {
+        for (String token : tokenize(text)) {
+            terms.merge(token, weight, Float::sum);
+        }
+    }
+    
+    static List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        if (text == null) {
+            return tokens;
+        }
+        for (String token : text.toLowerCase(Locale.ROOT).split("[^\\p{L}\\p{N}]+")) {
+            if (!token.isEmpty()) {
+                tokens.add(token);
+            }
+        }
+        return tokens;
+    }
+}
\ No newline at end of file
@@ -5,36 +5,142 @@ import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.nio.file.StandardCopyOption;
+import java.util.Collection;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.multipart.MultipartFile;
 
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.JoinType;
+
+import com.hospital.equipment.config.CacheConfig;
+import com.hospital.equipment.dto.CursorPage;
+import com.hospital.equipment.dto.EquipmentQuery;
+import com.hospital.equipment.dto.EquipmentQueryResult;
+import com.hospital.equipment.dto.EquipmentView;
+import com.hospital.equipment.dto.PageQuery;
 import com.hospital.equipment.entity.Equipment;
+import com.hospital.equipment.event.CatalogChangedEvent;
 import com.hospital.equipment.repository.EquipmentRepository;
+import com.hospital.equipment.repository.EquipmentSpecifications;
 
 @Service
 @Transactional
 public class EquipmentService {
     
+    private static final Set<String> SORTABLE = Set.of("name", "dailyPrice");
+    
+    static final Projection<Equipment, EquipmentView> VIEW = new Projection<>(Equipment.class, EquipmentView.class,
+            root -> {
+                Join<Object, Object> category = root.join("category", JoinType.LEFT);
+                return List.of(root.get("id"), root.get("name"), root.get("description"), root.get("model"),
+                        root.get("manufacturer"), root.get("dailyPrice"), root.get("availableQuantity"),
+                        root.get("totalQuantity"), root.get("status"), root.get("imageUrl"),
+                        category.get("id"), category.get("name"), category.get("description"));
+            });
+    
     private final EquipmentRepository equipmentRepository;
+    private final ProjectionQueries projectionQueries;
+    private final EquipmentSearchIndex searchIndex;
+    private final EquipmentFacetIndex facetIndex;
+    private final ApplicationEventPublisher eventPublisher;
     
     @Autowired
-    public EquipmentService(EquipmentRepository equipmentRepository) {
+    public EquipmentService(EquipmentRepository equipmentRepository, ProjectionQueries projectionQueries,
+                            EquipmentSearchIndex searchIndex, EquipmentFacetIndex facetIndex,
+                            ApplicationEventPublisher eventPublisher) {
         this.equipmentRepository = equipmentRepository;
+        this.projectionQueries = projectionQueries;
+        this.searchIndex = searchIndex;
+        this.facetIndex = facetIndex;
+        this.eventPublisher = eventPublisher;
     }
     
     public List<Equipment> getAllEquipment() {
         return equipmentRepository.findAll();
     }
     
+    // The cached views stay on the primary, so a lagging replica cannot put stale rows in the cache
+    @Cacheable(cacheNames = CacheConfig.EQUIPMENT_CACHE, key = "'all'")
+    public List<EquipmentView> getAllEquipmentViews() {
+        return projectionQueries.list(VIEW, null);
+    }
+    
+    @Cacheable(cacheNames = CacheConfig.EQUIPMENT_CACHE, key = "'available'")
+    public List<EquipmentView> getAvailableEquipmentViews() {
+        return projectionQueries.list(VIEW, EquipmentSpecifications.available());
+    }
+    
+    @Transactional(readOnly = true)
+    public List<EquipmentView> getEquipmentViews(Specification<Equipment> filter) {
+        return projectionQueries.list(VIEW, filter);
+    }
+    
+    @Transactional(readOnly = true)
+    public CursorPage<EquipmentView> getEquipmentPage(Specification<Equipment> filter, PageQuery page) {
+        return projectionQueries.page(VIEW, filter, page, SORTABLE);
+    }
+    
+    @Transactional(readOnly = true)
+    public Optional<EquipmentView> getEquipmentView(Long id) {
+        return projectionQueries.findOne(VIEW, EquipmentSpecifications.withId(id));
+    }
+    
+    // Filters and facet counts come from the in-memory bitmaps; only the page of views is queried
+    @Transactional(readOnly = true)
+    public EquipmentQueryResult queryEquipment(EquipmentQuery query, PageQuery page) {
+        if (query.hasPeriod()) {
+            if (query.startDate() == null || query.endDate() == null || query.endDate().isBefore(query.startDate())) {
+                throw new IllegalArgumentException("startDate and endDate must both be given, with startDate <= endDate");
+            }
+            if (query.quantity() != null && query.quantity() < 1) {
+                throw new IllegalArgumentException("quantity must be at least 1");
+            }
+        }
+        List<Long> keywordHits = query.keyword() == null || query.keyword().isBlank()
+                ? null : searchIndex.search(query.keyword(), Integer.MAX_VALUE);
+        EquipmentFacetIndex.Match match = facetIndex.query(query, keywordHits);
+        
+        // Matches come back in id order; a keyword puts them in relevance order instead
+        List<Long> ids = match.ids();
+        if (keywordHits != null) {
+            Set<Long> matched = new HashSet<>(ids);
+            ids = keywordHits.stream().filter(matched::contains).toList();
+        }
+        List<EquipmentView> items;
+        String nextCursor = null;
+        if (page.isUnpaged()) {
+            items = projectionQueries.listRanked(VIEW, ids);
+        } else {
+            List<Long> ordered = ids;
+            // Without a sort only the requested page is read; an explicit sort pages through all matches
+            CursorPage<EquipmentView> result = page.sort() == null
+                    ? projectionQueries.pageRanked(VIEW, limit -> ordered.subList(0, Math.min(limit, ordered.size())), page)
+                    : projectionQueries.page(VIEW, EquipmentSpecifications.idIn(ids), page, SORTABLE);
+            items = result.items();
+            nextCursor = result.nextCursor();
+        }
+        return new EquipmentQueryResult(items, nextCursor, ids.size(), match.categories(), match.priceRanges());
+    }
+    
     public Optional<Equipment> getEquipmentById(Long id) {
         return equipmentRepository.findById(id);
     }
     
+    public List<Equipment> getEquipmentByIds(Collection<Long> ids) {
+        return equipmentRepository.findAllById(ids);
+    }
+    
     public Optional<Equipment> getEquipmentByIdWithCategory(Long id) {
         return equipmentRepository.findByIdWithCategory(id);
     }
@@ -51,8 +157,20 @@ public class EquipmentService {
         return equipmentRepository.findAvailableByCategoryId(categoryId);
     }
     
-    public List<Equipment> searchEquipment(String keyword) {
-        return equipmentRepository.searchByKeyword(keyword);
+    // Relevance-ranked hits from the search index; only the view lookup touches the database
+    @Transactional(readOnly = true)
+    public List<EquipmentView> searchEquipment(String keyword) {
+        return projectionQueries.listRanked(VIEW, searchIndex.search(keyword, Integer.MAX_VALUE));
+    }
+    
+    @Transactional(readOnly = true)
+    public CursorPage<EquipmentView> searchEquipmentPage(String keyword, PageQuery page) {
+        if (page.sort() == null) {
+            return projectionQueries.pageRanked(VIEW, limit -> searchIndex.search(keyword, limit), page);
+        }
+        // An explicit sort pages through all the hits in that order instead
+        return projectionQueries.page(VIEW, EquipmentSpecifications.idIn(searchIndex.search(keyword, Integer.MAX_VALUE)), page,
+                SORTABLE);
     }
     
     public List<Equipment> getEquipmentByPriceRange(BigDecimal minPrice, BigDecimal maxPrice) {
@@ -63,18 +181,35 @@ public class EquipmentService {
         return equipmentRepository.findByStatus(status);
     }
     
+    @CacheEvict(cacheNames = CacheConfig.EQUIPMENT_CACHE, allEntries = true)
     public Equipment createEquipment(Equipment equipment) {
-        // Set default values if not provided
+        applyDefaults(equipment);
+        Equipment savedEquipment = equipmentRepository.save(equipment);
+        eventPublisher.publishEvent(CatalogChangedEvent.equipment(savedEquipment.getId()));
+        return savedEquipment;
+    }
+    
+    // Bulk counterpart for imports: the inserts go out in JDBC batches and the indexes re-read the
+    // whole lot in one query instead of one per item
+    @CacheEvict(cacheNames = CacheConfig.EQUIPMENT_CACHE, allEntries = true)
+    public List<Equipment> createEquipment(List<Equipment> equipment) {
+        equipment.forEach(EquipmentService::applyDefaults);
+        List<Equipment> savedEquipment = equipmentRepository.saveAll(equipment);
+        eventPublisher.publishEvent(CatalogChangedEvent.equipment(savedEquipment.stream().map(Equipment::getId).toList()));
+        return savedEquipment;
+    }
+    
+    // Set default values if not provided
+    private static void applyDefaults(Equipment equipment) {
         if (equipment.getAvailableQuantity() == null) {
             equipment.setAvailableQuantity(equipment.getTotalQuantity());
         }
         if (equipment.getStatus() == null) {
             equipment.setStatus(Equipment.EquipmentStatus.AVAILABLE);
         }
-        
-        return equipmentRepository.save(equipment);
     }
     
+    @CacheEvict(cacheNames = CacheConfig.EQUIPMENT_CACHE, allEntries = true)
     public Equipment updateEquipment(Long id, Equipment equipmentDetails) {
         Equipment equipment = equipmentRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Equipment not found with id: " + id));
@@ -90,9 +225,12 @@ public class EquipmentService {
         equipment.setImageUrl(equipmentDetails.getImageUrl());
         equipment.setCategory(equipmentDetails.getCategory());
         
-        return equipmentRepository.save(equipment);
+        Equipment savedEquipment = equipmentRepository.save(equipment);
+        eventPublisher.publishEvent(CatalogChangedEvent.equipment(id));
+        return savedEquipment;
     }
     
+    @CacheEvict(cacheNames = CacheConfig.EQUIPMENT_CACHE, allEntries = true)
     public void deleteEquipment(Long id) {
         Equipment equipment = equipmentRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Equipment not found with id: " + id));
@@ -106,6 +244,7 @@ public class EquipmentService {
         }
         
         equipmentRepository.delete(equipment);
+        eventPublisher.publishEvent(CatalogChangedEvent.equipment(id));
     }
     
     public boolean isAvailable(Long equipmentId, int requestedQuantity) {
@@ -115,6 +254,7 @@ public class EquipmentService {
                equipment.get().getAvailableQuantity() >= requestedQuantity;
     }
     
+    @CacheEvict(cacheNames = CacheConfig.EQUIPMENT_CACHE, allEntries = true)
     public void updateAvailableQuantity(Long equipmentId, int quantityChange) {
         Equipment equipment = equipmentRepository.findById(equipmentId)
                 .orElseThrow(() -> new RuntimeException("Equipment not found with id: " + equipmentId));
@@ -137,8 +277,10 @@ public class EquipmentService {
         }
         
         equipmentRepository.save(equipment);
+        eventPublisher.publishEvent(CatalogChangedEvent.equipment(equipmentId));
     }
 
+    @CacheEvict(cacheNames = CacheConfig.EQUIPMENT_CACHE, allEntries = true)
     public Equipment storeImage(Long id, MultipartFile file) {
         Equipment equipment = equipmentRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Equipment not found with id: " + id));
@@ -153,7 +295,9 @@ public class EquipmentService {
             Path target = uploadDir.resolve(filename);
             Files.copy(file.getInputStream(), target, StandardCopyOption.REPLACE_EXISTING);
             equipment.setImageUrl("/uploads/equipment/" + filename);
-            return equipmentRepository.save(equipment);
+            Equipment savedEquipment = equipmentRepository.save(equipment);
+            eventPublisher.publishEvent(CatalogChangedEvent.equipment(id));
+            return savedEquipment;
         } catch (Exception e) {
             throw new RuntimeException("Failed to store image", e);
         }
@@ -0,0 +1,45 @@
+package com.hospital.equipment.service;
+
+import java.util.Locale;
+
+import org.springframework.http.MediaType;
+
+// Wire formats of the bulk export and import endpoints
+public enum FileFormat {
+    NDJSON(MediaType.parseMediaType("application/x-ndjson"), "ndjson"),
+    CSV(MediaType.parseMediaType("text/csv;charset=UTF-8"), "csv");
+    
+    private final MediaType mediaType;
+    private final String extension;
+    
+    FileFormat(MediaType mediaType, String extension) {
+        this.mediaType = mediaType;
+        this.extension = extension;
+    }
+    
+    public MediaType getMediaType() {
+        return mediaType;
+    }
+    
+    public String getExtension() {
+        return extension;
+    }
+    
+    public static FileFormat parse(String format) {
+        try {
+            return valueOf(format.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("format must be ndjson or csv");
+        }
+    }
+    
+    // Uploads say what they are in their Content-Type; parameters such as charset are ignored
+    public static FileFormat of(MediaType contentType) {
+        for (FileFormat format : values()) {
+            if (format.mediaType.equalsTypeAndSubtype(contentType)) {
+                return format;
+            }
+        }
+        throw new IllegalArgumentException("Content-Type must be application/x-ndjson or text/csv");
+    }
+}
\ No newline at end of file
@@ -0,0 +1,62 @@
+package com.hospital.equipment.service;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.hospital.equipment.entity.RentalEvent;
+import com.hospital.equipment.event.RentalEventSink;
+
+// Appends each event as one JSON line to a local file. A batch is forced to disk before deliver
+// returns, so an event is never marked delivered without being in the file. The delivery position is
+// kept under the configured name, not the path, so moving the file or the working directory doesn't
+// start the sink afresh.
+public class FileRentalEventSink implements RentalEventSink {
+    
+    // rental_outbox_cursors.sink
+    private static final int MAX_NAME_LENGTH = 100;
+    
+    private final String name;
+    private final Path path;
+    private final ObjectWriter jsonWriter;
+    
+    public FileRentalEventSink(String name, Path path, ObjectWriter jsonWriter) {
+        if (name == null || name.isBlank() || name.length() > MAX_NAME_LENGTH) {
+            throw new IllegalArgumentException("Outbox sink name must be 1 to " + MAX_NAME_LENGTH + " characters: " + name);
+        }
+        this.name = name;
+        this.path = path;
+        this.jsonWriter = jsonWriter;
+    }
+    
+    @Override
+    public String name() {
+        return name;
+    }
+    
+    @Override
+    public void deliver(List<RentalEvent> events) throws IOException {
+        StringBuilder lines = new StringBuilder();
+        for (RentalEvent event : events) {
+            lines.append(jsonWriter.writeValueAsString(event)).append('\n');
+        }
+        Path parent = path.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                                                    StandardOpenOption.APPEND)) {
+            ByteBuffer buffer = ByteBuffer.wrap(lines.toString().getBytes(StandardCharsets.UTF_8));
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            channel.force(false);
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,39 @@
+package com.hospital.equipment.service;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.hospital.equipment.entity.RentalEvent;
+import com.hospital.equipment.event.RentalEventSink;
+
+// Keeps the most recent events delivered to it, for tests and local checks of the outbox
+public class InMemoryRentalEventSink implements RentalEventSink {
+    
+    private final int capacity;
+    private final ArrayDeque<RentalEvent> events = new ArrayDeque<>();
+    
+    public InMemoryRentalEventSink(int capacity) {
+        this.capacity = capacity;
+    }
+    
+    @Override
+    public String name() {
+        return "memory";
+    }
+    
+    @Override
+    public synchronized void deliver(List<RentalEvent> batch) {
+        for (RentalEvent event : batch) {
+            if (events.size() == capacity) {
+                events.poll();
+            }
+            events.add(event);
+        }
+    }
+    
+    // Oldest first
+    public synchronized List<RentalEvent> getEvents() {
+        return new ArrayList<>(events);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,34 @@
+package com.hospital.equipment.service;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+// Periodically moves ACTIVE rentals past their end date to OVERDUE
+@Component
+public class OverdueRentalJob {
+    
+    private final OverdueRentalTracker overdueRentalTracker;
+    private final RentalService rentalService;
+    
+    @Autowired
+    public OverdueRentalJob(OverdueRentalTracker overdueRentalTracker, RentalService rentalService) {
+        this.overdueRentalTracker = overdueRentalTracker;
+        this.rentalService = rentalService;
+    }
+    
+    @Scheduled(fixedDelayString = "${rental.overdue.check-interval-ms:60000}")
+    public void markOverdueRentals() {
+        if (!overdueRentalTracker.isLoaded()) {
+            return;
+        }
+        LocalDate today = LocalDate.now();
+        List<Long> due = overdueRentalTracker.getDueRentalIds(today);
+        if (!due.isEmpty()) {
+            rentalService.markOverdue(due, today);
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,107 @@
+package com.hospital.equipment.service;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.hospital.equipment.entity.Rental;
+import com.hospital.equipment.event.RentalChangedEvent;
+import com.hospital.equipment.event.RentalSnapshot;
+
+// ACTIVE rentals ordered by end date, plus the ids already marked OVERDUE. Finding the rentals
+// that have just become overdue only looks at the head of the ordering.
+//
+// Loaded from the ledger before the web server and the scheduled jobs start, under the tracker's lock,
+// as BookingCalendarIndex is: a change committed during the load is applied on top of it.
+@Component
+public class OverdueRentalTracker implements SmartInitializingSingleton {
+    
+    private final RentalLedger rentalLedger;
+    
+    private final TreeMap<LocalDate, Set<Long>> activeByEndDate = new TreeMap<>();
+    private final Map<Long, LocalDate> activeEndDates = new HashMap<>();
+    private final Set<Long> overdueIds = new HashSet<>();
+    private volatile boolean loaded;
+    
+    @Autowired
+    public OverdueRentalTracker(RentalLedger rentalLedger) {
+        this.rentalLedger = rentalLedger;
+    }
+    
+    @Override
+    public synchronized void afterSingletonsInstantiated() {
+        for (RentalSnapshot rental : rentalLedger.replay(candidate -> candidate.status() == Rental.RentalStatus.ACTIVE
+                || candidate.status() == Rental.RentalStatus.OVERDUE).rentals().values()) {
+            track(rental);
+        }
+        loaded = true;
+    }
+    
+    public boolean isLoaded() {
+        return loaded;
+    }
+    
+    // track and untrack wait for a load in progress, so the change lands on the replayed state
+    @TransactionalEventListener
+    public void onRentalChanged(RentalChangedEvent event) {
+        if (event.after() != null) {
+            track(event.after());
+        } else {
+            untrack(event.before().id());
+        }
+    }
+    
+    // ACTIVE rentals that ended before today, earliest first
+    public synchronized List<Long> getDueRentalIds(LocalDate today) {
+        checkLoaded();
+        List<Long> due = new ArrayList<>();
+        activeByEndDate.headMap(today).values().forEach(due::addAll);
+        return due;
+    }
+    
+    // Rentals already marked OVERDUE plus the ones the next check will mark
+    public synchronized Set<Long> getOverdueRentalIds(LocalDate today) {
+        checkLoaded();
+        Set<Long> ids = new HashSet<>(overdueIds);
+        activeByEndDate.headMap(today).values().forEach(ids::addAll);
+        return ids;
+    }
+    
+    public synchronized void track(RentalSnapshot rental) {
+        untrack(rental.id());
+        if (rental.status() == Rental.RentalStatus.ACTIVE) {
+            activeByEndDate.computeIfAbsent(rental.endDate(), date -> new HashSet<>()).add(rental.id());
+            activeEndDates.put(rental.id(), rental.endDate());
+        } else if (rental.status() == Rental.RentalStatus.OVERDUE) {
+            overdueIds.add(rental.id());
+        }
+    }
+    
+    public synchronized void untrack(Long rentalId) {
+        overdueIds.remove(rentalId);
+        LocalDate endDate = activeEndDates.remove(rentalId);
+        if (endDate != null) {
+            Set<Long> ids = activeByEndDate.get(endDate);
+            ids.remove(rentalId);
+            if (ids.isEmpty()) {
+                activeByEndDate.remove(endDate);
+            }
+        }
+    }
+    
+    private void checkLoaded() {
+        if (!loaded) {
+            throw new IllegalStateException("Overdue rentals are still loading, please retry");
+        }
+    }
+}
\ No newline at end of file
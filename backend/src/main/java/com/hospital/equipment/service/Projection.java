@@ -0,0 +1,13 @@
+package com.hospital.equipment.service;
+
+import java.util.List;
+import java.util.function.Function;
+
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+
+// Maps an entity to a read model: the columns to select, in the order of one of the view's constructors.
+// Rows are read from entityType, which may be a subclass of the E that filters and columns are written
+// against, or an abstract E whose subclasses are all read.
+public record Projection<E, V>(Class<? extends E> entityType, Class<V> viewType, Function<Root<E>, List<Selection<?>>> columns) {
+}
\ No newline at end of file
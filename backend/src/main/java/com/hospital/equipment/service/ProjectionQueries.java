@@ -0,0 +1,415 @@
+package com.hospital.equipment.service;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.RecordComponent;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Optional;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.IntFunction;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.stereotype.Component;
+
+import com.hospital.equipment.dto.CursorPage;
+import com.hospital.equipment.dto.PageQuery;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+import jakarta.persistence.metamodel.EntityType;
+
+// Read-model queries for the GET endpoints. Each one selects only the columns of a Projection and
+// builds the view records in the same query, so no entities (or lazy associations) are loaded.
+// Paging is keyset-based: rows are ordered by one sortable attribute with the id as tie-breaker,
+// and the cursor carries both values of the last row returned, so every page is a range read that
+// continues where the previous one stopped, however deep the caller goes.
+@Component
+public class ProjectionQueries {
+    
+    public static final int DEFAULT_PAGE_SIZE = 50;
+    public static final int MAX_PAGE_SIZE = 500;
+    
+    private static final String ID = "id";
+    private static final String RANK = "rank";
+    
+    // Record accessors by view type and component name. Merging the rows of several tables compares
+    // them on every step, and getRecordComponents builds its array afresh on each call.
+    private static final Map<Class<?>, Map<String, Method>> accessors = new ConcurrentHashMap<>();
+    
+    private final EntityManager entityManager;
+    private final Map<Class<?>, List<Class<?>>> concreteTypes = new ConcurrentHashMap<>();
+    
+    @Autowired
+    public ProjectionQueries(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+    
+    public <E, V> List<V> list(Projection<E, V> projection, Specification<E> filter) {
+        List<Class<?>> types = concreteTypes(projection.entityType());
+        List<V> views = new ArrayList<>();
+        for (Class<?> type : types) {
+            CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+            CriteriaQuery<V> criteria = cb.createQuery(projection.viewType());
+            Root<E> root = from(criteria, type);
+            select(cb, criteria, root, projection, predicates(cb, criteria, root, filter));
+            criteria.orderBy(cb.asc(root.get(ID)));
+            views.addAll(entityManager.createQuery(criteria).getResultList());
+        }
+        if (types.size() > 1) {
+            views.sort(order(ID, false));
+        }
+        return views;
+    }
+    
+    // Rows in id order through a forward-only cursor, fetchSize at a time, for results too big to hold
+    // as a list. The stream has to be consumed and closed inside the transaction that opened it.
+    public <E, V> Stream<V> stream(Projection<E, V> projection, Specification<E> filter, int fetchSize) {
+        List<Stream<V>> streams = new ArrayList<>();
+        for (Class<?> type : concreteTypes(projection.entityType())) {
+            CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+            CriteriaQuery<V> criteria = cb.createQuery(projection.viewType());
+            Root<E> root = from(criteria, type);
+            select(cb, criteria, root, projection, predicates(cb, criteria, root, filter));
+            criteria.orderBy(cb.asc(root.get(ID)));
+            streams.add(entityManager.createQuery(criteria).setHint(HibernateHints.HINT_FETCH_SIZE, fetchSize)
+                    .getResultStream());
+        }
+        if (streams.size() == 1) {
+            return streams.get(0);
+        }
+        Iterator<V> merged = new MergingIterator<>(streams, order(ID, false));
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(merged, Spliterator.ORDERED), false)
+                .onClose(() -> streams.forEach(Stream::close));
+    }
+    
+    public <E, V> Optional<V> findOne(Projection<E, V> projection, Specification<E> filter) {
+        for (Class<?> type : concreteTypes(projection.entityType())) {
+            CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+            CriteriaQuery<V> criteria = cb.createQuery(projection.viewType());
+            Root<E> root = from(criteria, type);
+            select(cb, criteria, root, projection, predicates(cb, criteria, root, filter));
+            Optional<V> view = entityManager.createQuery(criteria).setMaxResults(1).getResultList().stream().findFirst();
+            if (view.isPresent()) {
+                return view;
+            }
+        }
+        return Optional.empty();
+    }
+    
+    // Views for ids that are already ranked elsewhere (e.g. by relevance), in that order
+    public <E, V> List<V> listRanked(Projection<E, V> projection, List<Long> rankedIds) {
+        if (rankedIds.isEmpty()) {
+            return List.of();
+        }
+        Map<Object, V> byId = new HashMap<>();
+        for (V view : list(projection, (root, criteria, cb) -> root.get(ID).in(rankedIds))) {
+            byId.put(component(view, ID), view);
+        }
+        List<V> views = new ArrayList<>(rankedIds.size());
+        for (Long id : rankedIds) {
+            // Gone since it was ranked
+            V view = byId.get(id);
+            if (view != null) {
+                views.add(view);
+            }
+        }
+        return views;
+    }
+    
+    // A ranking has no attribute to continue from, so its cursor is the position of the next row.
+    // topHits(n) returns the ids of the n best rows in rank order.
+    public <E, V> CursorPage<V> pageRanked(Projection<E, V> projection, IntFunction<List<Long>> topHits,
+                                           PageQuery query) {
+        int size = pageSize(query);
+        int offset = 0;
+        if (query.cursor() != null) {
+            String[] parts = decodeParts(query.cursor(), 2);
+            if (parts.length != 2 || !parts[0].equals(RANK)) {
+                throw new IllegalArgumentException("Cursor does not match the requested sort");
+            }
+            try {
+                offset = Integer.parseInt(parts[1]);
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+            if (offset < 0) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+        }
+        // One extra hit tells us whether there is another page
+        List<Long> rankedIds = topHits.apply(offset + size + 1);
+        int end = Math.min(rankedIds.size(), offset + size);
+        List<V> items = offset >= end ? List.of() : listRanked(projection, rankedIds.subList(offset, end));
+        return new CursorPage<>(items, end < rankedIds.size() ? encodeRaw(RANK + "|" + end) : null);
+    }
+    
+    public <E, V> CursorPage<V> page(Projection<E, V> projection, Specification<E> filter, PageQuery query,
+                                     Set<String> sortable) {
+        String sort = query.sort() == null ? ID : query.sort();
+        if (!sort.equals(ID) && !sortable.contains(sort)) {
+            Set<String> allowed = new TreeSet<>(sortable);
+            allowed.add(ID);
+            throw new IllegalArgumentException("sort must be one of " + allowed);
+        }
+        boolean descending = isDescending(query.direction());
+        int size = pageSize(query);
+        
+        // One extra row tells us whether there is another page without a count query. Each table
+        // returns its own first size + 1 rows, and the page is the first size + 1 of them all.
+        List<Class<?>> types = concreteTypes(projection.entityType());
+        List<V> rows = new ArrayList<>();
+        for (Class<?> type : types) {
+            CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+            CriteriaQuery<V> criteria = cb.createQuery(projection.viewType());
+            Root<E> root = from(criteria, type);
+            List<Predicate> predicates = predicates(cb, criteria, root, filter);
+            
+            Path<Long> id = root.get(ID);
+            Path<Object> key = root.get(sort);
+            if (query.cursor() != null) {
+                Cursor cursor = decode(query.cursor(), sort, descending, key.getJavaType());
+                predicates.add(sort.equals(ID) ? idAfter(cb, id, cursor.id(), descending)
+                                               : after(cb, key, id, cursor, descending));
+            }
+            select(cb, criteria, root, projection, predicates);
+            if (sort.equals(ID)) {
+                criteria.orderBy(descending ? cb.desc(id) : cb.asc(id));
+            } else {
+                criteria.orderBy(descending ? cb.desc(key) : cb.asc(key), descending ? cb.desc(id) : cb.asc(id));
+            }
+            rows.addAll(entityManager.createQuery(criteria).setMaxResults(size + 1).getResultList());
+        }
+        if (types.size() > 1) {
+            rows.sort(order(sort, descending));
+        }
+        
+        if (rows.size() <= size) {
+            return new CursorPage<>(rows, null);
+        }
+        List<V> items = new ArrayList<>(rows.subList(0, size));
+        V last = items.get(size - 1);
+        return new CursorPage<>(items, encode(sort, descending, component(last, ID), component(last, sort)));
+    }
+    
+    // The entities a query on type reads: the type itself, or each concrete subclass of an abstract
+    // base such as RentalRecord. Subclasses are queried one by one and their rows merged here, so
+    // every query keeps to one table's indexes; a single query on the base would sort the union of
+    // all its tables before the limit applies.
+    private List<Class<?>> concreteTypes(Class<?> type) {
+        return concreteTypes.computeIfAbsent(type, base -> {
+            if (!Modifier.isAbstract(base.getModifiers())) {
+                return List.of(base);
+            }
+            List<Class<?>> types = new ArrayList<>();
+            for (EntityType<?> entity : entityManager.getMetamodel().getEntities()) {
+                Class<?> javaType = entity.getJavaType();
+                if (base.isAssignableFrom(javaType) && !Modifier.isAbstract(javaType.getModifiers())) {
+                    types.add(javaType);
+                }
+            }
+            types.sort(Comparator.comparing(Class::getName));
+            return List.copyOf(types);
+        });
+    }
+    
+    // Filters and columns are written against the projection's entity type, which every type
+    // concreteTypes returns extends
+    @SuppressWarnings("unchecked")
+    private static <E> Root<E> from(CriteriaQuery<?> criteria, Class<?> type) {
+        return (Root<E>) criteria.from(type);
+    }
+    
+    // The order the queries above return rows in, nulls first as H2 sorts them
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    static <V> Comparator<V> order(String sort, boolean descending) {
+        Comparator<V> byId = Comparator.comparing(view -> (Long) component(view, ID));
+        Comparator<V> order = sort.equals(ID) ? byId
+                : Comparator.<V, Comparable>comparing(view -> (Comparable) component(view, sort),
+                                                      Comparator.nullsFirst(Comparator.naturalOrder()))
+                        .thenComparing(byId);
+        return descending ? order.reversed() : order;
+    }
+    
+    private static int pageSize(PageQuery query) {
+        int size = query.size() == null ? DEFAULT_PAGE_SIZE : query.size();
+        if (size < 1 || size > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("size must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        return size;
+    }
+    
+    private static <E> List<Predicate> predicates(CriteriaBuilder cb, CriteriaQuery<?> criteria, Root<E> root,
+                                                  Specification<E> filter) {
+        List<Predicate> predicates = new ArrayList<>();
+        if (filter != null) {
+            Predicate predicate = filter.toPredicate(root, criteria, cb);
+            if (predicate != null) {
+                predicates.add(predicate);
+            }
+        }
+        return predicates;
+    }
+    
+    private static <E, V> void select(CriteriaBuilder cb, CriteriaQuery<V> criteria, Root<E> root,
+                                      Projection<E, V> projection, List<Predicate> predicates) {
+        List<Selection<?>> columns = projection.columns().apply(root);
+        criteria.select(cb.construct(projection.viewType(), columns.toArray(new Selection<?>[0])))
+                .where(predicates.toArray(new Predicate[0]));
+    }
+    
+    // Sortable attributes are also components of the view, so the cursor is read back from the record
+    private static Object component(Object view, String name) {
+        Method accessor = accessors.computeIfAbsent(view.getClass(), type -> {
+            Map<String, Method> byName = new HashMap<>();
+            for (RecordComponent component : type.getRecordComponents()) {
+                byName.put(component.getName(), component.getAccessor());
+            }
+            return byName;
+        }).get(name);
+        if (accessor == null) {
+            throw new IllegalStateException(view.getClass().getSimpleName() + " has no component " + name);
+        }
+        try {
+            return accessor.invoke(view);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Cannot read " + name + " from " + view.getClass().getSimpleName(), e);
+        }
+    }
+    
+    record Cursor(Long id, Object value) {
+    }
+    
+    // Merges streams that are each sorted by order into one sorted sequence
+    static final class MergingIterator<V> implements Iterator<V> {
+        
+        private record Head<V>(V view, Iterator<V> rest) {
+        }
+        
+        private final PriorityQueue<Head<V>> heads;
+        
+        MergingIterator(List<Stream<V>> streams, Comparator<V> order) {
+            heads = new PriorityQueue<>(Comparator.comparing(Head::view, order));
+            for (Stream<V> stream : streams) {
+                advance(stream.iterator());
+            }
+        }
+        
+        @Override
+        public boolean hasNext() {
+            return !heads.isEmpty();
+        }
+        
+        @Override
+        public V next() {
+            Head<V> head = heads.poll();
+            if (head == null) {
+                throw new NoSuchElementException();
+            }
+            advance(head.rest());
+            return head.view();
+        }
+        
+        private void advance(Iterator<V> iterator) {
+            if (iterator.hasNext()) {
+                heads.add(new Head<>(iterator.next(), iterator));
+            }
+        }
+    }
+    
+    // (key, id) strictly past the cursor in sort order
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static Predicate after(CriteriaBuilder cb, Path<Object> key, Path<Long> id, Cursor cursor,
+                                   boolean descending) {
+        Comparable value = (Comparable) cursor.value();
+        Path<Comparable> comparableKey = (Path) key;
+        Predicate keyPast = descending ? cb.lessThan(comparableKey, value) : cb.greaterThan(comparableKey, value);
+        return cb.or(keyPast, cb.and(cb.equal(key, value), idAfter(cb, id, cursor.id(), descending)));
+    }
+    
+    private static Predicate idAfter(CriteriaBuilder cb, Path<Long> id, Long lastId, boolean descending) {
+        return descending ? cb.lessThan(id, lastId) : cb.greaterThan(id, lastId);
+    }
+    
+    private static boolean isDescending(String direction) {
+        if (direction == null || direction.equalsIgnoreCase("asc")) {
+            return false;
+        }
+        if (direction.equalsIgnoreCase("desc")) {
+            return true;
+        }
+        throw new IllegalArgumentException("direction must be asc or desc");
+    }
+    
+    static String encode(String sort, boolean descending, Object id, Object value) {
+        return encodeRaw(sort + "|" + (descending ? "desc" : "asc") + "|" + id + "|" + value);
+    }
+    
+    private static String encodeRaw(String raw) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+    
+    private static String[] decodeParts(String cursor, int limit) {
+        try {
+            return new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split("\\|", limit);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+    }
+    
+    static Cursor decode(String cursor, String sort, boolean descending, Class<?> valueType) {
+        String[] parts = decodeParts(cursor, 4);
+        if (parts.length != 4 || !parts[0].equals(sort) || !parts[1].equals(descending ? "desc" : "asc")) {
+            throw new IllegalArgumentException("Cursor does not match the requested sort");
+        }
+        try {
+            return new Cursor(Long.valueOf(parts[2]), parseValue(valueType, parts[3]));
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+    }
+    
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static Object parseValue(Class<?> type, String raw) {
+        if (type == String.class) {
+            return raw;
+        } else if (type == Long.class) {
+            return Long.valueOf(raw);
+        } else if (type == Integer.class) {
+            return Integer.valueOf(raw);
+        } else if (type == BigDecimal.class) {
+            return new BigDecimal(raw);
+        } else if (type == LocalDate.class) {
+            return LocalDate.parse(raw);
+        } else if (type == LocalDateTime.class) {
+            return LocalDateTime.parse(raw);
+        } else if (type.isEnum()) {
+            return Enum.valueOf((Class<Enum>) type, raw);
+        }
+        throw new IllegalArgumentException("Cannot page by " + type.getSimpleName());
+    }
+}
\ No newline at end of file
@@ -0,0 +1,129 @@
+package com.hospital.equipment.service;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import jakarta.annotation.PreDestroy;
+
+import com.hospital.equipment.dto.ArchiveResult;
+import com.hospital.equipment.entity.ArchivedRental;
+import com.hospital.equipment.repository.RentalRepository;
+
+// Moves closed rentals (see ArchivedRental.STATUSES) whose end date is more than min-age-days ago from
+// the rentals table to rentals_archive, so the booking queries only ever read rentals that can still
+// change. Each batch is copied and deleted in a transaction of its own with its rows locked, and the
+// archiver pauses between batches to leave the database to the bookings. Scheduled runs happen on a
+// thread of their own so the pauses never hold up the other scheduled jobs.
+//
+// A move is not a change to the rental: no RentalChangedEvent is published, and the ledger, rollups
+// and counters, which all cover archived rentals too, stay as they are.
+@Component
+public class RentalArchiver {
+    
+    private static final Logger logger = LoggerFactory.getLogger(RentalArchiver.class);
+    
+    private final RentalRepository rentalRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final int minAgeDays;
+    private final int batchSize;
+    private final long pauseMillis;
+    
+    private final ExecutorService archiver = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "rental-archiver");
+        thread.setDaemon(true);
+        return thread;
+    });
+    // Only touched by the scheduler thread, never under the archive() lock, which a run can hold for long
+    private volatile Future<?> scheduledRun;
+    
+    @Autowired
+    public RentalArchiver(RentalRepository rentalRepository, PlatformTransactionManager transactionManager,
+                          @Value("${rental.archive.min-age-days:90}") int minAgeDays,
+                          @Value("${rental.archive.batch-size:1000}") int batchSize,
+                          @Value("${rental.archive.pause-ms:100}") long pauseMillis) {
+        if (minAgeDays < 0 || batchSize < 1 || pauseMillis < 0) {
+            throw new IllegalArgumentException("rental.archive settings must not be negative and batch-size "
+                    + "must be at least 1");
+        }
+        this.rentalRepository = rentalRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.minAgeDays = minAgeDays;
+        this.batchSize = batchSize;
+        this.pauseMillis = pauseMillis;
+    }
+    
+    @Scheduled(fixedDelayString = "${rental.archive.interval-ms:3600000}",
+               initialDelayString = "${rental.archive.interval-ms:3600000}")
+    public void archiveDue() {
+        // A run still in progress already picks up whatever became due since it started
+        if (scheduledRun == null || scheduledRun.isDone()) {
+            scheduledRun = archiver.submit(() -> {
+                try {
+                    archive();
+                } catch (RuntimeException e) {
+                    logger.error("Scheduled archiving of closed rentals failed", e);
+                }
+            });
+        }
+    }
+    
+    @PreDestroy
+    public void stop() {
+        archiver.shutdownNow();
+    }
+    
+    // Keeps going until no rental is due; rentals that become due meanwhile are picked up too
+    public synchronized ArchiveResult archive() {
+        long started = System.nanoTime();
+        LocalDate cutoff = LocalDate.now().minusDays(minAgeDays);
+        int moved = 0;
+        int batches = 0;
+        while (true) {
+            int count = transactionTemplate.execute(status -> moveBatch(cutoff));
+            if (count == 0) {
+                break;
+            }
+            moved += count;
+            batches++;
+            if (count < batchSize) {
+                break;
+            }
+            try {
+                Thread.sleep(pauseMillis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        return new ArchiveResult(moved, batches, (System.nanoTime() - started) / 1_000_000);
+    }
+    
+    private int moveBatch(LocalDate cutoff) {
+        List<Long> ids = rentalRepository.findArchivableIds(ArchivedRental.STATUSES, cutoff,
+                                                            PageRequest.ofSize(batchSize));
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        int copied = rentalRepository.copyToArchive(ids, LocalDateTime.now());
+        int deleted = rentalRepository.deleteAllByIdIn(ids);
+        if (copied != ids.size() || deleted != ids.size()) {
+            throw new IllegalStateException("Archiving " + ids.size() + " rentals copied " + copied
+                    + " and deleted " + deleted);
+        }
+        return ids.size();
+    }
+}
\ No newline at end of file
@@ -0,0 +1,139 @@
+package com.hospital.equipment.service;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.TreeSet;
+import java.util.UUID;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.hospital.equipment.dto.BulkRentalResult;
+import com.hospital.equipment.dto.ReservationHold;
+import com.hospital.equipment.entity.Rental;
+import com.hospital.equipment.repository.EquipmentRepository;
+
+import jakarta.persistence.OptimisticLockException;
+
+// Entry point for bookings. Wraps RentalService so that the check-then-book sequence runs
+// under the configured concurrency control, which has to span the whole transaction.
+@Service
+public class RentalBookingService {
+    
+    private final RentalService rentalService;
+    private final EquipmentRepository equipmentRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final BookingConcurrencyMode mode;
+    private final int maxRetries;
+    private final ReentrantLock[] stripes;
+    
+    @Autowired
+    public RentalBookingService(RentalService rentalService,
+                                EquipmentRepository equipmentRepository,
+                                PlatformTransactionManager transactionManager,
+                                @Value("${rental.booking.concurrency:STRIPED}") BookingConcurrencyMode mode,
+                                @Value("${rental.booking.max-retries:5}") int maxRetries,
+                                @Value("${rental.booking.lock-stripes:64}") int lockStripes) {
+        this.rentalService = rentalService;
+        this.equipmentRepository = equipmentRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.mode = mode;
+        this.maxRetries = maxRetries;
+        this.stripes = new ReentrantLock[lockStripes];
+        for (int i = 0; i < lockStripes; i++) {
+            stripes[i] = new ReentrantLock();
+        }
+    }
+    
+    public Rental createRental(Rental rental) {
+        return createRental(rental, null);
+    }
+    
+    public Rental createRental(Rental rental, UUID holdId) {
+        Long equipmentId = rental.getEquipment().getId();
+        return execute(List.of(equipmentId), () -> {
+            // A failed attempt may have assigned an id before rolling back
+            rental.setId(null);
+            return rentalService.createRental(rental, holdId);
+        });
+    }
+    
+    public ReservationHold placeHold(Long equipmentId, LocalDate startDate, LocalDate endDate,
+                                     Integer quantity, Integer ttlSeconds) {
+        return execute(List.of(equipmentId), () -> transactionTemplate.execute(status -> {
+            if (mode == BookingConcurrencyMode.OPTIMISTIC) {
+                // A hold writes no rows, so bump the version to collide with concurrent bookings
+                equipmentRepository.findByIdForVersionIncrement(equipmentId);
+            }
+            return rentalService.placeHold(equipmentId, startDate, endDate, quantity, ttlSeconds);
+        }));
+    }
+    
+    public BulkRentalResult createRentals(List<Rental> rentals, boolean partial) {
+        List<Long> equipmentIds = rentals.stream().map(rental -> rental.getEquipment().getId()).toList();
+        return execute(equipmentIds, () -> {
+            rentals.forEach(rental -> rental.setId(null));
+            return rentalService.createRentals(rentals, partial);
+        });
+    }
+    
+    public BookingConcurrencyMode getMode() {
+        return mode;
+    }
+    
+    private <T> T execute(Collection<Long> equipmentIds, Supplier<T> booking) {
+        switch (mode) {
+            case STRIPED:
+                // Always lock stripes in ascending order so multi-item bookings cannot deadlock
+                TreeSet<Integer> stripeIndexes = new TreeSet<>();
+                equipmentIds.forEach(id -> stripeIndexes.add(stripeIndex(id)));
+                for (int index : stripeIndexes) {
+                    stripes[index].lock();
+                }
+                try {
+                    return booking.get();
+                } finally {
+                    for (int index : stripeIndexes.descendingSet()) {
+                        stripes[index].unlock();
+                    }
+                }
+            case OPTIMISTIC:
+                return withRetry(booking);
+            case PESSIMISTIC:
+                return withRetry(() -> transactionTemplate.execute(status -> {
+                    // Same ordering rule for row locks
+                    for (Long equipmentId : new TreeSet<>(equipmentIds)) {
+                        equipmentRepository.findByIdForUpdate(equipmentId);
+                    }
+                    return booking.get();
+                }));
+            default:
+                return booking.get();
+        }
+    }
+    
+    private <T> T withRetry(Supplier<T> booking) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return booking.get();
+            } catch (ConcurrencyFailureException | OptimisticLockException e) {
+                // The version check can also fail in a flush from a before-commit callback (the rental
+                // ledger's), which the transaction manager passes on untranslated
+                if (attempt > maxRetries) {
+                    throw new IllegalStateException("Booking conflicted with concurrent bookings, please retry", e);
+                }
+            }
+        }
+    }
+    
+    private int stripeIndex(Long equipmentId) {
+        return Math.floorMod(equipmentId.hashCode(), stripes.length);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,221 @@
+package com.hospital.equipment.service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.hospital.equipment.dto.OutboxSinkStatus;
+import com.hospital.equipment.entity.RentalEvent;
+import com.hospital.equipment.entity.RentalOutboxCursor;
+import com.hospital.equipment.event.RentalEventSink;
+import com.hospital.equipment.repository.RentalEventRepository;
+import com.hospital.equipment.repository.RentalOutboxCursorRepository;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+
+// Transactional outbox for rental changes. The rental ledger already writes one row per change in the
+// changing transaction, so it serves as the outbox: this dispatcher reads it in batches after each
+// sink's cursor (rental_outbox_cursors), never past RentalLedger.committedThrough(), and moves the
+// cursor once the sink has accepted a batch. Delivery is at least once, and in ledger order, so per
+// rental in the order of its changes. A failing sink is retried with exponential backoff without
+// holding up the others: each sink has its own worker thread polling the ledger on its own cursor, so
+// a slow or failing sink delays only itself.
+//
+// A sink seen for the first time starts at the latest event; it is not sent the history before it.
+@Component
+public class RentalEventDispatcher {
+    
+    private static final Logger logger = LoggerFactory.getLogger(RentalEventDispatcher.class);
+    
+    private final RentalEventRepository eventRepository;
+    private final RentalLedger rentalLedger;
+    private final RentalOutboxCursorRepository cursorRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry meterRegistry;
+    private final List<RentalEventSink> sinks;
+    private final int batchSize;
+    private final long retryMillis;
+    private final long maxRetryMillis;
+    private final long pollMillis;
+    
+    private volatile List<SinkState> states = List.of();
+    
+    private static final class SinkState {
+        
+        final RentalEventSink sink;
+        final Counter delivered;
+        final Counter failed;
+        final Timer latency;
+        volatile long lastEventId;
+        volatile long pending;
+        // Recording time of the oldest event not yet delivered, null when there is none
+        volatile LocalDateTime oldestPending;
+        volatile int consecutiveFailures;
+        volatile String lastError;
+        volatile LocalDateTime retryAt;
+        Thread worker;
+        
+        SinkState(RentalEventSink sink, long lastEventId, MeterRegistry registry) {
+            this.sink = sink;
+            this.lastEventId = lastEventId;
+            this.delivered = Counter.builder("rental.outbox.delivered").tag("sink", sink.name())
+                    .description("Rental events accepted by the sink").register(registry);
+            this.failed = Counter.builder("rental.outbox.failures").tag("sink", sink.name())
+                    .description("Failed delivery attempts").register(registry);
+            this.latency = Timer.builder("rental.outbox.latency").tag("sink", sink.name())
+                    .description("Time from an event being recorded to its delivery").register(registry);
+            Gauge.builder("rental.outbox.pending", this, state -> state.pending).tag("sink", sink.name())
+                    .description("Events waiting for the sink as of the last poll").register(registry);
+            TimeGauge.builder("rental.outbox.lag", this, TimeUnit.MILLISECONDS, SinkState::lagMillis)
+                    .tag("sink", sink.name())
+                    .description("Age of the oldest event waiting for the sink").register(registry);
+        }
+        
+        double lagMillis() {
+            LocalDateTime oldest = oldestPending;
+            return oldest == null ? 0 : Math.max(0, Duration.between(oldest, LocalDateTime.now()).toMillis());
+        }
+    }
+    
+    @Autowired
+    public RentalEventDispatcher(RentalEventRepository eventRepository, RentalLedger rentalLedger,
+                                 RentalOutboxCursorRepository cursorRepository,
+                                 PlatformTransactionManager transactionManager, MeterRegistry meterRegistry,
+                                 ObjectProvider<RentalEventSink> sinks,
+                                 @Value("${rental.outbox.batch-size:500}") int batchSize,
+                                 @Value("${rental.outbox.retry-ms:1000}") long retryMillis,
+                                 @Value("${rental.outbox.max-retry-ms:60000}") long maxRetryMillis,
+                                 @Value("${rental.outbox.poll-interval-ms:500}") long pollMillis) {
+        this.eventRepository = eventRepository;
+        this.rentalLedger = rentalLedger;
+        this.cursorRepository = cursorRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.meterRegistry = meterRegistry;
+        this.sinks = sinks.orderedStream().toList();
+        this.batchSize = batchSize;
+        this.retryMillis = retryMillis;
+        this.maxRetryMillis = maxRetryMillis;
+        this.pollMillis = pollMillis;
+    }
+    
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        List<SinkState> loaded = new ArrayList<>();
+        for (RentalEventSink sink : sinks) {
+            RentalOutboxCursor cursor = transactionTemplate.execute(status -> cursorRepository.findById(sink.name())
+                    .orElseGet(() -> cursorRepository.save(
+                            new RentalOutboxCursor(sink.name(), rentalLedger.committedThrough()))));
+            loaded.add(new SinkState(sink, cursor.getLastEventId(), meterRegistry));
+        }
+        states = List.copyOf(loaded);
+        for (SinkState state : states) {
+            state.worker = new Thread(() -> run(state), "outbox-" + state.sink.name());
+            state.worker.setDaemon(true);
+            state.worker.start();
+        }
+    }
+    
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        for (SinkState state : states) {
+            if (state.worker != null) {
+                state.worker.interrupt();
+            }
+        }
+        for (SinkState state : states) {
+            if (state.worker != null) {
+                state.worker.join();
+            }
+        }
+    }
+    
+    public List<OutboxSinkStatus> getStatus() {
+        List<OutboxSinkStatus> status = new ArrayList<>();
+        for (SinkState state : states) {
+            status.add(new OutboxSinkStatus(state.sink.name(), state.lastEventId, state.pending,
+                    state.lagMillis() / 1000.0, (long) state.delivered.count(), (long) state.failed.count(),
+                    state.lastError, state.retryAt));
+        }
+        return status;
+    }
+    
+    private void run(SinkState state) {
+        while (!Thread.currentThread().isInterrupted()) {
+            try {
+                LocalDateTime retryAt = state.retryAt;
+                long wait = retryAt == null ? pollMillis
+                        : Math.max(pollMillis, Duration.between(LocalDateTime.now(), retryAt).toMillis());
+                Thread.sleep(wait);
+                drain(state);
+                measureLag(state);
+            } catch (InterruptedException e) {
+                return;
+            } catch (RuntimeException e) {
+                logger.warn("Polling rental events for {} failed", state.sink.name(), e);
+            }
+        }
+    }
+    
+    // Delivers batches until the sink has caught up or fails
+    private void drain(SinkState state) {
+        List<RentalEvent> batch;
+        do {
+            batch = eventRepository.findByIdGreaterThanAndIdLessThanEqualOrderById(state.lastEventId,
+                    rentalLedger.committedThrough(), PageRequest.ofSize(batchSize));
+            if (batch.isEmpty()) {
+                break;
+            }
+            try {
+                state.sink.deliver(batch);
+            } catch (Exception e) {
+                state.failed.increment();
+                state.consecutiveFailures++;
+                state.lastError = e.toString();
+                long backoff = Math.min(maxRetryMillis,
+                        retryMillis << Math.min(state.consecutiveFailures - 1, 20));
+                state.retryAt = LocalDateTime.now().plus(Duration.ofMillis(backoff));
+                logger.warn("Delivery of rental events to {} failed, retrying in {} ms", state.sink.name(),
+                        backoff, e);
+                return;
+            }
+            long lastEventId = batch.get(batch.size() - 1).getId();
+            transactionTemplate.executeWithoutResult(status ->
+                    cursorRepository.advance(state.sink.name(), lastEventId, LocalDateTime.now()));
+            state.lastEventId = lastEventId;
+            LocalDateTime now = LocalDateTime.now();
+            for (RentalEvent event : batch) {
+                state.latency.record(Duration.between(event.getRecordedAt(), now));
+            }
+            state.delivered.increment(batch.size());
+            state.consecutiveFailures = 0;
+            state.lastError = null;
+            state.retryAt = null;
+        } while (batch.size() == batchSize);
+    }
+    
+    private void measureLag(SinkState state) {
+        state.oldestPending = eventRepository.findFirstByIdGreaterThanOrderById(state.lastEventId)
+                .map(RentalEvent::getRecordedAt)
+                .orElse(null);
+        state.pending = state.oldestPending == null ? 0 : eventRepository.countByIdGreaterThan(state.lastEventId);
+    }
+}
\ No newline at end of file
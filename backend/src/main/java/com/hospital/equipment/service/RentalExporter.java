@@ -0,0 +1,127 @@
+package com.hospital.equipment.service;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.stream.Stream;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.hospital.equipment.dto.RentalView;
+import com.hospital.equipment.entity.Rental;
+import com.hospital.equipment.entity.RentalRecord;
+import com.hospital.equipment.repository.RentalSpecifications;
+
+// Full rental history for audits, archived rentals included. Rows are read through a forward-only cursor and written out as
+// they arrive, so memory use is the same for ten rows or ten million.
+@Service
+public class RentalExporter {
+    
+    private static final int FETCH_SIZE = 500;
+    private static final int BUFFER_SIZE = 64 * 1024;
+    
+    private static final String CSV_HEADER = "id,status,startDate,endDate,actualReturnDate,quantity,dailyRate,"
+            + "totalAmount,customerId,customerFirstName,customerLastName,customerEmail,customerPhone,"
+            + "equipmentId,equipmentName,createdAt,updatedAt,notes";
+    
+    private final ProjectionQueries projectionQueries;
+    // The row writer must not flush after every value; the buffered stream decides when to send
+    private final ObjectWriter jsonWriter;
+    
+    @Autowired
+    public RentalExporter(ProjectionQueries projectionQueries, ObjectMapper objectMapper) {
+        this.projectionQueries = projectionQueries;
+        this.jsonWriter = objectMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+    }
+    
+    // Rentals whose period overlaps [from, to] (either end optional) with the given status, in id order
+    @Transactional(readOnly = true)
+    public void export(FileFormat format, LocalDate from, LocalDate to, Rental.RentalStatus status, OutputStream out)
+            throws IOException {
+        Specification<RentalRecord> filter = Specification.where(null);
+        if (from != null) {
+            filter = filter.and(RentalSpecifications.endsOnOrAfter(from));
+        }
+        if (to != null) {
+            filter = filter.and(RentalSpecifications.startsOnOrBefore(to));
+        }
+        if (status != null) {
+            filter = filter.and(RentalSpecifications.hasStatus(status));
+        }
+        try (Stream<RentalView> rentals = projectionQueries.stream(RentalService.viewFor(status), filter, FETCH_SIZE)) {
+            if (format == FileFormat.CSV) {
+                writeCsv(rentals, out);
+            } else {
+                writeNdjson(rentals, out);
+            }
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+    
+    private void writeNdjson(Stream<RentalView> rentals, OutputStream out) throws IOException {
+        try (JsonGenerator json = jsonWriter.getFactory().createGenerator(out)) {
+            json.setRootValueSeparator(null);
+            rentals.forEach(rental -> {
+                try {
+                    jsonWriter.writeValue(json, rental);
+                    json.writeRaw('\n');
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        }
+    }
+    
+    private void writeCsv(Stream<RentalView> rentals, OutputStream out) throws IOException {
+        Writer csv = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), BUFFER_SIZE);
+        csv.write(CSV_HEADER);
+        csv.write("\r\n");
+        rentals.forEach(rental -> {
+            try {
+                writeCsvRow(csv, rental.id(), rental.status(), rental.startDate(), rental.endDate(),
+                        rental.actualReturnDate(), rental.quantity(), rental.dailyRate(), rental.totalAmount(),
+                        rental.customer().id(), rental.customer().firstName(), rental.customer().lastName(),
+                        rental.customer().email(), rental.customer().phone(), rental.equipment().id(),
+                        rental.equipment().name(), rental.createdAt(), rental.updatedAt(), rental.notes());
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        csv.flush();
+    }
+    
+    // RFC 4180: a field with a comma, quote or line break is quoted, with quotes doubled
+    private static void writeCsvRow(Writer csv, Object... fields) throws IOException {
+        for (int i = 0; i < fields.length; i++) {
+            if (i > 0) {
+                csv.write(',');
+            }
+            if (fields[i] == null) {
+                continue;
+            }
+            String field = fields[i].toString();
+            if (field.indexOf(',') >= 0 || field.indexOf('"') >= 0 || field.indexOf('\n') >= 0
+                    || field.indexOf('\r') >= 0) {
+                csv.write('"');
+                csv.write(field.replace("\"", "\"\""));
+                csv.write('"');
+            } else {
+                csv.write(field);
+            }
+        }
+        csv.write("\r\n");
+    }
+}
\ No newline at end of file
@@ -0,0 +1,337 @@
+package com.hospital.equipment.service;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Optional;
+import java.util.TreeSet;
+import java.util.function.Predicate;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.hospital.equipment.dto.LedgerSnapshotResult;
+import com.hospital.equipment.entity.Rental;
+import com.hospital.equipment.entity.RentalEvent;
+import com.hospital.equipment.entity.RentalLedgerSnapshot;
+import com.hospital.equipment.event.RentalChangeRecordedEvent;
+import com.hospital.equipment.event.RentalChangedEvent;
+import com.hospital.equipment.event.RentalLedgerEntry;
+import com.hospital.equipment.event.RentalSnapshot;
+import com.hospital.equipment.repository.RentalEventRepository;
+import com.hospital.equipment.repository.RentalLedgerSnapshotRepository;
+
+import jakarta.persistence.EntityManager;
+
+// Append-only ledger of rental changes (rental_events) with periodic snapshots of the state it adds
+// up to (rental_snapshots). The current state of every rental is rebuilt from the latest snapshot
+// plus the events recorded since, rather than by scanning the rentals table.
+//
+// Replays read events in id order and resume after the last id they saw. Ids come from
+// rental_event_seq and only grow within this process, but transactions commit in any order: a reader
+// could see event 12 committed while 11 is still pending and skip 11 for good. Ids handed out and
+// not yet committed or rolled back are therefore tracked, and readers stop below the lowest of them
+// (committedThrough). Ids of rolled-back transactions are never used, so readers expect gaps.
+// Two changes to one rental still get ids in commit order: the second waits for the first's row
+// lock when it flushes, and only takes its id after that.
+@Component
+public class RentalLedger {
+    
+    private static final int REPLAY_PAGE = 5000;
+    private static final int SNAPSHOT_FORMAT = 1;
+    private static final int NO_DATE = Integer.MIN_VALUE;
+    
+    private final RentalEventRepository eventRepository;
+    private final RentalLedgerSnapshotRepository snapshotRepository;
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final long snapshotMinEvents;
+    
+    // Guarded by itself; lastAssigned is -1 until read from the table
+    private final NavigableSet<Long> inFlight = new TreeSet<>();
+    private long lastAssigned = -1;
+    
+    // Rentals as of one ledger event
+    public record State(long lastEventId, Map<Long, RentalSnapshot> rentals, int eventsReplayed) {
+    }
+    
+    // The events of one transaction, appended as it commits
+    private final class PendingEvents implements TransactionSynchronization {
+        
+        private final List<RentalEvent> events = new ArrayList<>();
+        private final List<RentalChangedEvent> changes = new ArrayList<>();
+        private List<Long> ids = List.of();
+        
+        @Override
+        public void beforeCommit(boolean readOnly) {
+            // The transaction's own writes go out first, so its rows are locked before it takes ids
+            entityManager.flush();
+            ids = assign(events);
+            entityManager.flush();
+        }
+        
+        @Override
+        public void afterCompletion(int status) {
+            TransactionSynchronizationManager.unbindResourceIfPossible(RentalLedger.this);
+            try {
+                if (status == STATUS_COMMITTED) {
+                    for (int i = 0; i < events.size(); i++) {
+                        eventPublisher.publishEvent(new RentalChangeRecordedEvent(ids.get(i), changes.get(i)));
+                    }
+                }
+            } finally {
+                release(ids);
+            }
+        }
+    }
+    
+    @Autowired
+    public RentalLedger(RentalEventRepository eventRepository, RentalLedgerSnapshotRepository snapshotRepository,
+                        EntityManager entityManager, PlatformTransactionManager transactionManager,
+                        ApplicationEventPublisher eventPublisher,
+                        @Value("${rental.ledger.snapshot-min-events:10000}") long snapshotMinEvents) {
+        this.eventRepository = eventRepository;
+        this.snapshotRepository = snapshotRepository;
+        this.entityManager = entityManager;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.eventPublisher = eventPublisher;
+        this.snapshotMinEvents = snapshotMinEvents;
+    }
+    
+    // Runs inside the publishing transaction, so the event commits or rolls back with the change
+    @EventListener
+    public void onRentalChanged(RentalChangedEvent event) {
+        RentalEvent entry = new RentalEvent(typeOf(event.before(), event.after()), event.rentalId(), event.after());
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            List<Long> ids = new ArrayList<>();
+            try {
+                transactionTemplate.executeWithoutResult(status -> ids.addAll(assign(List.of(entry))));
+                eventPublisher.publishEvent(new RentalChangeRecordedEvent(ids.get(0), event));
+            } finally {
+                release(ids);
+            }
+            return;
+        }
+        PendingEvents pending = (PendingEvents) TransactionSynchronizationManager.getResource(this);
+        if (pending == null) {
+            pending = new PendingEvents();
+            TransactionSynchronizationManager.bindResource(this, pending);
+            TransactionSynchronizationManager.registerSynchronization(pending);
+        }
+        pending.events.add(entry);
+        pending.changes.add(event);
+    }
+    
+    // Highest id below which every event has committed or rolled back
+    public long committedThrough() {
+        synchronized (inFlight) {
+            initialize();
+            return inFlight.isEmpty() ? lastAssigned : inFlight.first() - 1;
+        }
+    }
+    
+    public List<RentalEvent> getHistory(Long rentalId) {
+        return eventRepository.findByRentalIdOrderById(rentalId);
+    }
+    
+    // Rentals matching the filter as of the latest event. Rentals are dropped as soon as they stop
+    // matching; each event carries the whole rental, so a later match is restored from it alone.
+    public State replay(Predicate<RentalSnapshot> filter) {
+        Map<Long, RentalSnapshot> rentals = new HashMap<>();
+        long lastEventId = 0;
+        Optional<RentalLedgerSnapshot> snapshot = snapshotRepository.findFirstByOrderByLastEventIdDesc();
+        if (snapshot.isPresent() && read(snapshot.get().getData(), filter, rentals)) {
+            lastEventId = snapshot.get().getLastEventId();
+        } else {
+            rentals.clear();
+        }
+        
+        long upTo = committedThrough();
+        int replayed = 0;
+        List<RentalLedgerEntry> page;
+        do {
+            page = eventRepository.findAfter(lastEventId, upTo, PageRequest.ofSize(REPLAY_PAGE));
+            for (RentalLedgerEntry entry : page) {
+                if (entry.rental() != null && filter.test(entry.rental())) {
+                    rentals.put(entry.rentalId(), entry.rental());
+                } else {
+                    rentals.remove(entry.rentalId());
+                }
+                lastEventId = entry.eventId();
+            }
+            replayed += page.size();
+        } while (page.size() == REPLAY_PAGE);
+        return new State(lastEventId, rentals, replayed);
+    }
+    
+    @Scheduled(fixedDelayString = "${rental.ledger.snapshot-check-interval-ms:60000}",
+               initialDelayString = "${rental.ledger.snapshot-check-interval-ms:60000}")
+    public void snapshotIfDue() {
+        if (eventRepository.countByIdGreaterThan(snapshotRepository.findLatestEventId()) >= snapshotMinEvents) {
+            takeSnapshot();
+        }
+    }
+    
+    // Writes a snapshot as of the latest event and drops the older ones
+    public synchronized LedgerSnapshotResult takeSnapshot() {
+        long started = System.nanoTime();
+        State state = replay(rental -> true);
+        if (state.eventsReplayed() == 0) {
+            return new LedgerSnapshotResult(false, state.lastEventId(), state.rentals().size(), 0, 0,
+                                            (System.nanoTime() - started) / 1_000_000);
+        }
+        byte[] data = write(state.rentals());
+        transactionTemplate.executeWithoutResult(status -> {
+            entityManager.persist(new RentalLedgerSnapshot(state.lastEventId(), state.rentals().size(), data));
+            snapshotRepository.deleteOlderThan(state.lastEventId());
+        });
+        return new LedgerSnapshotResult(true, state.lastEventId(), state.rentals().size(), state.eventsReplayed(),
+                                        data.length, (System.nanoTime() - started) / 1_000_000);
+    }
+    
+    // Persisting draws the ids from the sequence; they are registered before any reader can look
+    private List<Long> assign(List<RentalEvent> events) {
+        List<Long> ids = new ArrayList<>(events.size());
+        synchronized (inFlight) {
+            initialize();
+            for (RentalEvent event : events) {
+                entityManager.persist(event);
+                ids.add(event.getId());
+                lastAssigned = Math.max(lastAssigned, event.getId());
+            }
+            inFlight.addAll(ids);
+        }
+        return ids;
+    }
+    
+    private void release(List<Long> ids) {
+        synchronized (inFlight) {
+            ids.forEach(inFlight::remove);
+        }
+    }
+    
+    private void initialize() {
+        if (lastAssigned < 0) {
+            lastAssigned = eventRepository.findLatestId();
+        }
+    }
+    
+    private static RentalEvent.Type typeOf(RentalSnapshot before, RentalSnapshot after) {
+        if (before == null) {
+            return RentalEvent.Type.CREATED;
+        }
+        if (after == null) {
+            return RentalEvent.Type.DELETED;
+        }
+        if (before.status() == after.status()) {
+            return RentalEvent.Type.UPDATED;
+        }
+        return switch (after.status()) {
+            case CONFIRMED -> RentalEvent.Type.CONFIRMED;
+            case ACTIVE -> RentalEvent.Type.ACTIVATED;
+            case COMPLETED -> RentalEvent.Type.RETURNED;
+            case CANCELLED -> RentalEvent.Type.CANCELLED;
+            case OVERDUE -> RentalEvent.Type.OVERDUE;
+            case PENDING -> RentalEvent.Type.UPDATED;
+        };
+    }
+    
+    // Layout: format, the status names in ordinal order, the rental count, then per rental its ids,
+    // dates as epoch days, quantity, amounts as unscaled value and scale, and status ordinal
+    static byte[] write(Map<Long, RentalSnapshot> rentals) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(rentals.size() * 64 + 64);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeInt(SNAPSHOT_FORMAT);
+            Rental.RentalStatus[] statuses = Rental.RentalStatus.values();
+            out.writeByte(statuses.length);
+            for (Rental.RentalStatus status : statuses) {
+                out.writeUTF(status.name());
+            }
+            out.writeInt(rentals.size());
+            for (RentalSnapshot rental : rentals.values()) {
+                out.writeLong(rental.id());
+                out.writeLong(rental.equipmentId());
+                out.writeLong(rental.customerId());
+                out.writeInt((int) rental.startDate().toEpochDay());
+                out.writeInt((int) rental.endDate().toEpochDay());
+                out.writeInt(rental.actualReturnDate() == null ? NO_DATE : (int) rental.actualReturnDate().toEpochDay());
+                out.writeInt(rental.quantity());
+                writeAmount(out, rental.dailyRate());
+                writeAmount(out, rental.totalAmount());
+                out.writeByte(rental.status().ordinal());
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+    
+    // False if the snapshot is in a layout this version cannot read or is damaged; replay then starts from scratch
+    static boolean read(byte[] data, Predicate<RentalSnapshot> filter, Map<Long, RentalSnapshot> rentals) {
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(data))) {
+            if (in.readInt() != SNAPSHOT_FORMAT) {
+                return false;
+            }
+            Rental.RentalStatus[] statuses = new Rental.RentalStatus[in.readUnsignedByte()];
+            for (int i = 0; i < statuses.length; i++) {
+                statuses[i] = Rental.RentalStatus.valueOf(in.readUTF());
+            }
+            int count = in.readInt();
+            for (int i = 0; i < count; i++) {
+                long id = in.readLong();
+                long equipmentId = in.readLong();
+                long customerId = in.readLong();
+                LocalDate startDate = LocalDate.ofEpochDay(in.readInt());
+                LocalDate endDate = LocalDate.ofEpochDay(in.readInt());
+                int returned = in.readInt();
+                LocalDate actualReturnDate = returned == NO_DATE ? null : LocalDate.ofEpochDay(returned);
+                int quantity = in.readInt();
+                BigDecimal dailyRate = readAmount(in);
+                BigDecimal totalAmount = readAmount(in);
+                RentalSnapshot rental = new RentalSnapshot(id, equipmentId, customerId, startDate, endDate,
+                        actualReturnDate, quantity, dailyRate, totalAmount, statuses[in.readUnsignedByte()]);
+                if (filter.test(rental)) {
+                    rentals.put(id, rental);
+                }
+            }
+            return true;
+        } catch (IOException | IllegalArgumentException | IndexOutOfBoundsException e) {
+            return false;
+        }
+    }
+    
+    private static void writeAmount(DataOutputStream out, BigDecimal amount) throws IOException {
+        byte[] unscaled = amount.unscaledValue().toByteArray();
+        out.writeByte(amount.scale());
+        out.writeByte(unscaled.length);
+        out.write(unscaled);
+    }
+    
+    private static BigDecimal readAmount(DataInputStream in) throws IOException {
+        int scale = in.readByte();
+        byte[] unscaled = new byte[in.readUnsignedByte()];
+        in.readFully(unscaled);
+        return new BigDecimal(new BigInteger(unscaled), scale);
+    }
+}
\ No newline at end of file
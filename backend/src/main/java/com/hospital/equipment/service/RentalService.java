@@ -2,39 +2,136 @@ package com.hospital.equipment.service;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import jakarta.persistence.criteria.Join;
+
+import com.hospital.equipment.dto.AvailabilityCalendar;
+import com.hospital.equipment.dto.AvailabilityQuery;
+import com.hospital.equipment.dto.AvailabilityResult;
+import com.hospital.equipment.dto.AvailabilityWindow;
+import com.hospital.equipment.dto.BulkRentalResult;
+import com.hospital.equipment.dto.CursorPage;
+import com.hospital.equipment.dto.EquipmentWindow;
+import com.hospital.equipment.dto.PageQuery;
+import com.hospital.equipment.dto.RentalView;
+import com.hospital.equipment.dto.ReservationHold;
 import com.hospital.equipment.entity.Customer;
 import com.hospital.equipment.entity.Equipment;
+import com.hospital.equipment.entity.ArchivedRental;
 import com.hospital.equipment.entity.Rental;
+import com.hospital.equipment.entity.RentalRecord;
+import com.hospital.equipment.event.RentalChangedEvent;
+import com.hospital.equipment.event.RentalSnapshot;
 import com.hospital.equipment.repository.RentalRepository;
+import com.hospital.equipment.repository.RentalSpecifications;
 
 @Service
 @Transactional
 public class RentalService {
     
+    private static final Set<String> SORTABLE = Set.of("startDate", "endDate", "createdAt");
+    private static final int MAX_WINDOWS = 100;
+    
+    // Inner joins are safe: customer and equipment are mandatory on every rental. VIEW reads live and
+    // archived rentals, LIVE_VIEW only the rentals table.
+    static final Projection<RentalRecord, RentalView> VIEW = new Projection<>(RentalRecord.class, RentalView.class,
+            root -> {
+                Join<Object, Object> customer = root.join("customer");
+                Join<Object, Object> equipment = root.join("equipment");
+                return List.of(root.get("id"), root.get("startDate"), root.get("endDate"),
+                        root.get("actualReturnDate"), root.get("quantity"), root.get("dailyRate"),
+                        root.get("totalAmount"), root.get("status"), root.get("createdAt"), root.get("updatedAt"),
+                        root.get("notes"), customer.get("id"), customer.get("firstName"), customer.get("lastName"),
+                        customer.get("email"), customer.get("phone"), equipment.get("id"), equipment.get("name"));
+            });
+    static final Projection<RentalRecord, RentalView> LIVE_VIEW =
+            new Projection<RentalRecord, RentalView>(Rental.class, RentalView.class, VIEW.columns());
+    
     private final RentalRepository rentalRepository;
     private final EquipmentService equipmentService;
     private final CustomerService customerService;
+    private final BookingCalendarIndex bookingCalendarIndex;
+    private final ReservationHoldService holdService;
+    private final OverdueRentalTracker overdueRentalTracker;
+    private final ProjectionQueries projectionQueries;
+    private final ApplicationEventPublisher eventPublisher;
+    private final BookingConcurrencyMode concurrencyMode;
     
     @Autowired
     public RentalService(RentalRepository rentalRepository, 
                         EquipmentService equipmentService,
-                        CustomerService customerService) {
+                        CustomerService customerService,
+                        BookingCalendarIndex bookingCalendarIndex,
+                        ReservationHoldService holdService,
+                        OverdueRentalTracker overdueRentalTracker,
+                        ProjectionQueries projectionQueries,
+                        ApplicationEventPublisher eventPublisher,
+                        @Value("${rental.booking.concurrency:STRIPED}") BookingConcurrencyMode concurrencyMode) {
         this.rentalRepository = rentalRepository;
         this.equipmentService = equipmentService;
         this.customerService = customerService;
+        this.bookingCalendarIndex = bookingCalendarIndex;
+        this.holdService = holdService;
+        this.overdueRentalTracker = overdueRentalTracker;
+        this.projectionQueries = projectionQueries;
+        this.eventPublisher = eventPublisher;
+        this.concurrencyMode = concurrencyMode;
     }
     
     public List<Rental> getAllRentals() {
         return rentalRepository.findAll();
     }
     
+    @Transactional(readOnly = true)
+    public List<RentalView> getRentalViews(Specification<RentalRecord> filter) {
+        return projectionQueries.list(VIEW, filter);
+    }
+    
+    @Transactional(readOnly = true)
+    public CursorPage<RentalView> getRentalPage(Specification<RentalRecord> filter, PageQuery page) {
+        return projectionQueries.page(VIEW, filter, page, SORTABLE);
+    }
+    
+    @Transactional(readOnly = true)
+    public List<RentalView> getRentalViewsByStatus(Rental.RentalStatus status) {
+        return projectionQueries.list(viewFor(status), RentalSpecifications.hasStatus(status));
+    }
+    
+    @Transactional(readOnly = true)
+    public CursorPage<RentalView> getRentalPageByStatus(Rental.RentalStatus status, PageQuery page) {
+        return projectionQueries.page(viewFor(status), RentalSpecifications.hasStatus(status), page, SORTABLE);
+    }
+    
+    // Rentals in any other status are never archived, so their listings need not read the archive
+    static Projection<RentalRecord, RentalView> viewFor(Rental.RentalStatus status) {
+        return status == null || ArchivedRental.STATUSES.contains(status) ? VIEW : LIVE_VIEW;
+    }
+    
+    @Transactional(readOnly = true)
+    public Optional<RentalView> getRentalView(Long id) {
+        return projectionQueries.findOne(VIEW, RentalSpecifications.withId(id));
+    }
+    
     public Optional<Rental> getRentalById(Long id) {
         return rentalRepository.findById(id);
     }
@@ -56,7 +153,42 @@ public class RentalService {
     }
     
     public List<Rental> getOverdueRentals() {
-        return rentalRepository.findOverdueRentals(LocalDate.now());
+        List<Rental> rentals = new ArrayList<>(
+                rentalRepository.findAllById(overdueRentalTracker.getOverdueRentalIds(LocalDate.now())));
+        rentals.sort(Comparator.comparing(Rental::getEndDate));
+        return rentals;
+    }
+    
+    @Transactional(readOnly = true)
+    public List<RentalView> getOverdueRentalViews() {
+        Set<Long> ids = overdueRentalTracker.getOverdueRentalIds(LocalDate.now());
+        List<RentalView> rentals = new ArrayList<>(projectionQueries.list(LIVE_VIEW, RentalSpecifications.idIn(ids)));
+        rentals.sort(Comparator.comparing(RentalView::endDate));
+        return rentals;
+    }
+    
+    @Transactional(readOnly = true)
+    public CursorPage<RentalView> getOverdueRentalPage(PageQuery page) {
+        Set<Long> ids = overdueRentalTracker.getOverdueRentalIds(LocalDate.now());
+        return projectionQueries.page(LIVE_VIEW, RentalSpecifications.idIn(ids), page, SORTABLE);
+    }
+    
+    // Marks the given rentals OVERDUE if they are still ACTIVE past their end date.
+    // The status changes are flushed together as one JDBC batch.
+    public int markOverdue(Collection<Long> rentalIds, LocalDate today) {
+        List<RentalChangedEvent> events = new ArrayList<>();
+        List<Rental> overdue = new ArrayList<>();
+        for (Rental rental : rentalRepository.findAllById(rentalIds)) {
+            if (rental.getStatus() == Rental.RentalStatus.ACTIVE && rental.getEndDate().isBefore(today)) {
+                RentalSnapshot before = RentalSnapshot.of(rental);
+                rental.setStatus(Rental.RentalStatus.OVERDUE);
+                overdue.add(rental);
+                events.add(new RentalChangedEvent(before, RentalSnapshot.of(rental)));
+            }
+        }
+        rentalRepository.saveAll(overdue);
+        events.forEach(eventPublisher::publishEvent);
+        return overdue.size();
     }
     
     public List<Rental> getActiveRentalsOnDate(LocalDate date) {
@@ -64,6 +196,11 @@ public class RentalService {
     }
     
     public Rental createRental(Rental rental) {
+        return createRental(rental, null);
+    }
+    
+    // With a holdId the booking takes over the quantity set aside by that hold
+    public Rental createRental(Rental rental, UUID holdId) {
         // Validate customer exists
         Customer customer = customerService.getCustomerById(rental.getCustomer().getId())
                 .orElseThrow(() -> new RuntimeException("Customer not found"));
@@ -72,9 +209,28 @@ public class RentalService {
         Equipment equipment = equipmentService.getEquipmentById(rental.getEquipment().getId())
                 .orElseThrow(() -> new RuntimeException("Equipment not found"));
         
+        if (holdId != null) {
+            ReservationHold hold = holdService.take(holdId)
+                    .orElseThrow(() -> new IllegalArgumentException("Hold not found or expired"));
+            // Give the hold back if the booking does not commit
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status != STATUS_COMMITTED) {
+                        holdService.restore(hold);
+                    }
+                }
+            });
+            if (!hold.equipmentId().equals(equipment.getId())
+                    || rental.getStartDate().isBefore(hold.startDate())
+                    || rental.getEndDate().isAfter(hold.endDate())
+                    || rental.getQuantity() > hold.quantity()) {
+                throw new IllegalArgumentException("Rental does not fit within the hold");
+            }
+        }
+        
         // Check availability for the requested period
-        if (!isEquipmentAvailable(equipment.getId(), rental.getStartDate(), 
-                                 rental.getEndDate(), rental.getQuantity())) {
+        if (!isBookable(equipment, rental.getStartDate(), rental.getEndDate(), rental.getQuantity())) {
             throw new IllegalArgumentException("Equipment not available for the requested period and quantity");
         }
         
@@ -90,9 +246,119 @@ public class RentalService {
         // Update equipment availability
         equipmentService.updateAvailableQuantity(equipment.getId(), -rental.getQuantity());
         
+        eventPublisher.publishEvent(new RentalChangedEvent(null, RentalSnapshot.of(savedRental)));
         return savedRental;
     }
     
+    // Books many rentals in one transaction. Lookups and the booked-quantity read are one query each,
+    // and the inserts and equipment updates go out as JDBC batches. With partial=false any invalid
+    // request rejects the whole batch; with partial=true the valid requests are still booked.
+    public BulkRentalResult createRentals(List<Rental> requests, boolean partial) {
+        Map<Long, Customer> customers = customerService.getCustomersByIds(
+                        requests.stream().map(r -> r.getCustomer().getId()).collect(Collectors.toSet()))
+                .stream()
+                .collect(Collectors.toMap(Customer::getId, Function.identity()));
+        Map<Long, Equipment> equipmentById = equipmentService.getEquipmentByIds(
+                        requests.stream().map(r -> r.getEquipment().getId()).collect(Collectors.toSet()))
+                .stream()
+                .collect(Collectors.toMap(Equipment::getId, Function.identity()));
+        
+        // Committed bookings plus the ones accepted so far in this batch, per equipment
+        Map<Long, BookingCalendar> booked = new HashMap<>();
+        LocalDate earliestStart = requests.stream()
+                .map(Rental::getStartDate)
+                .filter(date -> date != null)
+                .min(Comparator.naturalOrder())
+                .orElse(LocalDate.now());
+        for (Rental existing : rentalRepository.findBookedRentalsEndingOnOrAfter(equipmentById.keySet(), earliestStart)) {
+            booked.computeIfAbsent(existing.getEquipment().getId(), id -> new BookingCalendar())
+                    .add(existing.getStartDate(), existing.getEndDate(), existing.getQuantity());
+        }
+        for (Long equipmentId : equipmentById.keySet()) {
+            for (ReservationHold hold : holdService.getActiveHolds(equipmentId)) {
+                booked.computeIfAbsent(equipmentId, id -> new BookingCalendar())
+                        .add(hold.startDate(), hold.endDate(), hold.quantity());
+            }
+        }
+        Map<Long, Integer> reservedUnits = new HashMap<>();
+        
+        List<Rental> accepted = new ArrayList<>();
+        List<BulkRentalResult.Error> errors = new ArrayList<>();
+        for (int i = 0; i < requests.size(); i++) {
+            Rental rental = requests.get(i);
+            Customer customer = customers.get(rental.getCustomer().getId());
+            Equipment equipment = equipmentById.get(rental.getEquipment().getId());
+            String error = null;
+            if (customer == null) {
+                error = "Customer not found";
+            } else if (equipment == null) {
+                error = "Equipment not found";
+            } else if (rental.getStartDate() == null || rental.getEndDate() == null
+                    || rental.getEndDate().isBefore(rental.getStartDate())
+                    || rental.getQuantity() == null || rental.getQuantity() <= 0) {
+                error = "startDate <= endDate and a positive quantity are required";
+            } else {
+                BookingCalendar calendar = booked.computeIfAbsent(equipment.getId(), id -> new BookingCalendar());
+                int bookedQuantity = calendar.getPeak(rental.getStartDate(), rental.getEndDate());
+                // Same date-range rule as a single booking (isBookable)
+                if (equipment.getStatus() != Equipment.EquipmentStatus.AVAILABLE
+                        || equipment.getTotalQuantity() - bookedQuantity < rental.getQuantity()) {
+                    error = "Equipment not available for the requested period and quantity";
+                } else {
+                    calendar.add(rental.getStartDate(), rental.getEndDate(), rental.getQuantity());
+                    reservedUnits.merge(equipment.getId(), rental.getQuantity(), Integer::sum);
+                }
+            }
+            
+            if (error != null) {
+                errors.add(new BulkRentalResult.Error(i, error));
+                continue;
+            }
+            rental.setCustomer(customer);
+            rental.setEquipment(equipment);
+            rental.setDailyRate(equipment.getDailyPrice());
+            rental.setTotalAmount(rental.calculateTotalAmount());
+            accepted.add(rental);
+        }
+        
+        if (!errors.isEmpty() && !partial) {
+            return new BulkRentalResult(List.of(), errors);
+        }
+        
+        List<Rental> saved = rentalRepository.saveAll(accepted);
+        // One counter update per equipment rather than per rental
+        reservedUnits.forEach((equipmentId, units) -> equipmentService.updateAvailableQuantity(equipmentId, -units));
+        for (Rental rental : saved) {
+            eventPublisher.publishEvent(new RentalChangedEvent(null, RentalSnapshot.of(rental)));
+        }
+        return new BulkRentalResult(saved, errors);
+    }
+    
+    // Sets quantity aside for a short time; RentalBookingService supplies the concurrency control
+    public ReservationHold placeHold(Long equipmentId, LocalDate startDate, LocalDate endDate,
+                                     Integer quantity, Integer ttlSeconds) {
+        if (startDate == null || endDate == null || endDate.isBefore(startDate)
+                || quantity == null || quantity <= 0) {
+            throw new IllegalArgumentException("startDate <= endDate and a positive quantity are required");
+        }
+        Equipment equipment = equipmentService.getEquipmentById(equipmentId)
+                .orElseThrow(() -> new RuntimeException("Equipment not found"));
+        if (!isBookable(equipment, startDate, endDate, quantity)) {
+            throw new IllegalArgumentException("Equipment not available for the requested period and quantity");
+        }
+        
+        ReservationHold hold = holdService.register(equipmentId, startDate, endDate, quantity, ttlSeconds);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status != STATUS_COMMITTED) {
+                    holdService.release(hold.id());
+                }
+            }
+        });
+        return hold;
+    }
+    
     public Rental updateRental(Long id, Rental rentalDetails) {
         Rental rental = rentalRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Rental not found with id: " + id));
@@ -102,19 +368,23 @@ public class RentalService {
             throw new IllegalStateException("Cannot update completed rental");
         }
         
+        RentalSnapshot before = RentalSnapshot.of(rental);
         rental.setStartDate(rentalDetails.getStartDate());
         rental.setEndDate(rentalDetails.getEndDate());
         rental.setQuantity(rentalDetails.getQuantity());
         rental.setNotes(rentalDetails.getNotes());
         rental.setTotalAmount(rental.calculateTotalAmount());
         
-        return rentalRepository.save(rental);
+        Rental savedRental = rentalRepository.save(rental);
+        eventPublisher.publishEvent(new RentalChangedEvent(before, RentalSnapshot.of(savedRental)));
+        return savedRental;
     }
     
     public Rental updateRentalStatus(Long id, Rental.RentalStatus status) {
         Rental rental = rentalRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Rental not found with id: " + id));
         
+        RentalSnapshot before = RentalSnapshot.of(rental);
         Rental.RentalStatus oldStatus = rental.getStatus();
         rental.setStatus(status);
         
@@ -128,7 +398,9 @@ public class RentalService {
             equipmentService.updateAvailableQuantity(rental.getEquipment().getId(), rental.getQuantity());
         }
         
-        return rentalRepository.save(rental);
+        Rental savedRental = rentalRepository.save(rental);
+        eventPublisher.publishEvent(new RentalChangedEvent(before, RentalSnapshot.of(savedRental)));
+        return savedRental;
     }
     
     public void deleteRental(Long id) {
@@ -137,8 +409,9 @@ public class RentalService {
         
         // Only allow deletion of pending or cancelled rentals
         if (rental.getStatus() == Rental.RentalStatus.ACTIVE || 
+            rental.getStatus() == Rental.RentalStatus.OVERDUE ||
             rental.getStatus() == Rental.RentalStatus.COMPLETED) {
-            throw new IllegalStateException("Cannot delete active or completed rental");
+            throw new IllegalStateException("Cannot delete active, overdue or completed rental");
         }
         
         // If rental was pending, return equipment to available pool
@@ -148,6 +421,7 @@ public class RentalService {
         }
         
         rentalRepository.delete(rental);
+        eventPublisher.publishEvent(new RentalChangedEvent(RentalSnapshot.of(rental), null));
     }
     
     public boolean isEquipmentAvailable(Long equipmentId, LocalDate startDate, 
@@ -160,24 +434,194 @@ public class RentalService {
             return false;
         }
         
-        // Get total booked quantity for the period
-        Integer bookedQuantity = rentalRepository.getTotalBookedQuantity(equipmentId, startDate, endDate);
-        if (bookedQuantity == null) {
-            bookedQuantity = 0;
-        }
+        // Peak units booked on any single day of the period
+        int bookedQuantity = bookingCalendarIndex.getPeakBookedQuantity(equipmentId, startDate, endDate);
         
         // Check if requested quantity is available
         return (equipment.getTotalQuantity() - bookedQuantity) >= requestedQuantity;
     }
     
-    public int getAvailableQuantityForPeriod(Long equipmentId, LocalDate startDate, LocalDate endDate) {
+    // Answers many availability checks with one equipment query; booked quantities come from the index
+    public List<AvailabilityResult> checkAvailability(List<AvailabilityQuery> queries) {
+        for (AvailabilityQuery query : queries) {
+            if (query.equipmentId() == null || query.startDate() == null || query.endDate() == null
+                    || query.quantity() == null || query.endDate().isBefore(query.startDate())) {
+                throw new IllegalArgumentException("Each query needs equipmentId, startDate <= endDate and quantity");
+            }
+        }
+        
+        Map<Long, Equipment> equipmentById = equipmentService.getEquipmentByIds(
+                        queries.stream().map(AvailabilityQuery::equipmentId).collect(Collectors.toSet()))
+                .stream()
+                .collect(Collectors.toMap(Equipment::getId, Function.identity()));
+        
+        List<AvailabilityResult> results = new ArrayList<>(queries.size());
+        for (AvailabilityQuery query : queries) {
+            Equipment equipment = equipmentById.get(query.equipmentId());
+            int availableQuantity = 0;
+            boolean available = false;
+            if (equipment != null) {
+                int bookedQuantity = bookingCalendarIndex.getPeakBookedQuantity(
+                        equipment.getId(), query.startDate(), query.endDate());
+                availableQuantity = Math.max(0, equipment.getTotalQuantity() - bookedQuantity);
+                available = equipment.getStatus() == Equipment.EquipmentStatus.AVAILABLE
+                        && availableQuantity >= query.quantity();
+            }
+            results.add(new AvailabilityResult(query.equipmentId(), query.startDate(), query.endDate(),
+                    query.quantity(), available, availableQuantity));
+        }
+        return results;
+    }
+    
+    public AvailabilityCalendar getAvailabilityCalendar(Long equipmentId, LocalDate from, LocalDate to) {
+        if (to.isBefore(from)) {
+            throw new IllegalArgumentException("to must not be before from");
+        }
         Equipment equipment = equipmentService.getEquipmentById(equipmentId)
                 .orElseThrow(() -> new RuntimeException("Equipment not found"));
         
-        Integer bookedQuantity = rentalRepository.getTotalBookedQuantity(equipmentId, startDate, endDate);
-        if (bookedQuantity == null) {
-            bookedQuantity = 0;
+        BookingTimeline timeline = new BookingTimeline();
+        for (Rental rental : rentalRepository.findConflictingRentals(equipmentId, from, to)) {
+            timeline.add(rental.getStartDate(), rental.getEndDate(), rental.getQuantity());
+        }
+        for (ReservationHold hold : holdService.getActiveHolds(equipmentId)) {
+            timeline.add(hold.startDate(), hold.endDate(), hold.quantity());
+        }
+        
+        boolean rentable = equipment.getStatus() == Equipment.EquipmentStatus.AVAILABLE;
+        List<AvailabilityCalendar.Run> runs = new ArrayList<>();
+        for (BookingTimeline.Run run : timeline.getRuns(from, to)) {
+            int available = rentable ? Math.max(0, equipment.getTotalQuantity() - run.booked()) : 0;
+            int last = runs.size() - 1;
+            if (last >= 0 && runs.get(last).available() == available) {
+                // Clamping can make neighbouring runs equal; keep the encoding minimal
+                runs.set(last, new AvailabilityCalendar.Run(runs.get(last).startDate(), run.endDate(), available));
+            } else {
+                runs.add(new AvailabilityCalendar.Run(run.startDate(), run.endDate(), available));
+            }
+        }
+        return new AvailabilityCalendar(equipmentId, from, to, equipment.getTotalQuantity(), runs);
+    }
+    
+    // First windows of durationDays consecutive days, starting no earlier than notBefore,
+    // in which quantity units are free. One query plus a sweep over the booked intervals.
+    public List<AvailabilityWindow> findAvailableWindows(Long equipmentId, int quantity, int durationDays,
+                                                         LocalDate notBefore, int limit) {
+        validateWindowRequest(quantity, durationDays);
+        if (limit < 1 || limit > MAX_WINDOWS) {
+            throw new IllegalArgumentException("limit must be between 1 and " + MAX_WINDOWS);
+        }
+        Equipment equipment = equipmentService.getEquipmentById(equipmentId)
+                .orElseThrow(() -> new RuntimeException("Equipment not found"));
+        if (equipment.getStatus() != Equipment.EquipmentStatus.AVAILABLE) {
+            return List.of();
+        }
+        
+        BookingTimeline timeline = new BookingTimeline();
+        for (Rental rental : rentalRepository.findBookedRentalsEndingOnOrAfter(List.of(equipmentId), notBefore)) {
+            timeline.add(rental.getStartDate(), rental.getEndDate(), rental.getQuantity());
+        }
+        for (ReservationHold hold : holdService.getActiveHolds(equipmentId)) {
+            timeline.add(hold.startDate(), hold.endDate(), hold.quantity());
+        }
+        return findWindows(timeline, equipment.getTotalQuantity() - quantity, durationDays, notBefore, limit);
+    }
+    
+    // Earliest window for every available item in the category, soonest first
+    public List<EquipmentWindow> findAvailableWindowsInCategory(Long categoryId, int quantity, int durationDays,
+                                                                LocalDate notBefore) {
+        validateWindowRequest(quantity, durationDays);
+        List<Equipment> candidates = equipmentService.getAvailableEquipmentByCategory(categoryId).stream()
+                .filter(equipment -> equipment.getTotalQuantity() >= quantity)
+                .toList();
+        if (candidates.isEmpty()) {
+            return List.of();
+        }
+        
+        Map<Long, BookingTimeline> timelines = new HashMap<>();
+        List<Long> equipmentIds = candidates.stream().map(Equipment::getId).toList();
+        for (Rental rental : rentalRepository.findBookedRentalsEndingOnOrAfter(equipmentIds, notBefore)) {
+            timelines.computeIfAbsent(rental.getEquipment().getId(), id -> new BookingTimeline())
+                    .add(rental.getStartDate(), rental.getEndDate(), rental.getQuantity());
+        }
+        for (Long equipmentId : equipmentIds) {
+            for (ReservationHold hold : holdService.getActiveHolds(equipmentId)) {
+                timelines.computeIfAbsent(equipmentId, id -> new BookingTimeline())
+                        .add(hold.startDate(), hold.endDate(), hold.quantity());
+            }
+        }
+        
+        List<EquipmentWindow> windows = new ArrayList<>();
+        for (Equipment equipment : candidates) {
+            BookingTimeline timeline = timelines.getOrDefault(equipment.getId(), new BookingTimeline());
+            for (AvailabilityWindow window : findWindows(timeline, equipment.getTotalQuantity() - quantity,
+                                                         durationDays, notBefore, 1)) {
+                windows.add(new EquipmentWindow(equipment.getId(), equipment.getName(), equipment.getDailyPrice(),
+                        window.startDate(), window.endDate(), window.freeUntil()));
+            }
+        }
+        windows.sort(Comparator.comparing(EquipmentWindow::startDate)
+                .thenComparing(EquipmentWindow::dailyPrice));
+        return windows;
+    }
+    
+    // Back-to-back windows through each free stretch, earliest first. The final stretch never closes,
+    // so it fills whatever is left of the limit.
+    static List<AvailabilityWindow> findWindows(BookingTimeline timeline, int maxBooked, int durationDays,
+                                                LocalDate notBefore, int limit) {
+        List<AvailabilityWindow> windows = new ArrayList<>();
+        for (BookingTimeline.Stretch stretch : timeline.getFreeStretches(notBefore, maxBooked)) {
+            LocalDate startDate = stretch.startDate();
+            while (windows.size() < limit) {
+                LocalDate endDate = startDate.plusDays(durationDays - 1);
+                if (stretch.endDate() != null && endDate.isAfter(stretch.endDate())) {
+                    break;
+                }
+                windows.add(new AvailabilityWindow(startDate, endDate, stretch.endDate()));
+                startDate = endDate.plusDays(1);
+            }
+            if (windows.size() >= limit) {
+                break;
+            }
         }
+        return windows;
+    }
+    
+    private void validateWindowRequest(int quantity, int durationDays) {
+        if (quantity <= 0 || durationDays <= 0) {
+            throw new IllegalArgumentException("quantity and durationDays must be positive");
+        }
+    }
+    
+    // Availability check used on the booking path itself
+    private boolean isBookable(Equipment equipment, LocalDate startDate, LocalDate endDate, Integer requestedQuantity) {
+        if (equipment.getStatus() != Equipment.EquipmentStatus.AVAILABLE) {
+            return false;
+        }
+        
+        int bookedQuantity;
+        if (concurrencyMode.isDatabaseCoordinated()) {
+            // The index only catches up after commit, so take committed bookings from the database
+            BookingCalendar committed = new BookingCalendar();
+            for (Rental conflict : rentalRepository.findConflictingRentals(equipment.getId(), startDate, endDate)) {
+                committed.add(conflict.getStartDate(), conflict.getEndDate(), conflict.getQuantity());
+            }
+            for (ReservationHold hold : holdService.getActiveHolds(equipment.getId())) {
+                committed.add(hold.startDate(), hold.endDate(), hold.quantity());
+            }
+            bookedQuantity = committed.getPeak(startDate, endDate);
+        } else {
+            bookedQuantity = bookingCalendarIndex.getPeakBookedQuantity(equipment.getId(), startDate, endDate);
+        }
+        
+        return (equipment.getTotalQuantity() - bookedQuantity) >= requestedQuantity;
+    }
+    
+    public int getAvailableQuantityForPeriod(Long equipmentId, LocalDate startDate, LocalDate endDate) {
+        Equipment equipment = equipmentService.getEquipmentById(equipmentId)
+                .orElseThrow(() -> new RuntimeException("Equipment not found"));
+        
+        int bookedQuantity = bookingCalendarIndex.getPeakBookedQuantity(equipmentId, startDate, endDate);
         
         return equipment.getTotalQuantity() - bookedQuantity;
     }
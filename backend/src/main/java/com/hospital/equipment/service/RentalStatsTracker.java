@@ -0,0 +1,128 @@
+package com.hospital.equipment.service;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import com.hospital.equipment.entity.Rental;
+import com.hospital.equipment.event.RentalChangeRecordedEvent;
+import com.hospital.equipment.event.RentalChangedEvent;
+import com.hospital.equipment.event.RentalSnapshot;
+
+// Rental count and revenue per status. Every committed rental change moves its old snapshot out of
+// the totals and its new one in, so reading them never touches the rentals table; recount()
+// replaces them with totals rebuilt from the rental ledger to correct any drift.
+//
+// The recount and the changes are matched by ledger id: the replay covers every change up to its last
+// event id, so a change at or below it is not applied again, and one above it that arrived while the
+// replay ran is applied on top of the result. The first recount runs before the web server starts.
+@Component
+public class RentalStatsTracker implements SmartInitializingSingleton {
+    
+    private final RentalLedger rentalLedger;
+    
+    private final Map<Rental.RentalStatus, Long> counts = new EnumMap<>(Rental.RentalStatus.class);
+    private final Map<Rental.RentalStatus, BigDecimal> revenue = new EnumMap<>(Rental.RentalStatus.class);
+    // Ledger id the totals are complete up to
+    private long countedThrough = -1;
+    // Changes applied while a recount runs, null otherwise
+    private List<RentalChangeRecordedEvent> duringRecount;
+    private final Object recountLock = new Object();
+    private volatile boolean loaded;
+    
+    public record Totals(Map<Rental.RentalStatus, Long> counts, Map<Rental.RentalStatus, BigDecimal> revenue) {
+    }
+    
+    @Autowired
+    public RentalStatsTracker(RentalLedger rentalLedger) {
+        this.rentalLedger = rentalLedger;
+        for (Rental.RentalStatus status : Rental.RentalStatus.values()) {
+            counts.put(status, 0L);
+            revenue.put(status, BigDecimal.ZERO);
+        }
+    }
+    
+    @Override
+    public void afterSingletonsInstantiated() {
+        recount();
+    }
+    
+    @EventListener
+    public synchronized void onChangeRecorded(RentalChangeRecordedEvent recorded) {
+        if (recorded.eventId() <= countedThrough) {
+            return;
+        }
+        apply(counts, revenue, recorded.change());
+        if (duringRecount != null) {
+            duringRecount.add(recorded);
+        }
+    }
+    
+    public synchronized Totals getTotals() {
+        if (!loaded) {
+            throw new IllegalStateException("Rental totals are still loading, please retry");
+        }
+        return new Totals(new EnumMap<>(counts), new EnumMap<>(revenue));
+    }
+    
+    public void recount() {
+        synchronized (recountLock) {
+            synchronized (this) {
+                duringRecount = new ArrayList<>();
+            }
+            try {
+                RentalLedger.State state = rentalLedger.replay(rental -> true);
+                Map<Rental.RentalStatus, Long> freshCounts = new EnumMap<>(Rental.RentalStatus.class);
+                Map<Rental.RentalStatus, BigDecimal> freshRevenue = new EnumMap<>(Rental.RentalStatus.class);
+                for (Rental.RentalStatus status : Rental.RentalStatus.values()) {
+                    freshCounts.put(status, 0L);
+                    freshRevenue.put(status, BigDecimal.ZERO);
+                }
+                for (RentalSnapshot rental : state.rentals().values()) {
+                    apply(freshCounts, freshRevenue, rental, 1);
+                }
+                synchronized (this) {
+                    for (RentalChangeRecordedEvent recorded : duringRecount) {
+                        if (recorded.eventId() > state.lastEventId()) {
+                            apply(freshCounts, freshRevenue, recorded.change());
+                        }
+                    }
+                    counts.putAll(freshCounts);
+                    revenue.putAll(freshRevenue);
+                    countedThrough = state.lastEventId();
+                    loaded = true;
+                }
+            } finally {
+                synchronized (this) {
+                    duringRecount = null;
+                }
+            }
+        }
+    }
+    
+    private static void apply(Map<Rental.RentalStatus, Long> counts, Map<Rental.RentalStatus, BigDecimal> revenue,
+                              RentalChangedEvent change) {
+        if (change.before() != null) {
+            apply(counts, revenue, change.before(), -1);
+        }
+        if (change.after() != null) {
+            apply(counts, revenue, change.after(), 1);
+        }
+    }
+    
+    private static void apply(Map<Rental.RentalStatus, Long> counts, Map<Rental.RentalStatus, BigDecimal> revenue,
+                              RentalSnapshot rental, int sign) {
+        counts.merge(rental.status(), (long) sign, Long::sum);
+        if (rental.totalAmount() != null) {
+            BigDecimal amount = sign < 0 ? rental.totalAmount().negate() : rental.totalAmount();
+            revenue.merge(rental.status(), amount, BigDecimal::add);
+        }
+    }
+}
\ No newline at end of file
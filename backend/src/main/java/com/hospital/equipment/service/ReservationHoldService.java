@@ -0,0 +1,155 @@
+package com.hospital.equipment.service;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.hospital.equipment.dto.ReservationHold;
+
+// Short-lived holds on equipment quantity. Holds live only in memory and are counted by the
+// booking calendar index; expiry is driven by a hashed timing wheel, so releasing expired
+// holds costs one bucket scan per tick and never touches the database.
+@Service
+public class ReservationHoldService {
+    
+    private static final long TICK_MILLIS = 1000;
+    private static final int WHEEL_SIZE = 512;
+    
+    private final BookingCalendarIndex bookingCalendarIndex;
+    private final int defaultTtlSeconds;
+    private final int maxTtlSeconds;
+    private final Clock clock;
+    
+    private final Map<UUID, ReservationHold> holds = new ConcurrentHashMap<>();
+    private final List<Set<UUID>> wheel = new ArrayList<>(WHEEL_SIZE);
+    private long processedTick;
+    
+    @Autowired
+    public ReservationHoldService(BookingCalendarIndex bookingCalendarIndex,
+                                  @Value("${rental.hold.ttl-seconds:600}") int defaultTtlSeconds,
+                                  @Value("${rental.hold.max-ttl-seconds:1800}") int maxTtlSeconds) {
+        this(bookingCalendarIndex, defaultTtlSeconds, maxTtlSeconds, Clock.systemUTC());
+    }
+    
+    // Tests turn the wheel with a clock of their own
+    ReservationHoldService(BookingCalendarIndex bookingCalendarIndex, int defaultTtlSeconds, int maxTtlSeconds,
+                           Clock clock) {
+        this.bookingCalendarIndex = bookingCalendarIndex;
+        this.defaultTtlSeconds = defaultTtlSeconds;
+        this.maxTtlSeconds = maxTtlSeconds;
+        this.clock = clock;
+        for (int i = 0; i < WHEEL_SIZE; i++) {
+            wheel.add(new HashSet<>());
+        }
+        this.processedTick = tickOf(clock.instant());
+    }
+    
+    // Callers are responsible for checking availability first, under the booking concurrency control
+    public ReservationHold register(Long equipmentId, LocalDate startDate, LocalDate endDate,
+                                   int quantity, Integer ttlSeconds) {
+        int ttl = ttlSeconds == null ? defaultTtlSeconds : ttlSeconds;
+        if (ttl <= 0 || ttl > maxTtlSeconds) {
+            throw new IllegalArgumentException("ttlSeconds must be between 1 and " + maxTtlSeconds);
+        }
+        ReservationHold hold = new ReservationHold(UUID.randomUUID(), equipmentId, startDate, endDate,
+                quantity, clock.instant().plusSeconds(ttl));
+        add(hold);
+        return hold;
+    }
+    
+    public Optional<ReservationHold> getHold(UUID id) {
+        ReservationHold hold = holds.get(id);
+        if (hold == null || !hold.expiresAt().isAfter(clock.instant())) {
+            return Optional.empty();
+        }
+        return Optional.of(hold);
+    }
+    
+    // Expired holds stay in the map until the next sweep, but no longer set units aside
+    public List<ReservationHold> getActiveHolds(Long equipmentId) {
+        Instant now = clock.instant();
+        return holds.values().stream()
+                .filter(hold -> hold.equipmentId().equals(equipmentId) && hold.expiresAt().isAfter(now))
+                .toList();
+    }
+    
+    // Removes an active hold so a booking can take over its quantity
+    public Optional<ReservationHold> take(UUID id) {
+        Optional<ReservationHold> hold = getHold(id);
+        if (hold.isPresent() && !release(id)) {
+            // Expired or released concurrently
+            return Optional.empty();
+        }
+        return hold;
+    }
+    
+    // Puts back a taken hold whose booking did not go through, unless it has expired meanwhile
+    public void restore(ReservationHold hold) {
+        if (hold.expiresAt().isAfter(clock.instant())) {
+            add(hold);
+        }
+    }
+    
+    // The wheel entry is left behind and skipped when its bucket comes round
+    public boolean release(UUID id) {
+        if (holds.remove(id) == null) {
+            return false;
+        }
+        bookingCalendarIndex.releaseHold(id);
+        return true;
+    }
+    
+    @Scheduled(fixedRate = TICK_MILLIS)
+    public void advance() {
+        long now = tickOf(clock.instant());
+        synchronized (wheel) {
+            // After a long pause one full turn of the wheel visits every bucket
+            long from = Math.max(processedTick + 1, now - WHEEL_SIZE + 1);
+            for (long tick = from; tick <= now; tick++) {
+                Iterator<UUID> entries = bucket(tick).iterator();
+                while (entries.hasNext()) {
+                    ReservationHold hold = holds.get(entries.next());
+                    if (hold == null) {
+                        entries.remove();
+                    } else if (tickOf(hold.expiresAt()) <= now) {
+                        entries.remove();
+                        release(hold.id());
+                    }
+                    // Otherwise the hold expires on a later turn of the wheel
+                }
+            }
+            processedTick = now;
+        }
+    }
+    
+    private void add(ReservationHold hold) {
+        holds.put(hold.id(), hold);
+        bookingCalendarIndex.trackHold(hold);
+        synchronized (wheel) {
+            // Never file into a bucket the wheel has already passed on this turn
+            bucket(Math.max(tickOf(hold.expiresAt()), processedTick + 1)).add(hold.id());
+        }
+    }
+    
+    private Set<UUID> bucket(long tick) {
+        return wheel.get((int) Math.floorMod(tick, (long) WHEEL_SIZE));
+    }
+    
+    private static long tickOf(Instant instant) {
+        return instant.toEpochMilli() / TICK_MILLIS;
+    }
+}
\ No newline at end of file
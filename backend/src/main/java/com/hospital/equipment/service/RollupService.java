@@ -0,0 +1,428 @@
+package com.hospital.equipment.service;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Savepoint;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.hibernate.Session;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import jakarta.persistence.EntityManager;
+
+import com.hospital.equipment.dto.RollupBucket;
+import com.hospital.equipment.dto.RollupRebuildResult;
+import com.hospital.equipment.entity.DailyRollup;
+import com.hospital.equipment.entity.Rental;
+import com.hospital.equipment.event.RentalChangedEvent;
+import com.hospital.equipment.event.RentalSnapshot;
+import com.hospital.equipment.repository.CategoryRepository;
+import com.hospital.equipment.repository.DailyRollupRepository;
+import com.hospital.equipment.repository.EquipmentRepository;
+import com.hospital.equipment.repository.RentalRepository;
+
+// Daily buckets of units booked, units returned and revenue per equipment, per category and for the
+// whole catalog, so utilization and revenue reports read one row per day instead of every rental.
+// A rental counts on every day of its period unless it is CANCELLED, earning dailyRate x quantity per
+// day; its units count as returned on the day it is completed. Each rental change adds the difference
+// between its old and new snapshot, written in the rental's own transaction just before it commits
+// as increments of the stored values.
+//
+// The stored rollups are kept across restarts. They are only computed from scratch on request, or at
+// startup, before the web server accepts bookings, when the table is still empty.
+@Service
+public class RollupService implements SmartInitializingSingleton {
+    
+    private static final int MAX_RANGE_DAYS = 3660;
+    // Rows persisted between flushes during a rebuild
+    private static final int WRITE_BATCH = 1000;
+    // Rentals read at a time by each slice of a rebuild
+    private static final int READ_PAGE = 5000;
+    private static final int MAX_ATTEMPTS = 3;
+    private static final String DUPLICATE_KEY = "23505";
+    private static final String INCREMENT_SQL = "update daily_rollups set units_booked = units_booked + ?, "
+            + "units_returned = units_returned + ?, revenue = revenue + ? "
+            + "where scope = ? and ref_id = ? and bucket_date = ?";
+    private static final String INSERT_SQL = "insert into daily_rollups "
+            + "(scope, ref_id, bucket_date, units_booked, units_returned, revenue) values (?, ?, ?, ?, ?, ?)";
+    private static final Comparator<DailyRollup.Key> KEY_ORDER = Comparator.comparing(DailyRollup.Key::getScope)
+            .thenComparing(DailyRollup.Key::getRefId).thenComparing(DailyRollup.Key::getDay);
+    
+    private final DailyRollupRepository rollupRepository;
+    private final RentalRepository rentalRepository;
+    private final EquipmentRepository equipmentRepository;
+    private final CategoryRepository categoryRepository;
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+    private final int rebuildParallelism;
+    
+    // Incremental writes hold the read lock from just before their commit until it completes, so a
+    // rebuild (write lock) never sees half of a change and never has one land in the middle of it
+    private final ReadWriteLock rebuildLock = new ReentrantReadWriteLock();
+    
+    public enum Granularity {
+        DAY, MONTH
+    }
+    
+    private record EquipmentDay(Long equipmentId, LocalDate day) {
+    }
+    
+    private static final class Delta {
+        
+        private long booked;
+        private long returned;
+        private BigDecimal revenue = BigDecimal.ZERO;
+        
+        void add(Delta other) {
+            booked += other.booked;
+            returned += other.returned;
+            revenue = revenue.add(other.revenue);
+        }
+        
+        boolean isZero() {
+            return booked == 0 && returned == 0 && revenue.signum() == 0;
+        }
+    }
+    
+    // The changes of one transaction, written together just before it commits
+    private final class PendingChanges implements TransactionSynchronization {
+        
+        private final Map<EquipmentDay, Delta> deltas = new HashMap<>();
+        private boolean locked;
+        
+        @Override
+        public void beforeCommit(boolean readOnly) {
+            rebuildLock.readLock().lock();
+            locked = true;
+            write(deltas);
+        }
+        
+        @Override
+        public void afterCompletion(int status) {
+            TransactionSynchronizationManager.unbindResourceIfPossible(RollupService.this);
+            if (locked) {
+                rebuildLock.readLock().unlock();
+            }
+        }
+    }
+    
+    @Autowired
+    public RollupService(DailyRollupRepository rollupRepository, RentalRepository rentalRepository,
+                         EquipmentRepository equipmentRepository, CategoryRepository categoryRepository,
+                         EntityManager entityManager, PlatformTransactionManager transactionManager,
+                         @Value("${rollup.rebuild.parallelism:4}") int rebuildParallelism) {
+        this.rollupRepository = rollupRepository;
+        this.rentalRepository = rentalRepository;
+        this.equipmentRepository = equipmentRepository;
+        this.categoryRepository = categoryRepository;
+        this.entityManager = entityManager;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.rebuildParallelism = Math.max(1, rebuildParallelism);
+    }
+    
+    @Override
+    public void afterSingletonsInstantiated() {
+        if (rollupRepository.count() == 0) {
+            rebuild();
+        }
+    }
+    
+    // Runs inside the publishing transaction; the write is deferred to its commit
+    @EventListener
+    public void onRentalChanged(RentalChangedEvent event) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            Map<EquipmentDay, Delta> deltas = new HashMap<>();
+            addContribution(deltas, event.before(), -1);
+            addContribution(deltas, event.after(), 1);
+            rebuildLock.readLock().lock();
+            try {
+                transactionTemplate.executeWithoutResult(status -> write(deltas));
+            } finally {
+                rebuildLock.readLock().unlock();
+            }
+            return;
+        }
+        PendingChanges pending = (PendingChanges) TransactionSynchronizationManager.getResource(this);
+        if (pending == null) {
+            pending = new PendingChanges();
+            TransactionSynchronizationManager.bindResource(this, pending);
+            TransactionSynchronizationManager.registerSynchronization(pending);
+        }
+        addContribution(pending.deltas, event.before(), -1);
+        addContribution(pending.deltas, event.after(), 1);
+    }
+    
+    // Recomputes every bucket from the rentals table. Slices of the rental id range are read a page at a
+    // time and summed in parallel; the result replaces the old rows in one transaction.
+    public RollupRebuildResult rebuild() {
+        long started = System.nanoTime();
+        rebuildLock.writeLock().lock();
+        ExecutorService executor = Executors.newFixedThreadPool(rebuildParallelism);
+        try {
+            Object[] bounds = rentalRepository.findIdRange().get(0);
+            List<Future<Map<EquipmentDay, Delta>>> slices = new ArrayList<>();
+            int[] rentals = new int[rebuildParallelism];
+            if (bounds[0] != null) {
+                long minId = (Long) bounds[0];
+                long maxId = (Long) bounds[1];
+                long step = (maxId - minId) / rebuildParallelism + 1;
+                for (int i = 0; i < rebuildParallelism; i++) {
+                    long fromId = minId + i * step;
+                    long toId = Math.min(maxId, fromId + step - 1);
+                    int slice = i;
+                    slices.add(executor.submit(() -> {
+                        Map<EquipmentDay, Delta> deltas = new HashMap<>();
+                        long afterId = fromId - 1;
+                        List<RentalSnapshot> page;
+                        do {
+                            page = rentalRepository.findSnapshotsAfter(afterId, toId, PageRequest.ofSize(READ_PAGE));
+                            for (RentalSnapshot rental : page) {
+                                addContribution(deltas, rental, 1);
+                            }
+                            rentals[slice] += page.size();
+                            if (!page.isEmpty()) {
+                                afterId = page.get(page.size() - 1).id();
+                            }
+                        } while (page.size() == READ_PAGE);
+                        return deltas;
+                    }));
+                }
+            }
+            Map<EquipmentDay, Delta> deltas = new HashMap<>();
+            for (Future<Map<EquipmentDay, Delta>> slice : slices) {
+                slice.get().forEach((key, delta) -> deltas.computeIfAbsent(key, k -> new Delta()).add(delta));
+            }
+            
+            Map<DailyRollup.Key, Delta> rows = transactionTemplate.execute(status -> {
+                Map<DailyRollup.Key, Delta> expanded = expand(deltas, categoryIds(equipmentRepository.findAllCategoryIds()));
+                rollupRepository.deleteAllRollups();
+                int written = 0;
+                for (Map.Entry<DailyRollup.Key, Delta> row : expanded.entrySet()) {
+                    DailyRollup rollup = new DailyRollup(row.getKey());
+                    apply(rollup, row.getValue());
+                    entityManager.persist(rollup);
+                    if (++written % WRITE_BATCH == 0) {
+                        entityManager.flush();
+                        entityManager.clear();
+                    }
+                }
+                return expanded;
+            });
+            int rentalCount = 0;
+            for (int count : rentals) {
+                rentalCount += count;
+            }
+            return new RollupRebuildResult(rentalCount, rows.size(), (System.nanoTime() - started) / 1_000_000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Rollup rebuild interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Rollup rebuild failed", e.getCause());
+        } finally {
+            executor.shutdown();
+            rebuildLock.writeLock().unlock();
+        }
+    }
+    
+    // Buckets covering [from, to], empty days included. utilization is units booked over units owned
+    // (today's total quantity) times days in the bucket; it is null when nothing is owned.
+    @Transactional(readOnly = true)
+    public List<RollupBucket> getRollups(DailyRollup.Scope scope, Long refId, LocalDate from, LocalDate to,
+                                         Granularity granularity) {
+        if (scope == null || from == null || to == null) {
+            throw new IllegalArgumentException("scope, from and to are required");
+        }
+        if (to.isBefore(from) || ChronoUnit.DAYS.between(from, to) >= MAX_RANGE_DAYS) {
+            throw new IllegalArgumentException("to must be on or after from, and at most " + MAX_RANGE_DAYS
+                    + " days later");
+        }
+        long capacity;
+        if (scope == DailyRollup.Scope.TOTAL) {
+            refId = 0L;
+            capacity = equipmentRepository.sumTotalQuantity();
+        } else if (refId == null) {
+            throw new IllegalArgumentException("id is required for scope " + scope);
+        } else if (scope == DailyRollup.Scope.EQUIPMENT) {
+            Long equipmentId = refId;
+            capacity = equipmentRepository.findById(equipmentId)
+                    .orElseThrow(() -> new RuntimeException("Equipment not found with id: " + equipmentId))
+                    .getTotalQuantity();
+        } else {
+            if (!categoryRepository.existsById(refId)) {
+                throw new RuntimeException("Category not found with id: " + refId);
+            }
+            capacity = equipmentRepository.sumTotalQuantityByCategory(refId);
+        }
+        
+        Map<LocalDate, DailyRollup> byDay = new HashMap<>();
+        for (DailyRollup rollup : rollupRepository.findByScopeAndRefIdAndDayBetweenOrderByDay(scope, refId, from, to)) {
+            byDay.put(rollup.getDay(), rollup);
+        }
+        List<RollupBucket> buckets = new ArrayList<>();
+        LocalDate start = from;
+        while (!start.isAfter(to)) {
+            LocalDate end = granularity == Granularity.MONTH ? YearMonth.from(start).atEndOfMonth() : start;
+            if (end.isAfter(to)) {
+                end = to;
+            }
+            long booked = 0;
+            long returned = 0;
+            BigDecimal revenue = BigDecimal.ZERO;
+            for (LocalDate day = start; !day.isAfter(end); day = day.plusDays(1)) {
+                DailyRollup rollup = byDay.get(day);
+                if (rollup != null) {
+                    booked += rollup.getUnitsBooked();
+                    returned += rollup.getUnitsReturned();
+                    revenue = revenue.add(rollup.getRevenue());
+                }
+            }
+            long unitDays = capacity * (ChronoUnit.DAYS.between(start, end) + 1);
+            Double utilization = unitDays == 0 ? null : Math.round(10000.0 * booked / unitDays) / 10000.0;
+            buckets.add(new RollupBucket(start, end, booked, returned, revenue, utilization));
+            start = end.plusDays(1);
+        }
+        return buckets;
+    }
+    
+    private void write(Map<EquipmentDay, Delta> equipmentDeltas) {
+        equipmentDeltas.values().removeIf(Delta::isZero);
+        if (equipmentDeltas.isEmpty()) {
+            return;
+        }
+        Set<Long> equipmentIds = new HashSet<>();
+        equipmentDeltas.keySet().forEach(key -> equipmentIds.add(key.equipmentId()));
+        Map<DailyRollup.Key, Delta> deltas =
+                expand(equipmentDeltas, categoryIds(equipmentRepository.findCategoryIds(equipmentIds)));
+        
+        List<DailyRollup.Key> keys = new ArrayList<>(deltas.keySet());
+        keys.sort(KEY_ORDER);
+        entityManager.unwrap(Session.class).doWork(connection -> increment(connection, keys, deltas));
+    }
+    
+    // Each bucket is changed by one UPDATE adding to the stored values, so writers sharing a category or
+    // TOTAL row never lose each other's changes. A day seen for the first time has no row to update and
+    // is inserted instead; when a concurrent writer inserts it first, the insert fails on the primary key,
+    // is rolled back to a savepoint and the update runs again. Buckets are written one at a time in key
+    // order, inserts included, so two writers touching the same days cannot deadlock on the row locks.
+    private static void increment(Connection connection, List<DailyRollup.Key> keys,
+                                  Map<DailyRollup.Key, Delta> deltas) throws SQLException {
+        try (PreparedStatement update = connection.prepareStatement(INCREMENT_SQL);
+             PreparedStatement insert = connection.prepareStatement(INSERT_SQL)) {
+            for (DailyRollup.Key key : keys) {
+                Delta delta = deltas.get(key);
+                for (int attempt = 1; ; attempt++) {
+                    bind(update, key, delta);
+                    if (update.executeUpdate() == 1) {
+                        break;
+                    }
+                    Savepoint savepoint = connection.setSavepoint();
+                    try {
+                        insert.setString(1, key.getScope().name());
+                        insert.setLong(2, key.getRefId());
+                        insert.setObject(3, key.getDay());
+                        insert.setLong(4, delta.booked);
+                        insert.setLong(5, delta.returned);
+                        insert.setBigDecimal(6, delta.revenue);
+                        insert.executeUpdate();
+                        connection.releaseSavepoint(savepoint);
+                        break;
+                    } catch (SQLException e) {
+                        connection.rollback(savepoint);
+                        if (!DUPLICATE_KEY.equals(e.getSQLState()) || attempt == MAX_ATTEMPTS) {
+                            throw e;
+                        }
+                    }
+                }
+            }
+        }
+    }
+    
+    private static void bind(PreparedStatement update, DailyRollup.Key key, Delta delta) throws SQLException {
+        update.setLong(1, delta.booked);
+        update.setLong(2, delta.returned);
+        update.setBigDecimal(3, delta.revenue);
+        update.setString(4, key.getScope().name());
+        update.setLong(5, key.getRefId());
+        update.setObject(6, key.getDay());
+    }
+    
+    private static void addContribution(Map<EquipmentDay, Delta> deltas, RentalSnapshot rental, int sign) {
+        if (rental == null || rental.status() == Rental.RentalStatus.CANCELLED || rental.startDate() == null
+                || rental.endDate() == null || rental.quantity() == null) {
+            return;
+        }
+        BigDecimal dayRevenue = rental.dailyRate() == null ? BigDecimal.ZERO
+                : rental.dailyRate().multiply(BigDecimal.valueOf((long) sign * rental.quantity()));
+        for (LocalDate day = rental.startDate(); !day.isAfter(rental.endDate()); day = day.plusDays(1)) {
+            Delta delta = deltas.computeIfAbsent(new EquipmentDay(rental.equipmentId(), day), key -> new Delta());
+            delta.booked += (long) sign * rental.quantity();
+            delta.revenue = delta.revenue.add(dayRevenue);
+        }
+        if (rental.status() == Rental.RentalStatus.COMPLETED && rental.actualReturnDate() != null) {
+            deltas.computeIfAbsent(new EquipmentDay(rental.equipmentId(), rental.actualReturnDate()),
+                    key -> new Delta()).returned += (long) sign * rental.quantity();
+        }
+    }
+    
+    // Spreads equipment deltas to the equipment's category and the catalog total
+    private static Map<DailyRollup.Key, Delta> expand(Map<EquipmentDay, Delta> equipmentDeltas,
+                                                      Map<Long, Long> categoryIds) {
+        Map<DailyRollup.Key, Delta> deltas = new HashMap<>();
+        equipmentDeltas.forEach((key, delta) -> {
+            if (delta.isZero()) {
+                return;
+            }
+            deltas.computeIfAbsent(new DailyRollup.Key(DailyRollup.Scope.EQUIPMENT, key.equipmentId(), key.day()),
+                    k -> new Delta()).add(delta);
+            Long categoryId = categoryIds.get(key.equipmentId());
+            if (categoryId != null) {
+                deltas.computeIfAbsent(new DailyRollup.Key(DailyRollup.Scope.CATEGORY, categoryId, key.day()),
+                        k -> new Delta()).add(delta);
+            }
+            deltas.computeIfAbsent(new DailyRollup.Key(DailyRollup.Scope.TOTAL, 0L, key.day()),
+                    k -> new Delta()).add(delta);
+        });
+        return deltas;
+    }
+    
+    private static Map<Long, Long> categoryIds(List<Object[]> rows) {
+        Map<Long, Long> categoryIds = new HashMap<>();
+        for (Object[] row : rows) {
+            categoryIds.put((Long) row[0], (Long) row[1]);
+        }
+        return categoryIds;
+    }
+    
+    private static void apply(DailyRollup rollup, Delta delta) {
+        rollup.setUnitsBooked(rollup.getUnitsBooked() + delta.booked);
+        rollup.setUnitsReturned(rollup.getUnitsReturned() + delta.returned);
+        rollup.setRevenue(rollup.getRevenue().add(delta.revenue));
+    }
+}
\ No newline at end of file
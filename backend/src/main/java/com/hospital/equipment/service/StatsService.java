@@ -0,0 +1,35 @@
+package com.hospital.equipment.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.hospital.equipment.dto.DashboardStats;
+
+// Dashboard totals read straight from the in-memory counters; nothing here queries per request
+@Service
+public class StatsService {
+    
+    private final RentalStatsTracker rentalStatsTracker;
+    private final EquipmentFacetIndex equipmentFacetIndex;
+    
+    @Autowired
+    public StatsService(RentalStatsTracker rentalStatsTracker, EquipmentFacetIndex equipmentFacetIndex) {
+        this.rentalStatsTracker = rentalStatsTracker;
+        this.equipmentFacetIndex = equipmentFacetIndex;
+    }
+    
+    public DashboardStats getDashboardStats() {
+        RentalStatsTracker.Totals rentals = rentalStatsTracker.getTotals();
+        return new DashboardStats(rentals.counts(), rentals.revenue(), equipmentFacetIndex.countByStatus(),
+                equipmentFacetIndex.countByCategory());
+    }
+    
+    // The counters follow committed changes; a full recount now and then corrects any drift
+    @Scheduled(fixedDelayString = "${stats.recount-interval-ms:300000}",
+               initialDelayString = "${stats.recount-interval-ms:300000}")
+    public void recount() {
+        rentalStatsTracker.recount();
+        equipmentFacetIndex.verify();
+    }
+}
\ No newline at end of file
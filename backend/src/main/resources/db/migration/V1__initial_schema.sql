@@ -0,0 +1,75 @@
+-- Schema as Hibernate generated it under ddl-auto=create-drop, now owned by Flyway.
+-- The sequences step by 50 to match the pooled id generators on the entities.
+
+create sequence customer_seq start with 1 increment by 50;
+create sequence equipment_seq start with 1 increment by 50;
+create sequence rental_seq start with 1 increment by 50;
+
+create table categories (
+    id bigint generated by default as identity,
+    name varchar(255) not null,
+    description varchar(255),
+    primary key (id),
+    constraint uk_categories_name unique (name)
+);
+
+create table equipment (
+    id bigint not null,
+    name varchar(255) not null,
+    description varchar(255),
+    model varchar(255),
+    manufacturer varchar(255),
+    daily_price numeric(10,2) not null,
+    available_quantity integer,
+    total_quantity integer,
+    status varchar(255) check (status in ('AVAILABLE','RENTED','MAINTENANCE','RETIRED')),
+    image_url varchar(255),
+    category_id bigint,
+    version bigint,
+    primary key (id),
+    constraint fk_equipment_category foreign key (category_id) references categories (id)
+);
+
+create table customers (
+    id bigint not null,
+    first_name varchar(255),
+    last_name varchar(255),
+    email varchar(255),
+    phone varchar(255),
+    address varchar(255),
+    city varchar(255),
+    state varchar(255),
+    zip_code varchar(255),
+    primary key (id),
+    constraint uk_customers_email unique (email)
+);
+
+create table rentals (
+    id bigint not null,
+    customer_id bigint not null,
+    equipment_id bigint not null,
+    start_date date not null,
+    end_date date not null,
+    actual_return_date date,
+    quantity integer not null,
+    daily_rate numeric(10,2) not null,
+    total_amount numeric(10,2) not null,
+    status varchar(255) check (status in ('PENDING','CONFIRMED','ACTIVE','COMPLETED','CANCELLED','OVERDUE')),
+    created_at timestamp(6),
+    updated_at timestamp(6),
+    notes varchar(255),
+    primary key (id),
+    constraint fk_rentals_customer foreign key (customer_id) references customers (id),
+    constraint fk_rentals_equipment foreign key (equipment_id) references equipment (id)
+);
+
+-- Key columns ordered for the lookups (one scope and ref_id, a range of days), not alphabetically
+create table daily_rollups (
+    scope varchar(16) not null check (scope in ('EQUIPMENT','CATEGORY','TOTAL')),
+    ref_id bigint not null,
+    bucket_date date not null,
+    units_booked bigint not null,
+    units_returned bigint not null,
+    revenue numeric(14,2) not null,
+    primary key (scope, ref_id, bucket_date)
+);
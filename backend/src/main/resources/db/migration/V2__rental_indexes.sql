@@ -0,0 +1,10 @@
+-- Availability checks (findConflictingRentals, getTotalBookedQuantity, the booking calendars) filter
+-- on one item, the booked statuses and an overlapping period. Quantity rides along so the booked
+-- total can be summed from the index alone.
+create index idx_rentals_equipment_booking on rentals (equipment_id, status, start_date, end_date, quantity);
+
+-- A customer's rental history
+create index idx_rentals_customer on rentals (customer_id);
+
+-- The overdue sweep (status = 'ACTIVE' and end_date before today) and the per-status listings
+create index idx_rentals_status_end_date on rentals (status, end_date);
@@ -0,0 +1,5 @@
+-- Categories take their ids from a pooled sequence like the other tables, so every insert carries its
+-- id and replays the same way on a replica. The sequence starts past the ids the identity column gave out.
+create sequence category_seq start with (select coalesce(max(id), 0) + 50 from categories) increment by 50;
+
+alter table categories alter column id drop identity;
@@ -0,0 +1,39 @@
+-- Append-only history of rental changes, in commit order. Each row carries the rental as it stood
+-- after the change; DELETED rows only name the rental.
+create table rental_events (
+    id bigint not null,
+    rental_id bigint not null,
+    event_type varchar(16) not null check (event_type in ('BASELINE','CREATED','UPDATED','CONFIRMED','ACTIVATED','RETURNED','CANCELLED','OVERDUE','DELETED')),
+    recorded_at timestamp(6) not null,
+    equipment_id bigint,
+    customer_id bigint,
+    start_date date,
+    end_date date,
+    actual_return_date date,
+    quantity integer,
+    daily_rate numeric(10,2),
+    total_amount numeric(10,2),
+    status varchar(255) check (status in ('PENDING','CONFIRMED','ACTIVE','COMPLETED','CANCELLED','OVERDUE')),
+    primary key (id)
+);
+
+-- One rental's history
+create index idx_rental_events_rental on rental_events (rental_id, id);
+
+-- State of every rental as of one event, so a replay can start there instead of at the first event
+create table rental_snapshots (
+    last_event_id bigint not null,
+    created_at timestamp(6) not null,
+    rental_count integer not null,
+    data blob not null,
+    primary key (last_event_id)
+);
+
+-- Rentals that predate the ledger enter it once, as they stand now
+insert into rental_events (id, rental_id, event_type, recorded_at, equipment_id, customer_id, start_date, end_date,
+                           actual_return_date, quantity, daily_rate, total_amount, status)
+select row_number() over (order by id), id, 'BASELINE', current_timestamp, equipment_id, customer_id, start_date,
+       end_date, actual_return_date, quantity, daily_rate, total_amount, status
+from rentals;
+
+create sequence rental_event_seq start with (select coalesce(max(id), 0) + 50 from rental_events) increment by 50;
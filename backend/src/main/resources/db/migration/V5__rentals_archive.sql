@@ -0,0 +1,26 @@
+-- Closed rentals moved out of the live table by RentalArchiver, so the booking and overdue queries
+-- on rentals only ever scan live rows. Same columns as rentals, plus when each row was moved.
+create table rentals_archive (
+    id bigint not null,
+    customer_id bigint not null,
+    equipment_id bigint not null,
+    start_date date not null,
+    end_date date not null,
+    actual_return_date date,
+    quantity integer not null,
+    daily_rate numeric(10,2) not null,
+    total_amount numeric(10,2) not null,
+    status varchar(255) check (status in ('COMPLETED','CANCELLED')),
+    created_at timestamp(6),
+    updated_at timestamp(6),
+    notes varchar(255),
+    archived_at timestamp(6) not null,
+    primary key (id),
+    constraint fk_rentals_archive_customer foreign key (customer_id) references customers (id),
+    constraint fk_rentals_archive_equipment foreign key (equipment_id) references equipment (id)
+);
+
+-- The history listings read the archive by customer, by item and by status in end-date order
+create index idx_rentals_archive_customer on rentals_archive (customer_id);
+create index idx_rentals_archive_equipment on rentals_archive (equipment_id);
+create index idx_rentals_archive_status_end_date on rentals_archive (status, end_date);
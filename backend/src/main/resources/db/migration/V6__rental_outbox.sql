@@ -0,0 +1,8 @@
+-- How far each outbox sink has got through rental_events. Events after last_event_id are still to be
+-- delivered to it; the row only moves once the sink has accepted them.
+create table rental_outbox_cursors (
+    sink varchar(100) not null,
+    last_event_id bigint not null,
+    delivered_at timestamp(6),
+    primary key (sink)
+);
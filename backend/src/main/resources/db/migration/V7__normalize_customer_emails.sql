@@ -0,0 +1,5 @@
+-- Emails are stored trimmed and in lower case since the customer index started matching them that way,
+-- and lookups and the duplicate check query the normalized value. Rows written before then are brought
+-- in line here. Two rows that only differ in case or spacing violate uk_customers_email and fail the
+-- migration; they have to be merged by hand first.
+update customers set email = lower(trim(email)) where email <> lower(trim(email));
\ No newline at end of file
@@ -0,0 +1,7 @@
+-- The file sink's delivery position used to be keyed by the file's absolute path ('file:/...'). It is
+-- now keyed by its configured name, 'file' unless set otherwise; carry a single old position over so
+-- the sink carries on where it stopped instead of starting afresh.
+update rental_outbox_cursors set sink = 'file'
+where sink like 'file:%'
+  and (select count(*) from rental_outbox_cursors where sink like 'file:%') = 1
+  and not exists (select 1 from rental_outbox_cursors where sink = 'file');
\ No newline at end of file
@@ -0,0 +1,91 @@
+package com.hospital.equipment.controller;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.regex.Pattern;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.hospital.equipment.entity.Customer;
+import com.hospital.equipment.entity.Equipment;
+import com.hospital.equipment.repository.CustomerRepository;
+import com.hospital.equipment.repository.EquipmentRepository;
+
+import jakarta.persistence.EntityManagerFactory;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:statement-count",
+        "spring.jpa.show-sql=false",
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+                + "com.hospital.equipment.controller.SqlStatementCounter"
+})
+@AutoConfigureMockMvc
+@DirtiesContext
+class BookingStatementCountTest {
+    
+    // Customer lookup, rental id and insert, equipment update, ledger insert, category lookup for the
+    // facet index
+    private static final int MAX_STATEMENTS_PER_BOOKING = 6;
+    
+    @Autowired
+    private MockMvc mockMvc;
+    
+    @Autowired
+    private CustomerRepository customerRepository;
+    
+    @Autowired
+    private EquipmentRepository equipmentRepository;
+    
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    
+    // Rollup increments go out through plain JDBC (RollupService), which the inspector does not see
+    @Test
+    void repeatBookingReadsEquipmentAndCategoryFromTheCache() throws Exception {
+        Customer customer = customerRepository.findAll().get(0);
+        Equipment equipment = equipmentRepository.findAll().get(0);
+        LocalDate startDate = LocalDate.now().plusDays(30);
+        entityManagerFactory.getCache().evictAll();
+        
+        List<String> cold = book(customer, equipment, startDate);
+        List<String> warm = book(customer, equipment, startDate.plusDays(10));
+        
+        assertEquals(1, rowLoads(cold, "equipment"), () -> "cold booking: " + cold);
+        assertEquals(0, rowLoads(warm, "equipment"), () -> "repeat booking: " + warm);
+        assertEquals(0, rowLoads(warm, "categories"), () -> "repeat booking: " + warm);
+        assertTrue(warm.size() < cold.size(), () -> "cold " + cold + ", repeat " + warm);
+        assertTrue(warm.size() <= MAX_STATEMENTS_PER_BOOKING, () -> "repeat booking: " + warm);
+    }
+    
+    private List<String> book(Customer customer, Equipment equipment, LocalDate startDate) throws Exception {
+        String body = "{\"customerId\":" + customer.getId() + ",\"equipmentId\":" + equipment.getId()
+                + ",\"startDate\":\"" + startDate + "\",\"endDate\":\"" + startDate.plusDays(3)
+                + "\",\"quantity\":1}";
+        List<String> statements;
+        SqlStatementCounter.start();
+        try {
+            mockMvc.perform(post("/api/rentals").contentType(MediaType.APPLICATION_JSON).content(body))
+                    .andExpect(status().isCreated());
+        } finally {
+            statements = SqlStatementCounter.stop();
+        }
+        return statements;
+    }
+    
+    // Lookups of a single row by id, as Hibernate issues them to load an entity
+    private static long rowLoads(List<String> statements, String table) {
+        Pattern load = Pattern.compile("select .* from " + table + " (\\w+) where \\1\\.id=\\?");
+        return statements.stream().filter(sql -> load.matcher(sql).matches()).count();
+    }
+}
\ No newline at end of file
@@ -0,0 +1,160 @@
+package com.hospital.equipment.controller;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.lang.management.ManagementFactory;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.hospital.equipment.dto.BulkRentalResult;
+import com.hospital.equipment.entity.Customer;
+import com.hospital.equipment.entity.Equipment;
+import com.hospital.equipment.entity.Rental;
+import com.hospital.equipment.repository.CustomerRepository;
+import com.hospital.equipment.repository.EquipmentRepository;
+import com.hospital.equipment.repository.RentalRepository;
+import com.hospital.equipment.service.CustomerService;
+import com.hospital.equipment.service.EquipmentService;
+import com.hospital.equipment.service.RentalBookingService;
+import com.hospital.equipment.service.RentalService;
+
+// Statements, allocated bytes and time per full listing, read and written to JSON the way the GET
+// endpoints used to (entities from the repository, serialized inside the open session without the
+// Hibernate module, so managed collections are fetched as Jackson reaches them) and the way they do
+// now (the services' view records). Both run in a read-only transaction standing in for the request's
+// session and go through the same mapper, so only the read model differs.
+// Run with: mvn test -Dtest=ReadEndpointBenchmarkTest -Dbenchmark=true
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:read-endpoint-benchmark",
+        "spring.jpa.show-sql=false",
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+                + "com.hospital.equipment.controller.SqlStatementCounter"
+})
+@DirtiesContext
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class ReadEndpointBenchmarkTest {
+    
+    private static final int RENTALS = 1000;
+    private static final int UNITS = 10_000;
+    private static final int WARMUP_RUNS = 20;
+    private static final int RUNS = 100;
+    
+    @Autowired
+    private RentalBookingService rentalBookingService;
+    
+    @Autowired
+    private EquipmentService equipmentService;
+    
+    @Autowired
+    private CustomerService customerService;
+    
+    @Autowired
+    private RentalService rentalService;
+    
+    @Autowired
+    private CustomerRepository customerRepository;
+    
+    @Autowired
+    private EquipmentRepository equipmentRepository;
+    
+    @Autowired
+    private RentalRepository rentalRepository;
+    
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    
+    private final ObjectMapper mapper = JsonMapper.builder().addModule(new JavaTimeModule()).build();
+    
+    private record Cost(double statements, double kilobytes, double millis) {
+    }
+    
+    @Test
+    void entitiesAgainstViews() {
+        Customer customer = customerRepository.findAll().get(0);
+        List<Equipment> equipment = new ArrayList<>();
+        for (Equipment item : equipmentRepository.findAll()) {
+            if (item.getStatus() == Equipment.EquipmentStatus.AVAILABLE) {
+                item.setTotalQuantity(UNITS);
+                item.setAvailableQuantity(UNITS);
+                equipment.add(equipmentService.updateEquipment(item.getId(), item));
+            }
+        }
+        BulkRentalResult result = rentalBookingService.createRentals(rentals(customer, equipment), false);
+        assertTrue(result.errors().isEmpty(), () -> "bulk errors: " + result.errors());
+        
+        System.out.printf("%-28s %6s %10s %9s%n", "listing", "stmts", "KB", "ms");
+        compare("/api/equipment", equipmentRepository::findAll, equipmentService::getAllEquipmentViews);
+        compare("/api/rentals", rentalRepository::findAll, () -> rentalService.getRentalViews(null));
+        compare("/api/customers", customerRepository::findAll, () -> customerService.getCustomerViews(null));
+    }
+    
+    private void compare(String path, Supplier<List<?>> entities, Supplier<List<?>> views) {
+        print(path + " entities", measure(entities));
+        print(path + " views", measure(views));
+    }
+    
+    private Cost measure(Supplier<List<?>> listing) {
+        TransactionTemplate session = new TransactionTemplate(transactionManager);
+        session.setReadOnly(true);
+        Runnable request = () -> session.executeWithoutResult(status -> {
+            try {
+                mapper.writeValueAsString(listing.get());
+            } catch (JsonProcessingException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        for (int run = 0; run < WARMUP_RUNS; run++) {
+            request.run();
+        }
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long statements = 0;
+        long allocatedBefore = threads.getCurrentThreadAllocatedBytes();
+        long started = System.nanoTime();
+        for (int run = 0; run < RUNS; run++) {
+            SqlStatementCounter.start();
+            try {
+                request.run();
+            } finally {
+                statements += SqlStatementCounter.stop().size();
+            }
+        }
+        long elapsed = System.nanoTime() - started;
+        long allocated = threads.getCurrentThreadAllocatedBytes() - allocatedBefore;
+        return new Cost((double) statements / RUNS, allocated / 1024.0 / RUNS, elapsed / 1_000_000.0 / RUNS);
+    }
+    
+    private static void print(String label, Cost cost) {
+        System.out.printf("%-28s %6.1f %10.0f %9.2f%n", label, cost.statements(), cost.kilobytes(), cost.millis());
+    }
+    
+    // One-day rentals of one unit, spread over the equipment so that none of them overlap
+    private static List<Rental> rentals(Customer customer, List<Equipment> equipment) {
+        List<Rental> rentals = new ArrayList<>();
+        LocalDate from = LocalDate.now().plusYears(1);
+        for (int i = 0; i < RENTALS; i++) {
+            LocalDate day = from.plusDays(2L * (i / equipment.size()));
+            Rental rental = new Rental();
+            rental.setCustomer(customer);
+            rental.setEquipment(equipment.get(i % equipment.size()));
+            rental.setStartDate(day);
+            rental.setEndDate(day);
+            rental.setQuantity(1);
+            rentals.add(rental);
+        }
+        return rentals;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,32 @@
+package com.hospital.equipment.controller;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+// Records the SQL Hibernate prepares on the current thread between start() and stop(). Registered
+// through hibernate.session_factory.statement_inspector, so Hibernate creates it by class name.
+public class SqlStatementCounter implements StatementInspector {
+    
+    private static final ThreadLocal<List<String>> recorded = new ThreadLocal<>();
+    
+    public static void start() {
+        recorded.set(new ArrayList<>());
+    }
+    
+    public static List<String> stop() {
+        List<String> statements = recorded.get();
+        recorded.remove();
+        return statements;
+    }
+    
+    @Override
+    public String inspect(String sql) {
+        List<String> statements = recorded.get();
+        if (statements != null) {
+            statements.add(sql);
+        }
+        return sql;
+    }
+}
\ No newline at end of file
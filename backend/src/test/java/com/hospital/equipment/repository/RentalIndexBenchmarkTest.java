@@ -0,0 +1,156 @@
+package com.hospital.equipment.repository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Random;
+import java.util.function.IntConsumer;
+import java.util.function.Supplier;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.annotation.DirtiesContext;
+
+// Fills the rentals table with 1,000,000 rows, times the availability and overdue queries with the V2
+// indexes, drops them and times the same queries again, printing the plan H2 chose each time. H2 keeps
+// its own single-column indexes for the foreign keys, so "without" still has one on equipment_id, as
+// the table had before V2.
+// Run with: mvn test -Dtest=RentalIndexBenchmarkTest -Dbenchmark=true
+// H2 would otherwise hand back its last result for a repeated query on an unchanged table.
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:rental-index-benchmark;OPTIMIZE_REUSE_RESULTS=FALSE",
+        "spring.jpa.show-sql=false"
+})
+@DirtiesContext
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class RentalIndexBenchmarkTest {
+    
+    private static final int RENTALS = 1_000_000;
+    private static final int BATCH = 10_000;
+    // Well past anything rental_seq hands out while the context starts
+    private static final long FIRST_ID = 1_000_000_000L;
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    @Autowired
+    private RentalRepository rentalRepository;
+    
+    @Test
+    void queryLatencyWithAndWithoutIndexes() {
+        List<Long> customerIds = jdbcTemplate.queryForList("select id from customers", Long.class);
+        List<Long> equipmentIds = jdbcTemplate.queryForList("select id from equipment", Long.class);
+        LocalDate today = LocalDate.now();
+        
+        long started = System.nanoTime();
+        insertRentals(customerIds, equipmentIds, today);
+        System.out.printf("Inserted %d rentals in %d ms%n", RENTALS, (System.nanoTime() - started) / 1_000_000);
+        int overdue = rentalRepository.findOverdueRentals(today).size();
+        
+        Random random = new Random(7);
+        Supplier<LocalDate> futureDay = () -> today.plusDays(1 + random.nextInt(365));
+        
+        System.out.println("With indexes:");
+        measure(200, equipmentIds, futureDay, today, overdue);
+        
+        jdbcTemplate.execute("drop index idx_rentals_equipment_booking");
+        jdbcTemplate.execute("drop index idx_rentals_customer");
+        jdbcTemplate.execute("drop index idx_rentals_status_end_date");
+        System.out.println("Without indexes:");
+        measure(10, equipmentIds, futureDay, today, overdue);
+    }
+    
+    private void measure(int runs, List<Long> equipmentIds, Supplier<LocalDate> futureDay, LocalDate today,
+                         int overdue) {
+        LocalDate day = today.plusDays(100);
+        explain("select sum(quantity) from rentals where equipment_id = " + equipmentIds.get(0)
+                + " and status in ('PENDING', 'CONFIRMED', 'ACTIVE', 'OVERDUE') and start_date <= date '"
+                + day.plusDays(7) + "' and end_date >= date '" + day + "'");
+        explain("select id from rentals where status = 'ACTIVE' and end_date < date '" + today + "'");
+        time("getTotalBookedQuantity", runs, run -> {
+            LocalDate from = futureDay.get();
+            Long equipmentId = equipmentIds.get(run % equipmentIds.size());
+            rentalRepository.getTotalBookedQuantity(equipmentId, from, from.plusDays(7));
+        });
+        time("findConflictingRentals", runs, run -> {
+            LocalDate from = futureDay.get();
+            Long equipmentId = equipmentIds.get(run % equipmentIds.size());
+            rentalRepository.findConflictingRentals(equipmentId, from, from.plusDays(3));
+        });
+        time("findOverdueRentals", runs,
+             run -> assertEquals(overdue, rentalRepository.findOverdueRentals(today).size()));
+    }
+    
+    private static void time(String query, int runs, IntConsumer body) {
+        // One untimed run so the first timed one doesn't pay for parsing and plan caching
+        body.accept(runs);
+        long started = System.nanoTime();
+        for (int run = 0; run < runs; run++) {
+            body.accept(run);
+        }
+        double micros = (System.nanoTime() - started) / 1000.0 / runs;
+        System.out.printf("  %-24s %10.1f us/query (%d runs)%n", query, micros, runs);
+    }
+    
+    // The index H2 picked and how many rows it read
+    private void explain(String sql) {
+        String plan = jdbcTemplate.queryForObject("explain analyze " + sql, String.class);
+        plan.lines().map(String::strip).filter(line -> line.startsWith("/* PUBLIC.") || line.startsWith("/* scanCount"))
+                .forEach(line -> System.out.println("  " + line));
+    }
+    
+    // Four years of history and one year of bookings ahead. Past rentals are mostly completed, a few
+    // cancelled and one in ten thousand still active (overdue); current ones are active, future ones
+    // pending or confirmed.
+    private void insertRentals(List<Long> customerIds, List<Long> equipmentIds, LocalDate today) {
+        Random random = new Random(42);
+        LocalDate first = today.minusYears(4);
+        int days = 5 * 365;
+        for (int batchStart = 0; batchStart < RENTALS; batchStart += BATCH) {
+            long firstId = FIRST_ID + batchStart;
+            jdbcTemplate.batchUpdate(
+                    "insert into rentals (id, customer_id, equipment_id, start_date, end_date, quantity, daily_rate, "
+                            + "total_amount, status) values (?, ?, ?, ?, ?, ?, ?, ?, ?)",
+                    new BatchPreparedStatementSetter() {
+                        @Override
+                        public void setValues(PreparedStatement statement, int i) throws SQLException {
+                            LocalDate start = first.plusDays(random.nextInt(days));
+                            int length = 1 + random.nextInt(14);
+                            LocalDate end = start.plusDays(length - 1);
+                            String status;
+                            if (end.isBefore(today)) {
+                                int roll = random.nextInt(10_000);
+                                status = roll == 0 ? "ACTIVE" : roll < 1000 ? "CANCELLED" : "COMPLETED";
+                            } else if (start.isAfter(today)) {
+                                status = random.nextBoolean() ? "PENDING" : "CONFIRMED";
+                            } else {
+                                status = "ACTIVE";
+                            }
+                            statement.setLong(1, firstId + i);
+                            statement.setLong(2, customerIds.get(random.nextInt(customerIds.size())));
+                            statement.setLong(3, equipmentIds.get(random.nextInt(equipmentIds.size())));
+                            statement.setDate(4, Date.valueOf(start));
+                            statement.setDate(5, Date.valueOf(end));
+                            statement.setInt(6, 1);
+                            statement.setBigDecimal(7, BigDecimal.TEN);
+                            statement.setBigDecimal(8, BigDecimal.TEN.multiply(BigDecimal.valueOf(length)));
+                            statement.setString(9, status);
+                        }
+                        
+                        @Override
+                        public int getBatchSize() {
+                            return BATCH;
+                        }
+                    });
+        }
+    }
+}
\ No newline at end of file
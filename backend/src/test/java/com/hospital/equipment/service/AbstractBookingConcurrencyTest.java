@@ -0,0 +1,108 @@
+package com.hospital.equipment.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.annotation.DirtiesContext;
+
+import com.hospital.equipment.entity.Customer;
+import com.hospital.equipment.entity.Equipment;
+import com.hospital.equipment.entity.Rental;
+import com.hospital.equipment.repository.CustomerRepository;
+import com.hospital.equipment.repository.EquipmentRepository;
+import com.hospital.equipment.repository.RentalRepository;
+
+// Races thousands of bookings of the same equipment for the same dates and checks that the
+// configured concurrency mode never books more units than there are. Each subclass starts its own
+// context, with its own in-memory database, for one mode; each is closed afterwards, as the JCache
+// regions of the second-level cache are shared within the JVM until then.
+@DirtiesContext
+abstract class AbstractBookingConcurrencyTest {
+    
+    private static final int BOOKINGS = 2000;
+    private static final int THREADS = 16;
+    
+    @Autowired
+    private RentalBookingService rentalBookingService;
+    
+    @Autowired
+    private CustomerRepository customerRepository;
+    
+    @Autowired
+    private EquipmentRepository equipmentRepository;
+    
+    @Autowired
+    private RentalRepository rentalRepository;
+    
+    protected abstract BookingConcurrencyMode expectedMode();
+    
+    @Test
+    void parallelBookingsNeverOverbook() throws Exception {
+        assertEquals(expectedMode(), rentalBookingService.getMode());
+        
+        Customer customer = customerRepository.findAll().get(0);
+        Equipment equipment = equipmentRepository.findAll().stream()
+                .filter(candidate -> "PO-50".equals(candidate.getModel()))
+                .findFirst()
+                .orElseThrow();
+        int units = equipment.getTotalQuantity();
+        LocalDate startDate = LocalDate.now().plusDays(30);
+        LocalDate endDate = startDate.plusDays(5);
+        
+        AtomicInteger booked = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+        ConcurrentLinkedQueue<Throwable> unexpected = new ConcurrentLinkedQueue<>();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < BOOKINGS; i++) {
+                futures.add(pool.submit(() -> {
+                    start.await();
+                    Rental rental = new Rental();
+                    rental.setCustomer(customerRepository.getReferenceById(customer.getId()));
+                    rental.setEquipment(equipmentRepository.getReferenceById(equipment.getId()));
+                    rental.setStartDate(startDate);
+                    rental.setEndDate(endDate);
+                    rental.setQuantity(1);
+                    try {
+                        rentalBookingService.createRental(rental);
+                        booked.incrementAndGet();
+                    } catch (IllegalArgumentException | IllegalStateException e) {
+                        // Not available, or gave up after too many optimistic conflicts
+                        rejected.incrementAndGet();
+                    } catch (RuntimeException e) {
+                        unexpected.add(e);
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+        
+        int bookedUnits = rentalRepository.findConflictingRentals(equipment.getId(), startDate, endDate).stream()
+                .mapToInt(Rental::getQuantity)
+                .sum();
+        assertTrue(unexpected.isEmpty(), () -> "Unexpected booking failures: " + unexpected);
+        assertEquals(BOOKINGS, booked.get() + rejected.get());
+        assertEquals(units, booked.get(), "bookings accepted");
+        assertEquals(units, bookedUnits, "units booked in the database");
+    }
+}
\ No newline at end of file
@@ -0,0 +1,103 @@
+package com.hospital.equipment.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.time.LocalDate;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+class BookingCalendarTest {
+    
+    private static final LocalDate DAY = LocalDate.of(2025, 3, 10);
+    
+    @Test
+    void peakIsTheBusiestDayInTheRange() {
+        BookingCalendar calendar = new BookingCalendar();
+        calendar.add(DAY, DAY.plusDays(4), 2);
+        calendar.add(DAY.plusDays(3), DAY.plusDays(8), 3);
+        
+        assertEquals(5, calendar.getPeak(DAY, DAY.plusDays(8)));
+        assertEquals(2, calendar.getPeak(DAY, DAY.plusDays(2)));
+        assertEquals(3, calendar.getPeak(DAY.plusDays(5), DAY.plusDays(20)));
+        assertEquals(0, calendar.getPeak(DAY.plusDays(9), DAY.plusDays(20)));
+        assertEquals(0, calendar.getPeak(DAY.minusDays(5), DAY.minusDays(1)));
+    }
+    
+    @Test
+    void singleDayBookingsTouchOnlyThatDay() {
+        BookingCalendar calendar = new BookingCalendar();
+        calendar.add(DAY, DAY, 4);
+        
+        assertEquals(4, calendar.getPeak(DAY, DAY));
+        assertEquals(0, calendar.getPeak(DAY.minusDays(1), DAY.minusDays(1)));
+        assertEquals(0, calendar.getPeak(DAY.plusDays(1), DAY.plusDays(1)));
+    }
+    
+    @Test
+    void removeUndoesAdd() {
+        BookingCalendar calendar = new BookingCalendar();
+        calendar.add(DAY, DAY.plusDays(10), 2);
+        calendar.add(DAY.plusDays(5), DAY.plusDays(6), 1);
+        calendar.remove(DAY, DAY.plusDays(10), 2);
+        
+        assertEquals(1, calendar.getPeak(DAY, DAY.plusDays(10)));
+        calendar.remove(DAY.plusDays(5), DAY.plusDays(6), 1);
+        assertEquals(0, calendar.getPeak(DAY, DAY.plusDays(10)));
+    }
+    
+    @Test
+    void invertedRangesAreIgnored() {
+        BookingCalendar calendar = new BookingCalendar();
+        calendar.add(DAY.plusDays(3), DAY, 5);
+        
+        assertEquals(0, calendar.getPeak(DAY, DAY.plusDays(3)));
+        calendar.add(DAY, DAY.plusDays(3), 1);
+        assertEquals(0, calendar.getPeak(DAY.plusDays(3), DAY));
+    }
+    
+    // Days outside the covered span are clamped to its first and last day
+    @Test
+    void datesOutsideTheDomainAreClamped() {
+        BookingCalendar calendar = new BookingCalendar();
+        calendar.add(LocalDate.of(1960, 1, 1), LocalDate.of(1970, 1, 1), 1);
+        calendar.add(LocalDate.of(2400, 1, 1), LocalDate.of(2500, 1, 1), 2);
+        
+        assertEquals(1, calendar.getPeak(LocalDate.EPOCH, LocalDate.EPOCH));
+        assertEquals(0, calendar.getPeak(LocalDate.EPOCH.plusDays(1), LocalDate.of(2300, 1, 1)));
+        assertEquals(2, calendar.getPeak(LocalDate.of(2600, 1, 1), LocalDate.of(2600, 1, 1)));
+    }
+    
+    @Test
+    void matchesADayByDayCount() {
+        int days = 400;
+        int[] booked = new int[days];
+        BookingCalendar calendar = new BookingCalendar();
+        Random random = new Random(1);
+        for (int i = 0; i < 2000; i++) {
+            int start = random.nextInt(days);
+            int end = Math.min(days - 1, start + random.nextInt(30));
+            int quantity = 1 + random.nextInt(3);
+            if (random.nextInt(4) == 0 && booked[start] >= quantity) {
+                // One day out of whatever covers it, so removals don't line up with the earlier adds
+                end = start;
+                calendar.remove(DAY.plusDays(start), DAY.plusDays(end), quantity);
+                booked[start] -= quantity;
+            } else {
+                calendar.add(DAY.plusDays(start), DAY.plusDays(end), quantity);
+                for (int day = start; day <= end; day++) {
+                    booked[day] += quantity;
+                }
+            }
+            
+            int from = random.nextInt(days);
+            int to = Math.min(days - 1, from + random.nextInt(60));
+            int expected = 0;
+            for (int day = from; day <= to; day++) {
+                expected = Math.max(expected, booked[day]);
+            }
+            assertEquals(expected, calendar.getPeak(DAY.plusDays(from), DAY.plusDays(to)),
+                         "peak over days " + from + ".." + to + " after step " + i);
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,121 @@
+package com.hospital.equipment.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+class BookingTimelineTest {
+    
+    private static final LocalDate DAY = LocalDate.of(2025, 3, 10);
+    
+    @Test
+    void emptyTimelineIsOneFreeRun() {
+        BookingTimeline timeline = new BookingTimeline();
+        
+        assertEquals(List.of(run(0, 9, 0)), timeline.getRuns(DAY, DAY.plusDays(9)));
+    }
+    
+    @Test
+    void overlappingBookingsSplitIntoRuns() {
+        BookingTimeline timeline = new BookingTimeline();
+        timeline.add(DAY.plusDays(2), DAY.plusDays(5), 1);
+        timeline.add(DAY.plusDays(4), DAY.plusDays(7), 2);
+        
+        assertEquals(List.of(run(0, 1, 0), run(2, 3, 1), run(4, 5, 3), run(6, 7, 2), run(8, 9, 0)),
+                     timeline.getRuns(DAY, DAY.plusDays(9)));
+    }
+    
+    @Test
+    void runsAreClippedToTheRange() {
+        BookingTimeline timeline = new BookingTimeline();
+        timeline.add(DAY.minusDays(5), DAY.plusDays(2), 2);
+        timeline.add(DAY.plusDays(8), DAY.plusDays(20), 1);
+        
+        assertEquals(List.of(run(0, 2, 2), run(3, 7, 0), run(8, 9, 1)), timeline.getRuns(DAY, DAY.plusDays(9)));
+        assertEquals(List.of(run(4, 4, 0)), timeline.getRuns(DAY.plusDays(4), DAY.plusDays(4)));
+    }
+    
+    // A booking ending the day before another starts leaves no run in between, and equal totals merge
+    @Test
+    void backToBackBookingsWithEqualQuantitiesMerge() {
+        BookingTimeline timeline = new BookingTimeline();
+        timeline.add(DAY, DAY.plusDays(2), 1);
+        timeline.add(DAY.plusDays(3), DAY.plusDays(5), 1);
+        
+        assertEquals(List.of(run(0, 5, 1), run(6, 9, 0)), timeline.getRuns(DAY, DAY.plusDays(9)));
+    }
+    
+    @Test
+    void matchesADayByDayCount() {
+        int days = 120;
+        int[] booked = new int[days];
+        BookingTimeline timeline = new BookingTimeline();
+        Random random = new Random(3);
+        for (int i = 0; i < 60; i++) {
+            int start = random.nextInt(days);
+            int end = Math.min(days - 1, start + random.nextInt(20));
+            int quantity = 1 + random.nextInt(3);
+            timeline.add(DAY.plusDays(start), DAY.plusDays(end), quantity);
+            for (int day = start; day <= end; day++) {
+                booked[day] += quantity;
+            }
+        }
+        
+        int from = 10;
+        int to = 100;
+        List<BookingTimeline.Run> runs = timeline.getRuns(DAY.plusDays(from), DAY.plusDays(to));
+        LocalDate expectedStart = DAY.plusDays(from);
+        for (int r = 0; r < runs.size(); r++) {
+            BookingTimeline.Run run = runs.get(r);
+            assertEquals(expectedStart, run.startDate());
+            for (LocalDate day = run.startDate(); !day.isAfter(run.endDate()); day = day.plusDays(1)) {
+                assertEquals(booked[(int) (day.toEpochDay() - DAY.toEpochDay())], run.booked(), "booked on " + day);
+            }
+            if (r > 0) {
+                assertNotEquals(runs.get(r - 1).booked(), run.booked(), "runs " + (r - 1) + " and " + r);
+            }
+            expectedStart = run.endDate().plusDays(1);
+        }
+        assertEquals(DAY.plusDays(to + 1), expectedStart);
+    }
+    
+    @Test
+    void freeStretchesSkipDaysBookedAboveTheMaximum() {
+        BookingTimeline timeline = new BookingTimeline();
+        timeline.add(DAY.plusDays(3), DAY.plusDays(5), 2);
+        timeline.add(DAY.plusDays(5), DAY.plusDays(9), 1);
+        
+        assertEquals(List.of(stretch(0, 2), stretch(6, null)), timeline.getFreeStretches(DAY, 1));
+        assertEquals(List.of(stretch(0, 2), stretch(10, null)), timeline.getFreeStretches(DAY, 0));
+        assertEquals(List.of(stretch(0, null)), timeline.getFreeStretches(DAY, 3));
+    }
+    
+    @Test
+    void freeStretchesStartNoEarlierThanFrom() {
+        BookingTimeline timeline = new BookingTimeline();
+        timeline.add(DAY, DAY.plusDays(4), 1);
+        
+        assertEquals(List.of(stretch(5, null)), timeline.getFreeStretches(DAY.plusDays(2), 0));
+        assertEquals(List.of(stretch(20, null)), timeline.getFreeStretches(DAY.plusDays(20), 0));
+    }
+    
+    @Test
+    void noStretchesBelowZero() {
+        BookingTimeline timeline = new BookingTimeline();
+        
+        assertEquals(List.of(), timeline.getFreeStretches(DAY, -1));
+    }
+    
+    private static BookingTimeline.Stretch stretch(int startDay, Integer endDay) {
+        return new BookingTimeline.Stretch(DAY.plusDays(startDay), endDay == null ? null : DAY.plusDays(endDay));
+    }
+    
+    private static BookingTimeline.Run run(int startDay, int endDay, int booked) {
+        return new BookingTimeline.Run(DAY.plusDays(startDay), DAY.plusDays(endDay), booked);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,96 @@
+package com.hospital.equipment.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+
+import com.hospital.equipment.dto.BulkRentalResult;
+import com.hospital.equipment.entity.Customer;
+import com.hospital.equipment.entity.Equipment;
+import com.hospital.equipment.entity.Rental;
+import com.hospital.equipment.repository.CustomerRepository;
+import com.hospital.equipment.repository.EquipmentRepository;
+
+// Books the same 1,000 rentals once as single bookings and once as one bulk call, and prints both
+// times. Run with: mvn test -Dtest=BulkRentalBenchmarkTest -Dbenchmark=true
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:bulk-benchmark",
+        "spring.jpa.show-sql=false"
+})
+@DirtiesContext
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class BulkRentalBenchmarkTest {
+    
+    private static final int RENTALS = 1000;
+    private static final int UNITS = 10_000;
+    
+    @Autowired
+    private RentalBookingService rentalBookingService;
+    
+    @Autowired
+    private CustomerRepository customerRepository;
+    
+    @Autowired
+    private EquipmentRepository equipmentRepository;
+    
+    @Autowired
+    private EquipmentService equipmentService;
+    
+    @Test
+    void singleCreatesAgainstOneBulkCall() {
+        Customer customer = customerRepository.findAll().get(0);
+        // Enough units that the counter of units out never runs out across all three runs
+        List<Equipment> equipment = new ArrayList<>();
+        for (Equipment item : equipmentRepository.findAll()) {
+            if (item.getStatus() == Equipment.EquipmentStatus.AVAILABLE) {
+                item.setTotalQuantity(UNITS);
+                item.setAvailableQuantity(UNITS);
+                equipment.add(equipmentService.updateEquipment(item.getId(), item));
+            }
+        }
+        // Warm up on dates of their own so neither run pays for class loading and cold caches
+        rentalBookingService.createRentals(rentals(customer, equipment, LocalDate.now().plusYears(1), 50), false);
+        
+        List<Rental> singles = rentals(customer, equipment, LocalDate.now().plusYears(2), RENTALS);
+        long started = System.nanoTime();
+        for (Rental rental : singles) {
+            rentalBookingService.createRental(rental);
+        }
+        long singleMillis = (System.nanoTime() - started) / 1_000_000;
+        
+        List<Rental> bulk = rentals(customer, equipment, LocalDate.now().plusYears(4), RENTALS);
+        started = System.nanoTime();
+        BulkRentalResult result = rentalBookingService.createRentals(bulk, false);
+        long bulkMillis = (System.nanoTime() - started) / 1_000_000;
+        
+        System.out.printf("%d rentals: single creates %d ms, one bulk call %d ms (%.1fx)%n",
+                RENTALS, singleMillis, bulkMillis, (double) singleMillis / Math.max(1, bulkMillis));
+        assertTrue(result.errors().isEmpty(), () -> "bulk errors: " + result.errors());
+        assertEquals(RENTALS, result.created().size());
+    }
+    
+    // One-day rentals of one unit, spread over the equipment so that none of them overlap
+    private static List<Rental> rentals(Customer customer, List<Equipment> equipment, LocalDate from, int count) {
+        List<Rental> rentals = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            LocalDate day = from.plusDays(2L * (i / equipment.size()));
+            Rental rental = new Rental();
+            rental.setCustomer(customer);
+            rental.setEquipment(equipment.get(i % equipment.size()));
+            rental.setStartDate(day);
+            rental.setEndDate(day);
+            rental.setQuantity(1);
+            rentals.add(rental);
+        }
+        return rentals;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,133 @@
+package com.hospital.equipment.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import org.junit.jupiter.api.Test;
+
+import com.hospital.equipment.dto.CustomerView;
+
+class CustomerSearchIndexTest {
+    
+    @Test
+    void substringOfANameMatches() {
+        CustomerSearchIndex index = index(
+                customer(1L, "Mary", "Sanders", "mary@example.com"),
+                customer(2L, "Peter", "Walsh", "peter@example.com"));
+        
+        assertEquals(List.of(1L), index.search("ander", 10));
+        assertEquals(List.of(1L), index.search("SANDERS", 10));
+    }
+    
+    @Test
+    void misspelledNameMatchesWithEnoughSharedTrigrams() {
+        CustomerSearchIndex index = index(
+                customer(1L, "Carl", "Johnson", "carl@example.com"),
+                customer(2L, "Nina", "Brown", "nina@example.com"));
+        
+        assertEquals(List.of(1L), index.search("jonson", 10));
+        assertEquals(List.of(), index.search("xylophone", 10));
+    }
+    
+    // Andrews shares the query's word-start grams but not the word; Sanders contains it
+    @Test
+    void exactSubstringOutranksAFuzzyMatch() {
+        CustomerSearchIndex index = index(
+                customer(1L, "Ruth", "Andrews", "ruth@example.com"),
+                customer(2L, "Mary", "Sanders", "mary@example.com"));
+        
+        assertEquals(List.of(2L, 1L), index.search("anders", 10));
+    }
+    
+    @Test
+    void shorterCustomerRanksFirstAmongEqualMatches() {
+        CustomerSearchIndex index = index(
+                customer(1L, "Annabelle", "Leeson", "a1@example.com"),
+                customer(2L, "Ann", "Lee", "a2@example.com"));
+        
+        assertEquals(List.of(2L, 1L), index.search("ann", 10));
+    }
+    
+    @Test
+    void emailsAreSearchedToo() {
+        CustomerSearchIndex index = index(
+                customer(1L, "Mary", "Sanders", "m.sanders@stmarys-hospital.org"),
+                customer(2L, "Peter", "Walsh", "peter@example.com"));
+        
+        assertEquals(List.of(1L), index.search("stmarys", 10));
+    }
+    
+    @Test
+    void accentsAndCaseAreIgnored() {
+        CustomerSearchIndex index = index(customer(1L, "José", "Muñoz", "jose@example.com"));
+        
+        assertEquals(List.of(1L), index.search("munoz", 10));
+        assertEquals(List.of(1L), index.search("MUÑOZ", 10));
+    }
+    
+    @Test
+    void limitKeepsTheBestHitsWithTiesToTheLowerId() {
+        List<CustomerView> customers = new ArrayList<>();
+        for (long id = 5; id >= 1; id--) {
+            customers.add(customer(id, "Sam", "Smith", "s" + id + "@example.com"));
+        }
+        CustomerSearchIndex index = index(customers.toArray(new CustomerView[0]));
+        
+        assertEquals(List.of(1L, 2L, 3L), index.search("smith", 3));
+        assertEquals(List.of(), index.search("smith", 0));
+        assertEquals(List.of(), index.search("  ", 10));
+    }
+    
+    @Test
+    void emailLookupIgnoresCaseAndSurroundingSpace() {
+        CustomerSearchIndex index = index(customer(1L, "Mary", "Sanders", "Mary.Sanders@Example.com"));
+        
+        assertEquals(Optional.of(1L), index.findIdByEmail("  mary.sanders@example.COM "));
+        assertEquals(Optional.empty(), index.findIdByEmail("mary@example.com"));
+    }
+    
+    // A freed slot is reused; nothing of the customer who had it may show up again
+    @Test
+    void removedCustomerLeavesNoTrace() {
+        CustomerSearchIndex index = index(
+                customer(1L, "Mary", "Sanders", "mary@example.com"),
+                customer(2L, "Peter", "Walsh", "peter@example.com"));
+        
+        index.remove(1L);
+        index.index(customer(3L, "Olga", "Ivanova", "olga@example.com"));
+        assertEquals(List.of(), index.search("sanders", 10));
+        assertEquals(Optional.empty(), index.findIdByEmail("mary@example.com"));
+        assertEquals(List.of(3L), index.search("ivanova", 10));
+        
+        index.index(customer(2L, "Peter", "Walsh", "p.walsh@example.com"));
+        assertEquals(Optional.empty(), index.findIdByEmail("peter@example.com"));
+        assertEquals(Optional.of(2L), index.findIdByEmail("p.walsh@example.com"));
+    }
+    
+    @Test
+    void searchBeforeTheIndexIsBuiltFails() {
+        CustomerSearchIndex index = new CustomerSearchIndex(null, null);
+        
+        assertThrows(IllegalStateException.class, () -> index.search("mary", 10));
+        assertThrows(IllegalStateException.class, () -> index.findIdByEmail("mary@example.com"));
+    }
+    
+    @Test
+    void normalizationKeepsEmailPunctuation() {
+        assertEquals("jose o neil m.s@x-y.org", CustomerSearchIndex.normalize("  José O'Neil, M.S@X-Y.org "));
+    }
+    
+    private static CustomerSearchIndex index(CustomerView... customers) {
+        CustomerSearchIndex index = new CustomerSearchIndex(null, null);
+        index.load(List.of(customers));
+        return index;
+    }
+    
+    private static CustomerView customer(Long id, String firstName, String lastName, String email) {
+        return new CustomerView(id, firstName, lastName, email, null, null, null, null, null);
+    }
+}
\ No newline at end of file
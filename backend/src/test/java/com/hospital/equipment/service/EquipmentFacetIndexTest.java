@@ -0,0 +1,167 @@
+package com.hospital.equipment.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.hospital.equipment.dto.CategoryView;
+import com.hospital.equipment.dto.EquipmentQuery;
+import com.hospital.equipment.dto.EquipmentView;
+import com.hospital.equipment.dto.FacetCount;
+import com.hospital.equipment.entity.Equipment;
+
+class EquipmentFacetIndexTest {
+    
+    private static final CategoryView BEDS = new CategoryView(1L, "Beds", null);
+    private static final CategoryView MOBILITY = new CategoryView(2L, "Mobility", null);
+    private static final CategoryView MONITORING = new CategoryView(3L, "Monitoring", null);
+    private static final LocalDate DAY = LocalDate.of(2025, 3, 10);
+    
+    private final PeakStub bookings = new PeakStub();
+    private EquipmentFacetIndex index;
+    
+    @BeforeEach
+    void setUp() {
+        index = new EquipmentFacetIndex(null, bookings, null, null);
+        index.load(List.of(
+                equipment(1L, MOBILITY, "5.00", Equipment.EquipmentStatus.AVAILABLE, 2, 2),
+                equipment(2L, MOBILITY, "15.00", Equipment.EquipmentStatus.AVAILABLE, 0, 3),
+                equipment(3L, BEDS, "30.00", Equipment.EquipmentStatus.AVAILABLE, 1, 1),
+                equipment(4L, BEDS, "60.00", Equipment.EquipmentStatus.MAINTENANCE, 0, 1),
+                equipment(5L, MONITORING, "120.00", Equipment.EquipmentStatus.AVAILABLE, 4, 4),
+                equipment(6L, MONITORING, "10.00", Equipment.EquipmentStatus.RENTED, 0, 2),
+                equipment(7L, null, "25.00", Equipment.EquipmentStatus.AVAILABLE, 1, 1)));
+    }
+    
+    @Test
+    void noFiltersCountsTheWholeCatalog() {
+        EquipmentFacetIndex.Match match = index.query(query(null, null, null, null), null);
+        
+        assertEquals(List.of(1L, 2L, 3L, 4L, 5L, 6L, 7L), match.ids());
+        assertEquals(List.of(category(BEDS, 2), category(MOBILITY, 2), category(MONITORING, 2)), match.categories());
+        assertEquals(List.of(1, 2, 2, 1, 1), counts(match.priceRanges()));
+    }
+    
+    @Test
+    void priceRangesRunUpToTheNextBoundExclusive() {
+        EquipmentFacetIndex.Match match = index.query(query(null, null, null, null), null);
+        
+        assertEquals(List.of("0-10", "10-25", "25-50", "50-100", "100+"),
+                     match.priceRanges().stream().map(FacetCount::label).toList());
+        assertEquals(List.of(1, 2, 2, 1, 1), counts(match.priceRanges()));
+    }
+    
+    // The category facet is counted without the category filter and the price facet without the
+    // price filter, so each still shows what picking another value would give
+    @Test
+    void eachFacetLeavesOutItsOwnFilter() {
+        EquipmentFacetIndex.Match match = index.query(query(List.of(2L), "10", "50", null), null);
+        
+        assertEquals(List.of(2L), match.ids());
+        assertEquals(List.of(category(BEDS, 1), category(MOBILITY, 1), category(MONITORING, 1)), match.categories());
+        assertEquals(List.of(1, 1, 0, 0, 0), counts(match.priceRanges()));
+    }
+    
+    @Test
+    void otherFiltersNarrowEveryFacet() {
+        EquipmentFacetIndex.Match match =
+                index.query(query(List.of(1L, 3L), null, null, Equipment.EquipmentStatus.AVAILABLE), null);
+        
+        assertEquals(List.of(3L, 5L), match.ids());
+        assertEquals(List.of(category(BEDS, 1), category(MOBILITY, 2), category(MONITORING, 1)), match.categories());
+        assertEquals(List.of(0, 0, 1, 0, 1), counts(match.priceRanges()));
+    }
+    
+    @Test
+    void keywordHitsAndStockNarrowTheBase() {
+        EquipmentQuery inStock = new EquipmentQuery(null, "x", null, null, null, true, null, null, null);
+        
+        EquipmentFacetIndex.Match match = index.query(inStock, List.of(1L, 2L, 4L, 5L, 99L));
+        assertEquals(List.of(1L, 5L), match.ids());
+        assertEquals(List.of(category(BEDS, 0), category(MOBILITY, 1), category(MONITORING, 1)), match.categories());
+    }
+    
+    // A period keeps AVAILABLE items with enough units free on the busiest day
+    @Test
+    void periodKeepsItemsWithEnoughFreeUnits() {
+        bookings.peaks.put(2L, 1);
+        bookings.peaks.put(5L, 3);
+        EquipmentQuery twoUnits = new EquipmentQuery(null, null, null, null, null, null, DAY, DAY.plusDays(2), 2);
+        
+        assertEquals(List.of(1L, 2L), index.query(twoUnits, null).ids());
+    }
+    
+    @Test
+    void statusAndCategoryCounts() {
+        Map<Equipment.EquipmentStatus, Integer> byStatus = index.countByStatus();
+        assertEquals(5, byStatus.get(Equipment.EquipmentStatus.AVAILABLE));
+        assertEquals(1, byStatus.get(Equipment.EquipmentStatus.RENTED));
+        assertEquals(1, byStatus.get(Equipment.EquipmentStatus.MAINTENANCE));
+        assertEquals(0, byStatus.get(Equipment.EquipmentStatus.RETIRED));
+        assertEquals(List.of(category(BEDS, 2), category(MOBILITY, 2), category(MONITORING, 2)), index.countByCategory());
+    }
+    
+    @Test
+    void reindexMovesAnItemBetweenBitmaps() {
+        index.index(equipment(3L, MOBILITY, "75.00", Equipment.EquipmentStatus.RETIRED, 0, 1));
+        index.remove(4L);
+        
+        assertEquals(List.of(category(MOBILITY, 3), category(MONITORING, 2)), index.countByCategory());
+        assertEquals(1, index.countByStatus().get(Equipment.EquipmentStatus.RETIRED));
+        assertEquals(0, index.countByStatus().get(Equipment.EquipmentStatus.MAINTENANCE));
+        assertEquals(List.of(1, 2, 1, 1, 1),
+                     counts(index.query(query(null, null, null, null), null).priceRanges()));
+    }
+    
+    @Test
+    void queriesBeforeTheIndexIsBuiltFail() {
+        EquipmentFacetIndex empty = new EquipmentFacetIndex(null, bookings, null, null);
+        
+        assertThrows(IllegalStateException.class, () -> empty.query(query(null, null, null, null), null));
+        assertThrows(IllegalStateException.class, empty::countByStatus);
+        assertThrows(IllegalStateException.class, empty::countByCategory);
+    }
+    
+    private static EquipmentQuery query(List<Long> categoryIds, String minPrice, String maxPrice,
+                                        Equipment.EquipmentStatus status) {
+        return new EquipmentQuery(categoryIds, null, minPrice == null ? null : new BigDecimal(minPrice),
+                                  maxPrice == null ? null : new BigDecimal(maxPrice), status, null, null, null, null);
+    }
+    
+    private static EquipmentView equipment(Long id, CategoryView category, String price,
+                                           Equipment.EquipmentStatus status, int available, int total) {
+        return new EquipmentView(id, "Item " + id, null, null, null, new BigDecimal(price), available, total,
+                                 status, null, category);
+    }
+    
+    private static FacetCount category(CategoryView category, int count) {
+        return new FacetCount(String.valueOf(category.id()), category.name(), count);
+    }
+    
+    private static List<Integer> counts(List<FacetCount> facets) {
+        return facets.stream().map(FacetCount::count).toList();
+    }
+    
+    // Peak bookings per item for any period
+    private static class PeakStub extends BookingCalendarIndex {
+        
+        private final Map<Long, Integer> peaks = new HashMap<>();
+        
+        PeakStub() {
+            super(null);
+        }
+        
+        @Override
+        public int getPeakBookedQuantity(Long equipmentId, LocalDate startDate, LocalDate endDate) {
+            return peaks.getOrDefault(equipmentId, 0);
+        }
+    }
+}
\ No newline at end of file
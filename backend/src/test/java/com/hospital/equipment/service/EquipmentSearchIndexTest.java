@@ -0,0 +1,132 @@
+package com.hospital.equipment.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.hospital.equipment.dto.CategoryView;
+import com.hospital.equipment.dto.EquipmentView;
+import com.hospital.equipment.entity.Equipment;
+
+class EquipmentSearchIndexTest {
+    
+    @Test
+    void halfTypedWordMatchesByPrefix() {
+        EquipmentSearchIndex index = index(
+                equipment(1L, "Defibrillator", "Automated external"),
+                equipment(2L, "Wheelchair", "Folding frame"));
+        
+        assertEquals(List.of(1L), index.search("defib", 10));
+        assertEquals(List.of(1L), index.search("DEFIBRILLATOR!", 10));
+        assertEquals(List.of(), index.search("defibs", 10));
+    }
+    
+    @Test
+    void wholeWordOutranksAPrefixMatch() {
+        EquipmentSearchIndex index = index(
+                equipment(1L, "Bedside Monitor", null),
+                equipment(2L, "Hospital Bed", null));
+        
+        assertEquals(List.of(2L, 1L), index.search("bed", 10));
+    }
+    
+    @Test
+    void everyQueryTermHasToMatch() {
+        EquipmentSearchIndex index = index(
+                equipment(1L, "Patient Monitor", null),
+                equipment(2L, "Fetal Monitor", null),
+                equipment(3L, "Patient Lift", null));
+        
+        assertEquals(List.of(1L), index.search("patient monitor", 10));
+        assertEquals(List.of(), index.search("patient scale", 10));
+    }
+    
+    @Test
+    void nameOutweighsDescription() {
+        EquipmentSearchIndex index = index(
+                equipment(1L, "Portable Unit", "Ventilator"),
+                equipment(2L, "Ventilator", "Portable unit"));
+        
+        assertEquals(List.of(2L, 1L), index.search("ventilator", 10));
+    }
+    
+    // Both items have both words; the one with the rare word in its name wins
+    @Test
+    void rareTermsWeighMoreThanCommonOnes() {
+        EquipmentSearchIndex index = index(
+                equipment(1L, "Monitor", "Portable"),
+                equipment(2L, "Portable", "Monitor"),
+                equipment(3L, "Monitor", null),
+                equipment(4L, "Monitor", null),
+                equipment(5L, "Monitor", null));
+        
+        assertEquals(List.of(2L, 1L), index.search("portable monitor", 10));
+    }
+    
+    @Test
+    void modelManufacturerAndCategoryAreSearched() {
+        EquipmentSearchIndex index = index(
+                new EquipmentView(1L, "Ventilator", null, "V60", "Philips", BigDecimal.TEN, 1, 1,
+                                  Equipment.EquipmentStatus.AVAILABLE, null, new CategoryView(7L, "Respiratory", null)),
+                equipment(2L, "Wheelchair", null));
+        
+        assertEquals(List.of(1L), index.search("v60", 10));
+        assertEquals(List.of(1L), index.search("philips", 10));
+        assertEquals(List.of(1L), index.search("respir", 10));
+    }
+    
+    // Equal scores come back in id order, and the limit keeps the best of them
+    @Test
+    void limitKeepsTheBestHitsWithTiesToTheLowerId() {
+        EquipmentSearchIndex index = index(
+                equipment(3L, "Walker", null),
+                equipment(1L, "Walker", null),
+                equipment(2L, "Walker", null),
+                equipment(4L, "Walker with seat", null));
+        
+        assertEquals(List.of(1L, 2L), index.search("walker", 2));
+        assertEquals(List.of(1L, 2L, 3L, 4L), index.search("walker", 10));
+        assertEquals(List.of(), index.search("walker", 0));
+        assertEquals(List.of(), index.search(" -- ", 10));
+    }
+    
+    @Test
+    void reindexingReplacesTheOldTerms() {
+        EquipmentSearchIndex index = index(equipment(1L, "Infusion Pump", null));
+        
+        index.index(equipment(1L, "Syringe Driver", null));
+        assertEquals(List.of(), index.search("infusion", 10));
+        assertEquals(List.of(1L), index.search("syringe", 10));
+        
+        index.remove(1L);
+        assertEquals(List.of(), index.search("syringe", 10));
+    }
+    
+    @Test
+    void searchBeforeTheIndexIsBuiltFails() {
+        EquipmentSearchIndex index = new EquipmentSearchIndex(null, null);
+        
+        assertThrows(IllegalStateException.class, () -> index.search("bed", 10));
+    }
+    
+    @Test
+    void tokensAreLowerCaseWordsAndNumbers() {
+        assertEquals(List.of("x", "ray", "3000", "mark", "ii"), EquipmentSearchIndex.tokenize("X-Ray 3000, Mark_II"));
+        assertEquals(List.of(), EquipmentSearchIndex.tokenize(null));
+    }
+    
+    private static EquipmentSearchIndex index(EquipmentView... catalog) {
+        EquipmentSearchIndex index = new EquipmentSearchIndex(null, null);
+        index.load(List.of(catalog));
+        return index;
+    }
+    
+    private static EquipmentView equipment(Long id, String name, String description) {
+        return new EquipmentView(id, name, description, null, null, BigDecimal.TEN, 1, 1,
+                                 Equipment.EquipmentStatus.AVAILABLE, null, null);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,115 @@
+package com.hospital.equipment.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.function.Supplier;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.hospital.equipment.dto.LedgerSnapshotResult;
+import com.hospital.equipment.entity.Rental;
+import com.hospital.equipment.event.RentalChangedEvent;
+import com.hospital.equipment.event.RentalSnapshot;
+
+// Records 50,000 rentals going through created, confirmed, activated and returned (200,000 events),
+// then times a replay of the whole ledger, taking a snapshot, a replay from that snapshot alone and
+// one from the snapshot plus 10,000 later events. Events go straight to the ledger, so only its
+// tables fill up. Run with: mvn test -Dtest=LedgerReplayBenchmarkTest -Dbenchmark=true
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:ledger-replay-benchmark",
+        "spring.jpa.show-sql=false",
+        // Neither the scheduled snapshot nor the stats recount may run in the middle of a measurement
+        "rental.ledger.snapshot-check-interval-ms=86400000",
+        "stats.recount-interval-ms=86400000"
+})
+@DirtiesContext
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class LedgerReplayBenchmarkTest {
+    
+    private static final int RENTALS = 50_000;
+    private static final int TAIL_RENTALS = 2_500;
+    private static final int RENTALS_PER_TRANSACTION = 1000;
+    private static final int RUNS = 3;
+    // Clear of the ids rental_seq hands out, so no real rental shares a history with these
+    private static final long FIRST_ID = 1_000_000_000L;
+    
+    @Autowired
+    private RentalLedger rentalLedger;
+    
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    
+    @Test
+    void replayFromEventsAndFromSnapshot() {
+        long started = System.nanoTime();
+        record(FIRST_ID, RENTALS);
+        System.out.printf("Recorded %d events in %d ms%n", RENTALS * 4, (System.nanoTime() - started) / 1_000_000);
+        
+        RentalLedger.State full = time("replay, no snapshot", () -> rentalLedger.replay(rental -> true));
+        assertTrue(full.rentals().size() >= RENTALS);
+        
+        LedgerSnapshotResult snapshot = rentalLedger.takeSnapshot();
+        System.out.printf("%-32s %8d ms (%d rentals, %d bytes)%n", "snapshot", snapshot.millis(),
+                          snapshot.rentals(), snapshot.bytes());
+        
+        RentalLedger.State fromSnapshot = time("replay, snapshot only", () -> rentalLedger.replay(rental -> true));
+        assertEquals(0, fromSnapshot.eventsReplayed());
+        assertEquals(full.rentals(), fromSnapshot.rentals());
+        
+        record(FIRST_ID + RENTALS, TAIL_RENTALS);
+        RentalLedger.State withTail = time("replay, snapshot + tail", () -> rentalLedger.replay(rental -> true));
+        assertEquals(TAIL_RENTALS * 4, withTail.eventsReplayed());
+    }
+    
+    private static RentalLedger.State time(String label, Supplier<RentalLedger.State> replay) {
+        // One untimed run so the first timed one doesn't pay for class loading and query compilation
+        RentalLedger.State state = replay.get();
+        long started = System.nanoTime();
+        for (int run = 0; run < RUNS; run++) {
+            state = replay.get();
+        }
+        double millis = (System.nanoTime() - started) / 1_000_000.0 / RUNS;
+        System.out.printf("%-32s %8.1f ms (%d rentals, %d events", label, millis, state.rentals().size(),
+                          state.eventsReplayed());
+        System.out.println(state.eventsReplayed() == 0 ? ")"
+                : String.format(", %.0f events/s)", state.eventsReplayed() / (millis / 1000)));
+        return state;
+    }
+    
+    // Each rental's four changes, a batch of rentals per transaction as a bulk booking would write them
+    private void record(long firstId, int count) {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        LocalDate start = LocalDate.now().minusDays(30);
+        for (int batch = 0; batch < count; batch += RENTALS_PER_TRANSACTION) {
+            long batchStart = firstId + batch;
+            int size = Math.min(RENTALS_PER_TRANSACTION, count - batch);
+            transactionTemplate.executeWithoutResult(status -> {
+                for (long id = batchStart; id < batchStart + size; id++) {
+                    RentalSnapshot pending = new RentalSnapshot(id, 1 + id % 10, 1 + id % 3, start, start.plusDays(6),
+                            null, 1, BigDecimal.TEN, BigDecimal.valueOf(70), Rental.RentalStatus.PENDING);
+                    RentalSnapshot confirmed = withStatus(pending, Rental.RentalStatus.CONFIRMED, null);
+                    RentalSnapshot active = withStatus(confirmed, Rental.RentalStatus.ACTIVE, null);
+                    RentalSnapshot returned = withStatus(active, Rental.RentalStatus.COMPLETED, start.plusDays(6));
+                    rentalLedger.onRentalChanged(new RentalChangedEvent(null, pending));
+                    rentalLedger.onRentalChanged(new RentalChangedEvent(pending, confirmed));
+                    rentalLedger.onRentalChanged(new RentalChangedEvent(confirmed, active));
+                    rentalLedger.onRentalChanged(new RentalChangedEvent(active, returned));
+                }
+            });
+        }
+    }
+    
+    private static RentalSnapshot withStatus(RentalSnapshot rental, Rental.RentalStatus status, LocalDate returned) {
+        return new RentalSnapshot(rental.id(), rental.equipmentId(), rental.customerId(), rental.startDate(),
+                rental.endDate(), returned, rental.quantity(), rental.dailyRate(), rental.totalAmount(), status);
+    }
+}
\ No newline at end of file
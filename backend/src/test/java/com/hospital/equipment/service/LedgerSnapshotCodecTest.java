@@ -0,0 +1,150 @@
+package com.hospital.equipment.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+import com.hospital.equipment.entity.Rental;
+import com.hospital.equipment.event.RentalSnapshot;
+
+class LedgerSnapshotCodecTest {
+    
+    private static final LocalDate DAY = LocalDate.of(2025, 3, 10);
+    
+    @Test
+    void everyFieldSurvivesARoundTrip() {
+        Map<Long, RentalSnapshot> rentals = new HashMap<>();
+        Rental.RentalStatus[] statuses = Rental.RentalStatus.values();
+        for (int i = 0; i < statuses.length; i++) {
+            long id = 1L << (8 * i);
+            rentals.put(id, new RentalSnapshot(id, 10L + i, Long.MAX_VALUE - i, DAY.minusYears(60), DAY.plusDays(i),
+                    i % 2 == 0 ? null : DAY.plusDays(i + 1), 1 + i, new BigDecimal("12.50"),
+                    new BigDecimal("12.50").multiply(BigDecimal.valueOf(1 + i)), statuses[i]));
+        }
+        
+        assertEquals(rentals, roundTrip(rentals));
+    }
+    
+    // BigDecimal equality includes the scale, so 70 and 70.00 must come back as they went in
+    @Test
+    void amountsKeepTheirScaleAndSign() {
+        Map<Long, RentalSnapshot> rentals = new HashMap<>();
+        String[] amounts = {"0", "0.00", "70", "70.00", "-3.10", "0.005", "99999999.99", "123456789012345678901234.5"};
+        for (int i = 0; i < amounts.length; i++) {
+            rentals.put((long) i, rental((long) i, new BigDecimal(amounts[i]), Rental.RentalStatus.ACTIVE));
+        }
+        
+        Map<Long, RentalSnapshot> read = roundTrip(rentals);
+        for (int i = 0; i < amounts.length; i++) {
+            assertEquals(amounts[i], read.get((long) i).dailyRate().toString());
+        }
+    }
+    
+    @Test
+    void emptyLedgerRoundTrips() {
+        assertEquals(Map.of(), roundTrip(Map.of()));
+    }
+    
+    @Test
+    void filterIsAppliedWhileReading() {
+        Map<Long, RentalSnapshot> rentals = Map.of(
+                1L, rental(1L, BigDecimal.TEN, Rental.RentalStatus.ACTIVE),
+                2L, rental(2L, BigDecimal.TEN, Rental.RentalStatus.COMPLETED),
+                3L, rental(3L, BigDecimal.TEN, Rental.RentalStatus.PENDING));
+        Map<Long, RentalSnapshot> read = new HashMap<>();
+        
+        assertTrue(RentalLedger.read(RentalLedger.write(rentals),
+                                     rental -> rental.status() != Rental.RentalStatus.COMPLETED, read));
+        assertEquals(Map.of(1L, rentals.get(1L), 3L, rentals.get(3L)), read);
+    }
+    
+    // Statuses are stored by name, so reordering the enum does not misread older snapshots
+    @Test
+    void statusOrdinalsAreResolvedThroughTheStoredNames() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeInt(1);
+            out.writeByte(2);
+            out.writeUTF("COMPLETED");
+            out.writeUTF("PENDING");
+            out.writeInt(1);
+            out.writeLong(7);
+            out.writeLong(8);
+            out.writeLong(9);
+            out.writeInt((int) DAY.toEpochDay());
+            out.writeInt((int) DAY.plusDays(1).toEpochDay());
+            out.writeInt(Integer.MIN_VALUE);
+            out.writeInt(2);
+            for (int amount = 0; amount < 2; amount++) {
+                out.writeByte(0);
+                out.writeByte(1);
+                out.writeByte(5);
+            }
+            out.writeByte(0);
+        }
+        Map<Long, RentalSnapshot> read = new HashMap<>();
+        
+        assertTrue(RentalLedger.read(bytes.toByteArray(), rental -> true, read));
+        assertEquals(new RentalSnapshot(7L, 8L, 9L, DAY, DAY.plusDays(1), null, 2, BigDecimal.valueOf(5),
+                                        BigDecimal.valueOf(5), Rental.RentalStatus.COMPLETED), read.get(7L));
+    }
+    
+    @Test
+    void otherFormatIsNotRead() {
+        byte[] data = RentalLedger.write(Map.of(1L, rental(1L, BigDecimal.TEN, Rental.RentalStatus.ACTIVE)));
+        ByteBuffer.wrap(data).putInt(0, 2);
+        
+        assertFalse(RentalLedger.read(data, rental -> true, new HashMap<>()));
+    }
+    
+    @Test
+    void statusThisVersionDoesNotKnowIsNotRead() {
+        byte[] data = RentalLedger.write(Map.of());
+        // PENDING is the first name in the table
+        int at = indexOf(data, "PENDING".getBytes());
+        System.arraycopy("LOSTXXX".getBytes(), 0, data, at, 7);
+        
+        assertFalse(RentalLedger.read(data, rental -> true, new HashMap<>()));
+    }
+    
+    @Test
+    void damagedSnapshotsAreNotRead() {
+        byte[] data = RentalLedger.write(Map.of(1L, rental(1L, BigDecimal.TEN, Rental.RentalStatus.ACTIVE)));
+        
+        assertFalse(RentalLedger.read(Arrays.copyOf(data, data.length - 1), rental -> true, new HashMap<>()));
+        data[data.length - 1] = 100;
+        assertFalse(RentalLedger.read(data, rental -> true, new HashMap<>()));
+        assertFalse(RentalLedger.read(new byte[0], rental -> true, new HashMap<>()));
+    }
+    
+    private static Map<Long, RentalSnapshot> roundTrip(Map<Long, RentalSnapshot> rentals) {
+        Map<Long, RentalSnapshot> read = new HashMap<>();
+        assertTrue(RentalLedger.read(RentalLedger.write(rentals), rental -> true, read));
+        return read;
+    }
+    
+    private static RentalSnapshot rental(Long id, BigDecimal dailyRate, Rental.RentalStatus status) {
+        return new RentalSnapshot(id, 1L, 1L, DAY, DAY.plusDays(6), null, 1, dailyRate, dailyRate, status);
+    }
+    
+    private static int indexOf(byte[] data, byte[] part) {
+        for (int i = 0; i + part.length <= data.length; i++) {
+            if (Arrays.equals(data, i, i + part.length, part, 0, part.length)) {
+                return i;
+            }
+        }
+        throw new AssertionError("not found");
+    }
+}
\ No newline at end of file
@@ -0,0 +1,16 @@
+package com.hospital.equipment.service;
+
+import org.springframework.boot.test.context.SpringBootTest;
+
+@SpringBootTest(properties = {
+        "rental.booking.concurrency=OPTIMISTIC",
+        "spring.datasource.url=jdbc:h2:mem:booking-optimistic",
+        "spring.jpa.show-sql=false"
+})
+class OptimisticBookingConcurrencyTest extends AbstractBookingConcurrencyTest {
+    
+    @Override
+    protected BookingConcurrencyMode expectedMode() {
+        return BookingConcurrencyMode.OPTIMISTIC;
+    }
+}
\ No newline at end of file
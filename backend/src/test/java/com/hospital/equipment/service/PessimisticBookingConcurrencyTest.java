@@ -0,0 +1,16 @@
+package com.hospital.equipment.service;
+
+import org.springframework.boot.test.context.SpringBootTest;
+
+@SpringBootTest(properties = {
+        "rental.booking.concurrency=PESSIMISTIC",
+        "spring.datasource.url=jdbc:h2:mem:booking-pessimistic",
+        "spring.jpa.show-sql=false"
+})
+class PessimisticBookingConcurrencyTest extends AbstractBookingConcurrencyTest {
+    
+    @Override
+    protected BookingConcurrencyMode expectedMode() {
+        return BookingConcurrencyMode.PESSIMISTIC;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,149 @@
+package com.hospital.equipment.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Comparator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Random;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+
+import com.hospital.equipment.entity.Rental;
+
+class ProjectionQueriesCursorTest {
+    
+    // Stands in for a view record; the merge reads components by name as it does from the real ones
+    record Row(Long id, String name, LocalDate day) {
+    }
+    
+    @Test
+    void cursorRoundTripsEverySortableType() {
+        assertRoundTrip("name", "Hospital bed | electric", String.class);
+        assertRoundTrip("count", 42L, Long.class);
+        assertRoundTrip("quantity", -3, Integer.class);
+        assertRoundTrip("dailyPrice", new BigDecimal("125.50"), BigDecimal.class);
+        assertRoundTrip("startDate", LocalDate.of(2025, 3, 10), LocalDate.class);
+        assertRoundTrip("createdAt", LocalDateTime.of(2025, 3, 10, 14, 5, 7, 123_000_000), LocalDateTime.class);
+        assertRoundTrip("status", Rental.RentalStatus.OVERDUE, Rental.RentalStatus.class);
+    }
+    
+    @Test
+    void idCursorCarriesTheIdOnly() {
+        String cursor = ProjectionQueries.encode("id", true, 17L, 17L);
+        
+        assertEquals(17L, ProjectionQueries.decode(cursor, "id", true, Long.class).id());
+    }
+    
+    // Cursors go into query strings as they are
+    @Test
+    void cursorIsUrlSafe() {
+        String cursor = ProjectionQueries.encode("name", false, 1L, "??>>~~ü");
+        
+        assertFalse(cursor.contains("+") || cursor.contains("/") || cursor.contains("="), cursor);
+    }
+    
+    @Test
+    void cursorForAnotherSortOrDirectionIsRejected() {
+        String cursor = ProjectionQueries.encode("name", false, 5L, "Walker");
+        
+        assertInvalid(cursor, "email", false, String.class, "Cursor does not match the requested sort");
+        assertInvalid(cursor, "name", true, String.class, "Cursor does not match the requested sort");
+    }
+    
+    @Test
+    void malformedCursorsAreRejected() {
+        assertInvalid("not base64!", "name", false, String.class, "Invalid cursor");
+        assertInvalid(raw("name|asc|5"), "name", false, String.class, "Cursor does not match the requested sort");
+        assertInvalid(raw("startDate|asc|x|2025-03-10"), "startDate", false, LocalDate.class, "Invalid cursor");
+        assertInvalid(raw("startDate|asc|5|tomorrow"), "startDate", false, LocalDate.class, "Invalid cursor");
+        assertInvalid(raw("status|asc|5|LOST"), "status", false, Rental.RentalStatus.class, "Invalid cursor");
+        assertInvalid(raw("flag|asc|5|true"), "flag", false, Boolean.class, "Invalid cursor");
+    }
+    
+    // Descending is the exact reverse, ties and nulls included, as the queries order both columns desc
+    @Test
+    void orderBreaksTiesByIdAndPutsNullsFirstAscending() {
+        Row a = new Row(3L, "b", null);
+        Row b = new Row(1L, "a", LocalDate.of(2025, 1, 2));
+        Row c = new Row(2L, "a", LocalDate.of(2025, 1, 1));
+        Row d = new Row(4L, "a", LocalDate.of(2025, 1, 1));
+        
+        assertEquals(List.of(b, d, c, a), sorted(List.of(a, b, c, d), "day", true));
+        assertEquals(List.of(a, c, d, b), sorted(List.of(a, b, c, d), "day", false));
+        assertEquals(List.of(b, c, d, a), sorted(List.of(a, b, c, d), "name", false));
+        assertEquals(List.of(d, a, c, b), sorted(List.of(a, b, c, d), "id", true));
+    }
+    
+    // Rows of several tables, each in the page's order, come out as one list in that order
+    @Test
+    void mergeOfSortedTablesMatchesASortOfTheirUnion() {
+        Random random = new Random(11);
+        for (String sort : List.of("id", "name", "day")) {
+            for (boolean descending : List.of(false, true)) {
+                Comparator<Row> order = ProjectionQueries.order(sort, descending);
+                List<Row> all = new ArrayList<>();
+                List<Stream<Row>> tables = new ArrayList<>();
+                long id = 1;
+                for (int table = 0; table < 3; table++) {
+                    List<Row> rows = new ArrayList<>();
+                    // The last table is empty
+                    for (int i = 0; table < 2 && i < 50; i++) {
+                        rows.add(new Row(id++, "name" + random.nextInt(10),
+                                         random.nextInt(8) == 0 ? null : LocalDate.of(2025, 1, 1 + random.nextInt(5))));
+                    }
+                    rows.sort(order);
+                    all.addAll(rows);
+                    tables.add(rows.stream());
+                }
+                all.sort(order);
+                
+                List<Row> merged = new ArrayList<>();
+                new ProjectionQueries.MergingIterator<>(tables, order).forEachRemaining(merged::add);
+                assertEquals(all, merged, sort + (descending ? " desc" : " asc"));
+            }
+        }
+    }
+    
+    @Test
+    void exhaustedMergeThrows() {
+        ProjectionQueries.MergingIterator<Row> merged =
+                new ProjectionQueries.MergingIterator<>(List.of(Stream.empty()), ProjectionQueries.order("id", false));
+        
+        assertFalse(merged.hasNext());
+        assertThrows(NoSuchElementException.class, merged::next);
+    }
+    
+    private static void assertRoundTrip(String sort, Object value, Class<?> type) {
+        for (boolean descending : List.of(false, true)) {
+            ProjectionQueries.Cursor cursor =
+                    ProjectionQueries.decode(ProjectionQueries.encode(sort, descending, 9L, value), sort, descending, type);
+            
+            assertEquals(new ProjectionQueries.Cursor(9L, value), cursor);
+        }
+    }
+    
+    private static void assertInvalid(String cursor, String sort, boolean descending, Class<?> type, String message) {
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+                                                  () -> ProjectionQueries.decode(cursor, sort, descending, type));
+        assertEquals(message, e.getMessage());
+    }
+    
+    private static String raw(String cursor) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(cursor.getBytes());
+    }
+    
+    private static List<Row> sorted(List<Row> rows, String sort, boolean descending) {
+        List<Row> copy = new ArrayList<>(rows);
+        copy.sort(ProjectionQueries.order(sort, descending));
+        return copy;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,71 @@
+package com.hospital.equipment.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.hospital.equipment.dto.AvailabilityWindow;
+
+// RentalService.findWindows over a timeline of one item with 3 units
+class RentalWindowFinderTest {
+    
+    private static final LocalDate DAY = LocalDate.of(2025, 3, 10);
+    
+    @Test
+    void nothingBookedFillsTheLimitBackToBack() {
+        List<AvailabilityWindow> windows = RentalService.findWindows(new BookingTimeline(), 2, 3, DAY, 3);
+        
+        assertEquals(List.of(window(0, 2, null), window(3, 5, null), window(6, 8, null)), windows);
+    }
+    
+    @Test
+    void stretchesTooShortForTheDurationAreSkipped() {
+        BookingTimeline timeline = new BookingTimeline();
+        timeline.add(DAY.plusDays(2), DAY.plusDays(4), 3);
+        timeline.add(DAY.plusDays(9), DAY.plusDays(9), 3);
+        
+        // Free: days 0-1 (too short), 5-8, then from 10 on
+        assertEquals(List.of(window(5, 7, 8), window(10, 12, null), window(13, 15, null)),
+                     RentalService.findWindows(timeline, 2, 3, DAY, 3));
+    }
+    
+    @Test
+    void aStretchYieldsAsManyWindowsAsFitInIt() {
+        BookingTimeline timeline = new BookingTimeline();
+        timeline.add(DAY.plusDays(7), DAY.plusDays(7), 3);
+        
+        assertEquals(List.of(window(0, 2, 6), window(3, 5, 6), window(8, 10, null)),
+                     RentalService.findWindows(timeline, 2, 3, DAY, 3));
+    }
+    
+    @Test
+    void windowExactlyFillingAStretchFits() {
+        BookingTimeline timeline = new BookingTimeline();
+        timeline.add(DAY.plusDays(3), DAY.plusDays(3), 3);
+        
+        assertEquals(List.of(window(0, 2, 2)), RentalService.findWindows(timeline, 2, 3, DAY, 1));
+    }
+    
+    // maxBooked is the units that may already be out for the requested quantity still to fit
+    @Test
+    void partlyBookedDaysCountAsFreeUpToMaxBooked() {
+        BookingTimeline timeline = new BookingTimeline();
+        timeline.add(DAY, DAY.plusDays(5), 1);
+        
+        assertEquals(List.of(window(0, 1, null)), RentalService.findWindows(timeline, 2, 2, DAY, 1));
+        assertEquals(List.of(window(6, 7, null)), RentalService.findWindows(timeline, 0, 2, DAY, 1));
+    }
+    
+    @Test
+    void noWindowsWhenTheQuantityExceedsTheUnits() {
+        assertEquals(List.of(), RentalService.findWindows(new BookingTimeline(), -1, 1, DAY, 5));
+    }
+    
+    private static AvailabilityWindow window(int startDay, int endDay, Integer freeUntilDay) {
+        return new AvailabilityWindow(DAY.plusDays(startDay), DAY.plusDays(endDay),
+                                      freeUntilDay == null ? null : DAY.plusDays(freeUntilDay));
+    }
+}
\ No newline at end of file
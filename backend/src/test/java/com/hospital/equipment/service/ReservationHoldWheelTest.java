@@ -0,0 +1,176 @@
+package com.hospital.equipment.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.hospital.equipment.dto.ReservationHold;
+
+// The wheel has 512 one-second buckets and holds may last up to 1800 seconds, so a hold's bucket
+// comes round several times before it is due
+class ReservationHoldWheelTest {
+    
+    private static final LocalDate DAY = LocalDate.of(2025, 3, 10);
+    
+    private final TestClock clock = new TestClock(Instant.parse("2025-03-01T08:00:00.250Z"));
+    private final ReleaseRecorder index = new ReleaseRecorder();
+    private ReservationHoldService holds;
+    
+    @BeforeEach
+    void setUp() {
+        holds = new ReservationHoldService(index, 600, 1800, clock);
+    }
+    
+    @Test
+    void holdIsReleasedOnTheTickItExpires() {
+        ReservationHold hold = holds.register(1L, DAY, DAY, 1, 10);
+        
+        tick(9);
+        assertTrue(holds.getHold(hold.id()).isPresent());
+        assertEquals(List.of(), index.released);
+        
+        tick(1);
+        assertFalse(holds.getHold(hold.id()).isPresent());
+        assertEquals(List.of(hold.id()), index.released);
+    }
+    
+    @Test
+    void holdOutlivingATurnOfTheWheelSurvivesItsBucketComingRound() {
+        ReservationHold hold = holds.register(1L, DAY, DAY, 1, 1500);
+        
+        tick(1499);
+        assertTrue(holds.getHold(hold.id()).isPresent());
+        assertEquals(List.of(), index.released);
+        
+        tick(1);
+        assertEquals(List.of(hold.id()), index.released);
+    }
+    
+    // One advance after the scheduler stalled for longer than a turn visits every bucket once
+    @Test
+    void advanceAfterALongPauseReleasesEverythingDue() {
+        ReservationHold shortHold = holds.register(1L, DAY, DAY, 1, 5);
+        ReservationHold longHold = holds.register(2L, DAY, DAY, 1, 1200);
+        ReservationHold laterHold = holds.register(3L, DAY, DAY, 1, 1800);
+        
+        clock.advance(Duration.ofSeconds(1300));
+        holds.advance();
+        
+        assertEquals(Set.of(shortHold.id(), longHold.id()), Set.copyOf(index.released));
+        assertEquals(2, index.released.size());
+        assertTrue(holds.getHold(laterHold.id()).isPresent());
+        
+        clock.advance(Duration.ofSeconds(500));
+        holds.advance();
+        assertEquals(3, index.released.size());
+        assertFalse(holds.getHold(laterHold.id()).isPresent());
+    }
+    
+    @Test
+    void expiredHoldIsGoneBeforeTheSweepReachesIt() {
+        ReservationHold hold = holds.register(1L, DAY, DAY, 1, 3);
+        
+        clock.advance(Duration.ofSeconds(3));
+        assertFalse(holds.getHold(hold.id()).isPresent());
+        assertFalse(holds.take(hold.id()).isPresent());
+        assertEquals(List.of(), holds.getActiveHolds(1L));
+    }
+    
+    // Released holds leave their wheel entry behind; the sweep must not release them twice
+    @Test
+    void releasedHoldIsSkippedWhenItsBucketComesRound() {
+        ReservationHold hold = holds.register(1L, DAY, DAY, 1, 4);
+        assertTrue(holds.release(hold.id()));
+        assertFalse(holds.release(hold.id()));
+        
+        tick(10);
+        assertEquals(List.of(hold.id()), index.released);
+    }
+    
+    @Test
+    void restoredHoldExpiresOnItsOriginalSchedule() {
+        ReservationHold hold = holds.register(1L, DAY, DAY, 1, 6);
+        tick(2);
+        ReservationHold taken = holds.take(hold.id()).orElseThrow();
+        holds.restore(taken);
+        
+        tick(3);
+        assertTrue(holds.getHold(hold.id()).isPresent());
+        tick(1);
+        assertFalse(holds.getHold(hold.id()).isPresent());
+        assertEquals(List.of(hold.id(), hold.id()), index.released);
+    }
+    
+    @Test
+    void ttlOutsideTheAllowedRangeIsRejected() {
+        assertThrows(IllegalArgumentException.class, () -> holds.register(1L, DAY, DAY, 1, 0));
+        assertThrows(IllegalArgumentException.class, () -> holds.register(1L, DAY, DAY, 1, 1801));
+    }
+    
+    // One scheduled run per second, as in production
+    private void tick(int seconds) {
+        for (int i = 0; i < seconds; i++) {
+            clock.advance(Duration.ofSeconds(1));
+            holds.advance();
+        }
+    }
+    
+    private static class TestClock extends Clock {
+        
+        private Instant now;
+        
+        TestClock(Instant now) {
+            this.now = now;
+        }
+        
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+        
+        @Override
+        public Instant instant() {
+            return now;
+        }
+        
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+        
+        @Override
+        public Clock withZone(ZoneId zone) {
+            throw new UnsupportedOperationException();
+        }
+    }
+    
+    // Only the hold side of the index is used, so it needs no ledger
+    private static class ReleaseRecorder extends BookingCalendarIndex {
+        
+        private final List<UUID> released = new ArrayList<>();
+        
+        ReleaseRecorder() {
+            super(null);
+        }
+        
+        @Override
+        public synchronized void releaseHold(UUID holdId) {
+            released.add(holdId);
+            super.releaseHold(holdId);
+        }
+    }
+}
\ No newline at end of file
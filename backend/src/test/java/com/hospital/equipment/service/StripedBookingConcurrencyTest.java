@@ -0,0 +1,16 @@
+package com.hospital.equipment.service;
+
+import org.springframework.boot.test.context.SpringBootTest;
+
+@SpringBootTest(properties = {
+        "rental.booking.concurrency=STRIPED",
+        "spring.datasource.url=jdbc:h2:mem:booking-striped",
+        "spring.jpa.show-sql=false"
+})
+class StripedBookingConcurrencyTest extends AbstractBookingConcurrencyTest {
+    
+    @Override
+    protected BookingConcurrencyMode expectedMode() {
+        return BookingConcurrencyMode.STRIPED;
+    }
+}
\ No newline at end of file
@@ -3,14 +3,20 @@ import {
   Row, Col, Card, Table, Button, Badge, Tab, Tabs, 
   Alert, Spinner, Modal 
 } from 'react-bootstrap';
-import { Equipment, Rental, Customer } from '../types';
-import { equipmentAPI, rentalAPI, customerAPI } from '../services/api';
+import { Equipment, Rental, Customer, DashboardStats } from '../types';
+import { equipmentAPI, rentalAPI, customerAPI, statsAPI } from '../services/api';
+
+const PAGE_SIZE = 50;
 
 const AdminDashboard: React.FC = () => {
   const [activeTab, setActiveTab] = useState('rentals');
+  const [stats, setStats] = useState<DashboardStats | null>(null);
   const [rentals, setRentals] = useState<Rental[]>([]);
+  const [rentalsCursor, setRentalsCursor] = useState<string | null>(null);
   const [equipment, setEquipment] = useState<Equipment[]>([]);
   const [customers, setCustomers] = useState<Customer[]>([]);
+  const [equipmentCursor, setEquipmentCursor] = useState<string | null>(null);
+  const [customersCursor, setCustomersCursor] = useState<string | null>(null);
   const [loading, setLoading] = useState(true);
   const [error, setError] = useState<string | null>(null);
   const [showModal, setShowModal] = useState(false);
@@ -28,15 +34,20 @@ const AdminDashboard: React.FC = () => {
   const fetchData = async () => {
     try {
       setLoading(true);
-      const [rentalsResponse, equipmentResponse, customersResponse] = await Promise.all([
-        rentalAPI.getAll(),
-        equipmentAPI.getAll(),
-        customerAPI.getAll()
+      const [statsResponse, rentalsResponse, equipmentResponse, customersResponse] = await Promise.all([
+        statsAPI.get(),
+        rentalAPI.getPage({ size: PAGE_SIZE, direction: 'desc' }),
+        equipmentAPI.getPage({ size: PAGE_SIZE }),
+        customerAPI.getPage({ size: PAGE_SIZE })
       ]);
       
-      setRentals(rentalsResponse.data);
-      setEquipment(equipmentResponse.data);
-      setCustomers(customersResponse.data);
+      setStats(statsResponse.data);
+      setRentals(rentalsResponse.data.items);
+      setRentalsCursor(rentalsResponse.data.nextCursor);
+      setEquipment(equipmentResponse.data.items);
+      setEquipmentCursor(equipmentResponse.data.nextCursor);
+      setCustomers(customersResponse.data.items);
+      setCustomersCursor(customersResponse.data.nextCursor);
     } catch (err) {
       setError('Failed to fetch dashboard data');
       console.error('Error fetching data:', err);
@@ -45,6 +56,42 @@ const AdminDashboard: React.FC = () => {
     }
   };
 
+  const loadMoreRentals = async () => {
+    if (!rentalsCursor) return;
+    try {
+      const response = await rentalAPI.getPage({ size: PAGE_SIZE, direction: 'desc', cursor: rentalsCursor });
+      setRentals(prev => [...prev, ...response.data.items]);
+      setRentalsCursor(response.data.nextCursor);
+    } catch (err) {
+      setError('Failed to load more rentals');
+      console.error('Error loading rentals:', err);
+    }
+  };
+
+  const loadMoreEquipment = async () => {
+    if (!equipmentCursor) return;
+    try {
+      const response = await equipmentAPI.getPage({ size: PAGE_SIZE, cursor: equipmentCursor });
+      setEquipment(prev => [...prev, ...response.data.items]);
+      setEquipmentCursor(response.data.nextCursor);
+    } catch (err) {
+      setError('Failed to load more equipment');
+      console.error('Error loading equipment:', err);
+    }
+  };
+
+  const loadMoreCustomers = async () => {
+    if (!customersCursor) return;
+    try {
+      const response = await customerAPI.getPage({ size: PAGE_SIZE, cursor: customersCursor });
+      setCustomers(prev => [...prev, ...response.data.items]);
+      setCustomersCursor(response.data.nextCursor);
+    } catch (err) {
+      setError('Failed to load more customers');
+      console.error('Error loading customers:', err);
+    }
+  };
+
   const handleStatusUpdate = async (rentalId: number, newStatus: string) => {
     try {
       await rentalAPI.updateStatus(rentalId, newStatus);
@@ -152,13 +199,11 @@ const AdminDashboard: React.FC = () => {
     );
   }
 
-  // Calculate statistics
-  const activeRentals = rentals.filter(r => r.status === 'ACTIVE').length;
-  const pendingRentals = rentals.filter(r => r.status === 'PENDING').length;
-  const overdueRentals = rentals.filter(r => r.status === 'OVERDUE').length;
-  const totalRevenue = rentals
-    .filter(r => r.status === 'COMPLETED')
-    .reduce((sum, r) => sum + r.totalAmount, 0);
+  // Totals come from the server; the tables below only hold the pages loaded so far
+  const activeRentals = stats?.rentalsByStatus.ACTIVE ?? 0;
+  const pendingRentals = stats?.rentalsByStatus.PENDING ?? 0;
+  const overdueRentals = stats?.rentalsByStatus.OVERDUE ?? 0;
+  const totalRevenue = stats?.revenueByStatus.COMPLETED ?? 0;
 
   return (
     <div>
@@ -248,6 +293,11 @@ const AdminDashboard: React.FC = () => {
                   ))}
                 </tbody>
               </Table>
+              {rentalsCursor && (
+                <Button variant="outline-secondary" size="sm" onClick={loadMoreRentals}>
+                  Load more
+                </Button>
+              )}
             </Card.Body>
           </Card>
         </Tab>
@@ -312,6 +362,11 @@ const AdminDashboard: React.FC = () => {
                   ))}
                 </tbody>
               </Table>
+              {equipmentCursor && (
+                <Button variant="outline-secondary" size="sm" onClick={loadMoreEquipment}>
+                  Load more
+                </Button>
+              )}
             </Card.Body>
           </Card>
         </Tab>
@@ -343,6 +398,11 @@ const AdminDashboard: React.FC = () => {
                   ))}
                 </tbody>
               </Table>
+              {customersCursor && (
+                <Button variant="outline-secondary" size="sm" onClick={loadMoreCustomers}>
+                  Load more
+                </Button>
+              )}
             </Card.Body>
           </Card>
         </Tab>
@@ -1,8 +1,10 @@
 import React, { useState, useEffect } from 'react';
 import { useParams, useNavigate } from 'react-router-dom';
-import { Row, Col, Card, Button, Badge, Alert, Spinner } from 'react-bootstrap';
-import { Equipment } from '../types';
-import { equipmentAPI } from '../services/api';
+import { Row, Col, Card, Button, Badge, Alert, Spinner, Table } from 'react-bootstrap';
+import { Equipment, AvailabilityCalendar } from '../types';
+import { equipmentAPI, rentalAPI } from '../services/api';
+
+const CALENDAR_DAYS = 60;
 
 const EquipmentDetail: React.FC = () => {
   const { id } = useParams<{ id: string }>();
@@ -10,6 +12,7 @@ const EquipmentDetail: React.FC = () => {
   const [equipment, setEquipment] = useState<Equipment | null>(null);
   const [loading, setLoading] = useState(true);
   const [error, setError] = useState<string | null>(null);
+  const [calendar, setCalendar] = useState<AvailabilityCalendar | null>(null);
 
   useEffect(() => {
     if (id) {
@@ -21,6 +24,7 @@ const EquipmentDetail: React.FC = () => {
     try {
       const response = await equipmentAPI.getWithCategory(equipmentId);
       setEquipment(response.data);
+      fetchCalendar(equipmentId);
     } catch (err) {
       setError('Failed to fetch equipment details');
       console.error('Error fetching equipment:', err);
@@ -29,6 +33,22 @@ const EquipmentDetail: React.FC = () => {
     }
   };
 
+  const fetchCalendar = async (equipmentId: number) => {
+    const from = new Date();
+    const to = new Date();
+    to.setDate(to.getDate() + CALENDAR_DAYS);
+    try {
+      const response = await rentalAPI.getAvailabilityCalendar(
+        equipmentId,
+        from.toISOString().split('T')[0],
+        to.toISOString().split('T')[0]
+      );
+      setCalendar(response.data);
+    } catch (err) {
+      console.error('Error fetching availability calendar:', err);
+    }
+  };
+
   const getStatusVariant = (status: string) => {
     switch (status) {
       case 'AVAILABLE':
@@ -148,6 +168,39 @@ const EquipmentDetail: React.FC = () => {
         </Col>
       </Row>
       
+      {/* Availability for the coming weeks */}
+      {calendar && (
+        <Row className="mt-4">
+          <Col>
+            <Card>
+              <Card.Body>
+                <Card.Title>Availability (next {CALENDAR_DAYS} days)</Card.Title>
+                <Table size="sm" className="mb-0">
+                  <thead>
+                    <tr>
+                      <th>From</th>
+                      <th>To</th>
+                      <th>Available</th>
+                    </tr>
+                  </thead>
+                  <tbody>
+                    {calendar.runs.map(run => (
+                      <tr key={run.startDate}>
+                        <td>{new Date(run.startDate).toLocaleDateString()}</td>
+                        <td>{new Date(run.endDate).toLocaleDateString()}</td>
+                        <td className={run.available > 0 ? 'text-success' : 'text-danger'}>
+                          {run.available} of {calendar.totalQuantity}
+                        </td>
+                      </tr>
+                    ))}
+                  </tbody>
+                </Table>
+              </Card.Body>
+            </Card>
+          </Col>
+        </Row>
+      )}
+
       {/* Category Description */}
       {equipment.category.description && (
         <Row className="mt-4">
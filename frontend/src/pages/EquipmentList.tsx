@@ -1,11 +1,17 @@
 import React, { useState, useEffect } from 'react';
 import { Row, Col, Card, Button, Form, InputGroup, Alert, Spinner } from 'react-bootstrap';
 import { useNavigate, useSearchParams } from 'react-router-dom';
-import { Equipment, Category } from '../types';
+import { Equipment, Category, EquipmentQueryParams, FacetCount } from '../types';
 import { equipmentAPI, categoryAPI } from '../services/api';
 
+const PAGE_SIZE = 30;
+
 const EquipmentList: React.FC = () => {
   const [equipment, setEquipment] = useState<Equipment[]>([]);
+  const [cursor, setCursor] = useState<string | null>(null);
+  const [total, setTotal] = useState(0);
+  const [categoryFacets, setCategoryFacets] = useState<FacetCount[]>([]);
+  const [priceFacets, setPriceFacets] = useState<FacetCount[]>([]);
   const [categories, setCategories] = useState<Category[]>([]);
   const [loading, setLoading] = useState(true);
   const [error, setError] = useState<string | null>(null);
@@ -31,12 +37,9 @@ const EquipmentList: React.FC = () => {
 
   const fetchData = async () => {
     try {
-      const [equipmentResponse, categoriesResponse] = await Promise.all([
-        equipmentAPI.getAvailable(),
-        categoryAPI.getAll()
-      ]);
-      setEquipment(equipmentResponse.data);
+      const categoriesResponse = await categoryAPI.getAll();
       setCategories(categoriesResponse.data);
+      await runQuery(buildQuery(categoriesResponse.data, searchTerm, selectedCategory, minPrice, maxPrice));
     } catch (err) {
       setError('Failed to fetch equipment data');
       console.error('Error fetching data:', err);
@@ -45,38 +48,34 @@ const EquipmentList: React.FC = () => {
     }
   };
 
-  const handleSearch = async () => {
+  // Filtering and facet counts happen on the server; only the first page comes back
+  const buildQuery = (
+    categoryList: Category[], term: string, categoryName: string, min: string, max: string
+  ): EquipmentQueryParams => {
+    const query: EquipmentQueryParams = { available: true, size: PAGE_SIZE };
+    const category = categoryList.find(c => c.name.toLowerCase() === categoryName.toLowerCase());
+    if (category) query.categoryId = [category.id];
+    if (term.trim()) query.keyword = term.trim();
+    const minVal = parseFloat(min);
+    if (!isNaN(minVal)) query.minPrice = minVal;
+    const maxVal = parseFloat(max);
+    if (!isNaN(maxVal)) query.maxPrice = maxVal;
+    return query;
+  };
+
+  const runQuery = async (query: EquipmentQueryParams) => {
+    const response = await equipmentAPI.query(query);
+    setEquipment(response.data.items);
+    setCursor(response.data.nextCursor);
+    setTotal(response.data.total);
+    setCategoryFacets(response.data.categories);
+    setPriceFacets(response.data.priceRanges);
+  };
+
+  const handleSearch = async (min = minPrice, max = maxPrice) => {
     setLoading(true);
     try {
-      // Fetch base list first (available equipment)
-      let base = await equipmentAPI.getAvailable();
-      let items = base.data;
-
-      // Apply category filter client-side if selected
-      if (selectedCategory) {
-        items = items.filter(i => i.category?.name?.toLowerCase() === selectedCategory.toLowerCase());
-      }
-      // Apply search term filter
-      if (searchTerm) {
-        const term = searchTerm.toLowerCase();
-        items = items.filter(i =>
-          i.name.toLowerCase().includes(term) ||
-          i.description.toLowerCase().includes(term) ||
-          i.manufacturer.toLowerCase().includes(term) ||
-          i.model.toLowerCase().includes(term)
-        );
-      }
-      // Apply price bounds
-      if (minPrice) {
-        const minVal = parseFloat(minPrice);
-        if (!isNaN(minVal)) items = items.filter(i => i.dailyPrice >= minVal);
-      }
-      if (maxPrice) {
-        const maxVal = parseFloat(maxPrice);
-        if (!isNaN(maxVal)) items = items.filter(i => i.dailyPrice <= maxVal);
-      }
-
-      setEquipment(items);
+      await runQuery(buildQuery(categories, searchTerm, selectedCategory, min, max));
     } catch (err) {
       setError('Failed to search equipment');
       console.error('Error searching equipment:', err);
@@ -85,12 +84,43 @@ const EquipmentList: React.FC = () => {
     }
   };
 
+  const loadMore = async () => {
+    if (!cursor) return;
+    try {
+      const query = buildQuery(categories, searchTerm, selectedCategory, minPrice, maxPrice);
+      const response = await equipmentAPI.query({ ...query, cursor });
+      setEquipment(prev => [...prev, ...response.data.items]);
+      setCursor(response.data.nextCursor);
+    } catch (err) {
+      setError('Failed to load more equipment');
+      console.error('Error loading equipment:', err);
+    }
+  };
+
+  // Price range facets are labelled "lo-hi" or "lo+"; hi itself belongs to the next range
+  const applyPriceRange = (range: FacetCount) => {
+    const [lo, hi] = range.value.replace('+', '').split('-');
+    const max = hi ? (parseFloat(hi) - 0.01).toFixed(2) : '';
+    setMinPrice(lo);
+    setMaxPrice(max);
+    handleSearch(lo, max);
+  };
+
+  const facetCount = (category: Category) =>
+    categoryFacets.find(f => f.value === String(category.id))?.count ?? 0;
+
   const handleReset = () => {
     setSearchTerm('');
     setSelectedCategory('');
     setMinPrice('');
     setMaxPrice('');
-    fetchData();
+    setLoading(true);
+    runQuery(buildQuery(categories, '', '', '', ''))
+      .catch(err => {
+        setError('Failed to fetch equipment data');
+        console.error('Error fetching data:', err);
+      })
+      .finally(() => setLoading(false));
   };
 
   if (loading) {
@@ -138,7 +168,7 @@ const EquipmentList: React.FC = () => {
                   <option value="">All Categories</option>
                   {categories.map(category => (
                     <option key={category.id} value={category.name}>
-                      {category.name}
+                      {category.name} ({facetCount(category)})
                     </option>
                   ))}
                 </Form.Select>
@@ -168,7 +198,7 @@ const EquipmentList: React.FC = () => {
             </Col>
             <Col md={2} className="d-flex align-items-end">
               <div className="d-grid gap-2 w-100">
-                <Button variant="primary" onClick={handleSearch}>
+                <Button variant="primary" onClick={() => handleSearch()}>
                   Search
                 </Button>
                 <Button variant="outline-secondary" onClick={handleReset}>
@@ -177,8 +207,26 @@ const EquipmentList: React.FC = () => {
               </div>
             </Col>
           </Row>
+          {priceFacets.length > 0 && (
+            <div className="mt-3">
+              <span className="text-muted small me-2">Price per day:</span>
+              {priceFacets.map(range => (
+                <Button
+                  key={range.value}
+                  variant="outline-secondary"
+                  size="sm"
+                  className="me-2"
+                  disabled={range.count === 0}
+                  onClick={() => applyPriceRange(range)}
+                >
+                  ${range.label} ({range.count})
+                </Button>
+              ))}
+            </div>
+          )}
         </Card.Body>
       </Card>
+      <p className="text-muted">{total} items</p>
 
       {/* Equipment Grid */}
       {equipment.length === 0 ? (
@@ -233,6 +281,13 @@ const EquipmentList: React.FC = () => {
           ))}
         </Row>
       )}
+      {cursor && (
+        <div className="text-center mb-4">
+          <Button variant="outline-secondary" onClick={loadMore}>
+            Load more
+          </Button>
+        </div>
+      )}
     </div>
   );
 };
@@ -3,9 +3,25 @@ import { useParams, useNavigate } from 'react-router-dom';
 import { 
   Row, Col, Card, Form, Button, Alert, Spinner, Modal 
 } from 'react-bootstrap';
-import { Equipment, Customer, RentalRequest } from '../types';
+import { Equipment, Customer, RentalRequest, AvailabilityCalendar } from '../types';
 import { equipmentAPI, customerAPI, rentalAPI } from '../services/api';
 
+const CALENDAR_DAYS = 365;
+
+const toIsoDate = (date: Date) => date.toISOString().split('T')[0];
+
+// Lowest free quantity over [startDate, endDate], or null if the calendar does not cover the period
+const availableFromCalendar = (
+  calendar: AvailabilityCalendar,
+  startDate: string,
+  endDate: string
+): number | null => {
+  if (startDate < calendar.from || endDate > calendar.to) return null;
+  return calendar.runs
+    .filter(run => run.startDate <= endDate && run.endDate >= startDate)
+    .reduce((min, run) => Math.min(min, run.available), calendar.totalQuantity);
+};
+
 const RentalForm: React.FC = () => {
   const { equipmentId } = useParams<{ equipmentId: string }>();
   const navigate = useNavigate();
@@ -36,6 +52,7 @@ const RentalForm: React.FC = () => {
   
   const [estimatedCost, setEstimatedCost] = useState<number | null>(null);
   const [availableQuantity, setAvailableQuantity] = useState<number | null>(null);
+  const [calendar, setCalendar] = useState<AvailabilityCalendar | null>(null);
 
   useEffect(() => {
     if (equipmentId) {
@@ -55,6 +72,7 @@ const RentalForm: React.FC = () => {
     try {
       const response = await equipmentAPI.getWithCategory(id);
       setEquipment(response.data);
+      fetchCalendar(id);
     } catch (err) {
       setError('Failed to fetch equipment details');
       console.error('Error fetching equipment:', err);
@@ -63,6 +81,19 @@ const RentalForm: React.FC = () => {
     }
   };
 
+  // One request covers the booking horizon; date changes are then answered locally
+  const fetchCalendar = async (id: number) => {
+    const from = new Date();
+    const to = new Date();
+    to.setDate(to.getDate() + CALENDAR_DAYS);
+    try {
+      const response = await rentalAPI.getAvailabilityCalendar(id, toIsoDate(from), toIsoDate(to));
+      setCalendar(response.data);
+    } catch (err) {
+      console.error('Error fetching availability calendar:', err);
+    }
+  };
+
   const calculateCost = async () => {
     if (!equipment || !formData.startDate || !formData.endDate) return;
     
@@ -82,6 +113,14 @@ const RentalForm: React.FC = () => {
   const checkAvailability = async () => {
     if (!equipment || !formData.startDate || !formData.endDate) return;
     
+    if (calendar) {
+      const fromCalendar = availableFromCalendar(calendar, formData.startDate, formData.endDate);
+      if (fromCalendar !== null) {
+        setAvailableQuantity(fromCalendar);
+        return;
+      }
+    }
+    
     try {
       const response = await rentalAPI.getAvailableQuantityForPeriod(
         equipment.id,
@@ -1,5 +1,9 @@
 import axios from 'axios';
-import { Category, Equipment, Customer, Rental, RentalRequest } from '../types';
+import {
+  Category, Equipment, Customer, Rental, RentalRequest, AvailabilityQuery, AvailabilityResult,
+  AvailabilityCalendar, AvailabilityWindow, EquipmentWindow, HoldRequest, ReservationHold,
+  CursorPage, PageParams, EquipmentQueryParams, EquipmentQueryResult, DashboardStats
+} from '../types';
 
 const API_BASE_URL = 'http://localhost:8080/api';
 
@@ -10,9 +14,13 @@ const api = axios.create({
   },
 });
 
+// List endpoints return cursor pages by default; these callers need the whole list
+const unpaged = { params: { unpaged: true } };
+
 // Category API
 export const categoryAPI = {
-  getAll: () => api.get<Category[]>('/categories'),
+  getAll: () => api.get<Category[]>('/categories', unpaged),
+  getPage: (params: PageParams = {}) => api.get<CursorPage<Category>>('/categories', { params }),
   getById: (id: number) => api.get<Category>(`/categories/${id}`),
   getWithEquipment: (id: number) => api.get<Category>(`/categories/${id}/with-equipment`),
   create: (category: Omit<Category, 'id'>) => api.post<Category>('/categories', category),
@@ -23,20 +31,24 @@ export const categoryAPI = {
 
 // Equipment API
 export const equipmentAPI = {
-  getAll: () => api.get<Equipment[]>('/equipment'),
-  getAvailable: () => api.get<Equipment[]>('/equipment/available'),
+  getAll: () => api.get<Equipment[]>('/equipment', unpaged),
+  getPage: (params: PageParams = {}) => api.get<CursorPage<Equipment>>('/equipment', { params }),
+  getAvailable: () => api.get<Equipment[]>('/equipment/available', unpaged),
+  // Repeated categoryId=1&categoryId=2, which is what Spring binds to a list
+  query: (params: EquipmentQueryParams) =>
+    api.get<EquipmentQueryResult>('/equipment/query', { params, paramsSerializer: { indexes: null } }),
   getById: (id: number) => api.get<Equipment>(`/equipment/${id}`),
   getWithCategory: (id: number) => api.get<Equipment>(`/equipment/${id}/with-category`),
   getByCategory: (categoryId: number) => 
-    api.get<Equipment[]>(`/equipment/category/${categoryId}`),
+    api.get<Equipment[]>(`/equipment/category/${categoryId}`, unpaged),
   getAvailableByCategory: (categoryId: number) => 
-    api.get<Equipment[]>(`/equipment/category/${categoryId}/available`),
+    api.get<Equipment[]>(`/equipment/category/${categoryId}/available`, unpaged),
   search: (keyword: string) => 
-    api.get<Equipment[]>(`/equipment/search?keyword=${encodeURIComponent(keyword)}`),
+    api.get<Equipment[]>(`/equipment/search?keyword=${encodeURIComponent(keyword)}`, unpaged),
   getByPriceRange: (minPrice: number, maxPrice: number) => 
-    api.get<Equipment[]>(`/equipment/price-range?minPrice=${minPrice}&maxPrice=${maxPrice}`),
+    api.get<Equipment[]>(`/equipment/price-range?minPrice=${minPrice}&maxPrice=${maxPrice}`, unpaged),
   getByStatus: (status: string) => 
-    api.get<Equipment[]>(`/equipment/status/${status}`),
+    api.get<Equipment[]>(`/equipment/status/${status}`, unpaged),
   create: (equipment: Omit<Equipment, 'id'>) => 
     api.post<Equipment>('/equipment', equipment),
   update: (id: number, equipment: Omit<Equipment, 'id'>) => 
@@ -55,12 +67,13 @@ export const equipmentAPI = {
 
 // Customer API
 export const customerAPI = {
-  getAll: () => api.get<Customer[]>('/customers'),
+  getAll: () => api.get<Customer[]>('/customers', unpaged),
+  getPage: (params: PageParams = {}) => api.get<CursorPage<Customer>>('/customers', { params }),
   getById: (id: number) => api.get<Customer>(`/customers/${id}`),
   getWithRentals: (id: number) => api.get<Customer>(`/customers/${id}/with-rentals`),
   getByEmail: (email: string) => api.get<Customer>(`/customers/email/${email}`),
   search: (name: string) => 
-    api.get<Customer[]>(`/customers/search?name=${encodeURIComponent(name)}`),
+    api.get<Customer[]>(`/customers/search?name=${encodeURIComponent(name)}`, unpaged),
   create: (customer: Omit<Customer, 'id'>) => 
     api.post<Customer>('/customers', customer),
   update: (id: number, customer: Omit<Customer, 'id'>) => 
@@ -70,19 +83,23 @@ export const customerAPI = {
 
 // Rental API
 export const rentalAPI = {
-  getAll: () => api.get<Rental[]>('/rentals'),
+  getAll: () => api.get<Rental[]>('/rentals', unpaged),
+  getPage: (params: PageParams = {}) => api.get<CursorPage<Rental>>('/rentals', { params }),
   getById: (id: number) => api.get<Rental>(`/rentals/${id}`),
   getWithDetails: (id: number) => api.get<Rental>(`/rentals/${id}/details`),
   getByCustomer: (customerId: number) => 
-    api.get<Rental[]>(`/rentals/customer/${customerId}`),
+    api.get<Rental[]>(`/rentals/customer/${customerId}`, unpaged),
   getByEquipment: (equipmentId: number) => 
-    api.get<Rental[]>(`/rentals/equipment/${equipmentId}`),
+    api.get<Rental[]>(`/rentals/equipment/${equipmentId}`, unpaged),
   getByStatus: (status: string) => 
-    api.get<Rental[]>(`/rentals/status/${status}`),
-  getOverdue: () => api.get<Rental[]>('/rentals/overdue'),
+    api.get<Rental[]>(`/rentals/status/${status}`, unpaged),
+  getOverdue: () => api.get<Rental[]>('/rentals/overdue', unpaged),
   getActiveOnDate: (date: string) => 
-    api.get<Rental[]>(`/rentals/active?date=${date}`),
+    api.get<Rental[]>(`/rentals/active?date=${date}`, unpaged),
   create: (rental: RentalRequest) => api.post<Rental>('/rentals', rental),
+  placeHold: (hold: HoldRequest) => api.post<ReservationHold>('/rentals/holds', hold),
+  getHold: (holdId: string) => api.get<ReservationHold>(`/rentals/holds/${holdId}`),
+  releaseHold: (holdId: string) => api.delete(`/rentals/holds/${holdId}`),
   update: (id: number, rental: Partial<Rental>) => 
     api.put<Rental>(`/rentals/${id}`, rental),
   updateStatus: (id: number, status: string) => 
@@ -97,6 +114,30 @@ export const rentalAPI = {
     api.get<boolean>(
       `/rentals/equipment/${equipmentId}/availability?startDate=${startDate}&endDate=${endDate}&quantity=${quantity}`
     ),
+  checkAvailabilityBatch: (queries: AvailabilityQuery[]) =>
+    api.post<AvailabilityResult[]>('/rentals/availability/batch', queries),
+  getAvailabilityCalendar: (equipmentId: number, from: string, to: string) =>
+    api.get<AvailabilityCalendar>(
+      `/rentals/equipment/${equipmentId}/calendar?from=${from}&to=${to}`
+    ),
+  findAvailableWindows: (
+    equipmentId: number,
+    quantity: number,
+    durationDays: number,
+    notBefore?: string
+  ) =>
+    api.get<AvailabilityWindow[]>(`/rentals/equipment/${equipmentId}/windows`, {
+      params: { quantity, durationDays, notBefore },
+    }),
+  findAvailableWindowsInCategory: (
+    categoryId: number,
+    quantity: number,
+    durationDays: number,
+    notBefore?: string
+  ) =>
+    api.get<EquipmentWindow[]>(`/rentals/category/${categoryId}/windows`, {
+      params: { quantity, durationDays, notBefore },
+    }),
   getAvailableQuantityForPeriod: (
     equipmentId: number, 
     startDate: string, 
@@ -116,4 +157,9 @@ export const rentalAPI = {
     ),
 };
 
+// Dashboard API
+export const statsAPI = {
+  get: () => api.get<DashboardStats>('/stats'),
+};
+
 export default api;
\ No newline at end of file
@@ -30,10 +30,14 @@ export interface Customer {
   zipCode?: string;
 }
 
+export type RentalCustomer = Pick<Customer, 'id' | 'firstName' | 'lastName' | 'email' | 'phone'>;
+
+export type RentalEquipment = Pick<Equipment, 'id' | 'name'>;
+
 export interface Rental {
   id: number;
-  customer: Customer;
-  equipment: Equipment;
+  customer: RentalCustomer;
+  equipment: RentalEquipment;
   startDate: string;
   endDate: string;
   actualReturnDate?: string;
@@ -53,4 +57,103 @@ export interface RentalRequest {
   endDate: string;
   quantity: number;
   notes?: string;
+  holdId?: string;
+}
+
+export interface AvailabilityQuery {
+  equipmentId: number;
+  startDate: string;
+  endDate: string;
+  quantity: number;
+}
+
+export interface AvailabilityResult extends AvailabilityQuery {
+  available: boolean;
+  availableQuantity: number;
+}
+
+export interface AvailabilityRun {
+  startDate: string;
+  endDate: string;
+  available: number;
+}
+
+export interface AvailabilityCalendar {
+  equipmentId: number;
+  from: string;
+  to: string;
+  totalQuantity: number;
+  runs: AvailabilityRun[];
+}
+
+export interface AvailabilityWindow {
+  startDate: string;
+  endDate: string;
+  freeUntil?: string;
+}
+
+export interface EquipmentWindow extends AvailabilityWindow {
+  equipmentId: number;
+  equipmentName: string;
+  dailyPrice: number;
+}
+
+export interface HoldRequest {
+  equipmentId: number;
+  startDate: string;
+  endDate: string;
+  quantity: number;
+  ttlSeconds?: number;
+}
+
+export interface ReservationHold {
+  id: string;
+  equipmentId: number;
+  startDate: string;
+  endDate: string;
+  quantity: number;
+  expiresAt: string;
+}
+
+export interface PageParams {
+  cursor?: string;
+  size?: number;
+  sort?: string;
+  direction?: 'asc' | 'desc';
+}
+
+export interface CursorPage<T> {
+  items: T[];
+  nextCursor: string | null;
+}
+
+export interface EquipmentQueryParams extends PageParams {
+  categoryId?: number[];
+  keyword?: string;
+  minPrice?: number;
+  maxPrice?: number;
+  status?: Equipment['status'];
+  available?: boolean;
+  startDate?: string;
+  endDate?: string;
+  quantity?: number;
+}
+
+export interface FacetCount {
+  value: string;
+  label: string;
+  count: number;
+}
+
+export interface DashboardStats {
+  rentalsByStatus: Record<Rental['status'], number>;
+  revenueByStatus: Record<Rental['status'], number>;
+  equipmentByStatus: Record<Equipment['status'], number>;
+  equipmentByCategory: FacetCount[];
+}
+
+export interface EquipmentQueryResult extends CursorPage<Equipment> {
+  total: number;
+  categories: FacetCount[];
+  priceRanges: FacetCount[];
 }
\ No newline at end of file